@@ -0,0 +1,100 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.User;
+import hudson.scm.ChangeLogSet.Entry;
+import hudson.scm.SubversionChangeLogSet;
+import hudson.tasks.Mailer;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
+
+class AuthorAddressResolver {
+
+    static final long ADDRESS_TTL_MINUTES = 60;
+    static final long NO_ADDRESS_TTL_MINUTES = 10;
+    private static final int MAX_AUTHORS = 10000;
+    private static final AuthorAddressResolver INSTANCE =
+            new AuthorAddressResolver(new UserAddressLookup(), Ticker.systemTicker());
+
+    private final AddressLookup lookup;
+    private final Cache<String, String> addresses;
+    private final Cache<String, Boolean> withoutAddress;
+
+    AuthorAddressResolver(final AddressLookup lookup, final Ticker ticker) {
+        this.lookup = lookup;
+        addresses = CacheBuilder.newBuilder().maximumSize(MAX_AUTHORS).ticker(ticker)
+                .expireAfterWrite(ADDRESS_TTL_MINUTES, TimeUnit.MINUTES).build();
+        withoutAddress = CacheBuilder.newBuilder().maximumSize(MAX_AUTHORS).ticker(ticker)
+                .expireAfterWrite(NO_ADDRESS_TTL_MINUTES, TimeUnit.MINUTES).build();
+    }
+
+    static AuthorAddressResolver get() {
+        return INSTANCE;
+    }
+
+    Set<String> resolve(final Collection<? extends Entry> changes) {
+        final Set<String> authors = Sets.newLinkedHashSet();
+        for (final Entry change : changes) {
+            authors.add(authorOf(change));
+        }
+        final Set<String> recipients = Sets.newTreeSet();
+        for (final String author : authors) {
+            final String address = resolve(author);
+            if (address != null) {
+                recipients.add(address);
+            }
+        }
+        return recipients;
+    }
+
+    String resolve(final String author) {
+        final String cached = addresses.getIfPresent(author);
+        if (cached != null) {
+            return cached;
+        }
+        if (withoutAddress.getIfPresent(author) != null) {
+            return null;
+        }
+        final String address = lookup.getAddress(author);
+        if (address == null) {
+            withoutAddress.put(author, Boolean.TRUE);
+        } else {
+            addresses.put(author, address);
+        }
+        return address;
+    }
+
+    private static String authorOf(final Entry change) {
+        if (change instanceof SubversionChangeLogSet.LogEntry) {
+            return ((SubversionChangeLogSet.LogEntry) change).getUser();
+        }
+        return change.getAuthor().getId();
+    }
+
+    interface AddressLookup {
+
+        String getAddress(String author);
+
+    }
+
+    private static final class UserAddressLookup implements AddressLookup {
+
+        @Override
+        public String getAddress(final String author) {
+            final User user = User.getById(author, false);
+            if (user == null) {
+                return null;
+            }
+            final Mailer.UserProperty mailProperty = user.getProperty(Mailer.UserProperty.class);
+            return mailProperty == null ? null : mailProperty.getAddress();
+        }
+
+    }
+
+}
@@ -0,0 +1,80 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.InvisibleAction;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+public class BisectionAction extends InvisibleAction {
+
+    private final List<Integer> revisions;
+    private final List<String> moduleUrls;
+    private int good = -1;
+    private int bad;
+    private Integer culprit;
+    private boolean abandoned;
+
+    BisectionAction(final Revisions revisions, final List<String> moduleUrls) {
+        this.revisions = Lists.newArrayList(revisions.getAllInOrder());
+        this.moduleUrls = Lists.newArrayList(moduleUrls);
+        this.bad = this.revisions.size() - 1;
+    }
+
+    synchronized int nextRevision() {
+        if (searching()) {
+            return revisions.get((good + bad) / 2);
+        }
+        return revisions.get(bad);
+    }
+
+    synchronized void record(final int revision, final boolean failed) {
+        final int index = revisions.indexOf(revision);
+        if (isFinished() || index <= good || index > bad) {
+            return;
+        }
+        if (searching()) {
+            if (failed) {
+                bad = index;
+            } else {
+                good = index;
+            }
+            if (failed && !searching()) {
+                culprit = revision;
+            }
+        } else if (failed) {
+            culprit = revision;
+        } else {
+            abandoned = true;
+        }
+    }
+
+    synchronized boolean isFinished() {
+        return culprit != null || abandoned;
+    }
+
+    synchronized boolean isCulprit(final int revision) {
+        return culprit != null && culprit == revision;
+    }
+
+    public synchronized Integer getCulprit() {
+        return culprit;
+    }
+
+    public synchronized boolean isAbandoned() {
+        return abandoned;
+    }
+
+    public synchronized String getRemainingRevisions() {
+        return Revisions.create(revisions.subList(good + 1, bad + 1)).getAllInOrderAsString();
+    }
+
+    List<String> getModuleUrls() {
+        return moduleUrls;
+    }
+
+    private boolean searching() {
+        return bad - good > 1;
+    }
+
+}
@@ -0,0 +1,29 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.Cause;
+
+public class BisectionCause extends Cause {
+
+    private final int originalBuildNumber;
+    private final int revision;
+
+    BisectionCause(final int originalBuildNumber, final int revision) {
+        this.originalBuildNumber = originalBuildNumber;
+        this.revision = revision;
+    }
+
+    int getOriginalBuildNumber() {
+        return originalBuildNumber;
+    }
+
+    int getRevision() {
+        return revision;
+    }
+
+    @Override
+    public String getShortDescription() {
+        return String.format("Verifying revision %d to find the commit that broke build #%d",
+                revision, originalBuildNumber);
+    }
+
+}
@@ -0,0 +1,35 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.model.Queue.BuildableItem;
+import hudson.model.queue.QueueSorter;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+@Extension(ordinal = -100)
+public class BisectionQueueSorter extends QueueSorter {
+
+    private static final Comparator<BuildableItem> BISECTION_FIRST = new Comparator<BuildableItem>() {
+        @Override
+        public int compare(final BuildableItem item1, final BuildableItem item2) {
+            return Boolean.compare(isBisection(item2), isBisection(item1));
+        }
+    };
+
+    @Override
+    public void sortBuildableItems(final List<BuildableItem> buildables) {
+        Collections.sort(buildables, BISECTION_FIRST);
+    }
+
+    private static boolean isBisection(final BuildableItem item) {
+        for (final Object cause : item.getCauses()) {
+            if (cause instanceof BisectionCause) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,102 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.Result;
+import hudson.scm.RevisionParameterAction;
+import hudson.scm.SubversionSCM;
+import hudson.scm.SubversionSCM.SvnInfo;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+class Bisector {
+
+    private final boolean enabled;
+    private final Messenger messenger;
+    private final ModuleFinder locationFinder;
+    private final ChangedRevisions changedRevisions;
+
+    Bisector(final boolean enabled, final Messenger messenger, final ModuleFinder locationFinder,
+            final ChangedRevisions changedRevisions) {
+        this.enabled = enabled;
+        this.messenger = messenger;
+        this.locationFinder = locationFinder;
+        this.changedRevisions = changedRevisions;
+    }
+
+    boolean canBisect(final AbstractBuild<?, ?> build) {
+        return enabled && !isVerificationBuild(build) && changedRevisions.getRevisions().count() > 1;
+    }
+
+    boolean isVerificationBuild(final AbstractBuild<?, ?> build) {
+        return build.getCause(BisectionCause.class) != null;
+    }
+
+    static AbstractBuild<?, ?> previousBuildOf(final AbstractBuild<?, ?> build) {
+        AbstractBuild<?, ?> previous = build.getPreviousBuild();
+        while (previous != null && previous.getCause(BisectionCause.class) != null) {
+            previous = previous.getPreviousBuild();
+        }
+        return previous;
+    }
+
+    void start(final AbstractBuild<?, ?> build, final SubversionSCM subversionScm)
+            throws IOException, InterruptedException {
+        final List<String> moduleUrls = Lists.newArrayList();
+        for (final Module module : locationFinder.getModules(subversionScm)) {
+            moduleUrls.add(module.getURL());
+        }
+        final BisectionAction bisection = new BisectionAction(changedRevisions.getRevisions(), moduleUrls);
+        build.addAction(bisection);
+        build.save();
+        scheduleNext(build, bisection);
+    }
+
+    /**
+     * @return the bisected build if this build confirmed its revision to be the culprit, null otherwise */
+    AbstractBuild<?, ?> verify(final AbstractBuild<?, ?> build) throws IOException {
+        final BisectionCause cause = build.getCause(BisectionCause.class);
+        final AbstractBuild<?, ?> original =
+                build.getProject().getBuildByNumber(cause.getOriginalBuildNumber());
+        final BisectionAction bisection = original == null ? null : original.getAction(BisectionAction.class);
+        if (bisection == null || bisection.isFinished()) {
+            return null;
+        }
+
+        final int revision = cause.getRevision();
+        bisection.record(revision, failed(build));
+        original.save();
+
+        if (bisection.isCulprit(revision)) {
+            messenger.informBisectionFoundCulprit(revision);
+            return original;
+        }
+        if (bisection.isAbandoned()) {
+            messenger.informBisectionAbandoned(revision);
+            return null;
+        }
+        scheduleNext(original, bisection);
+        return null;
+    }
+
+    private boolean failed(final AbstractBuild<?, ?> build) {
+        final Result result = build.getResult();
+        return result != null && result.isWorseThan(Result.SUCCESS);
+    }
+
+    private void scheduleNext(final AbstractBuild<?, ?> original, final BisectionAction bisection) {
+        final int revision = bisection.nextRevision();
+        final List<SvnInfo> pinnedModules = Lists.newArrayList();
+        for (final String moduleUrl : bisection.getModuleUrls()) {
+            pinnedModules.add(new SvnInfo(moduleUrl, revision));
+        }
+        final AbstractProject<?, ?> project = original.getProject();
+        project.scheduleBuild2(0, new BisectionCause(original.getNumber(), revision),
+                new RevisionParameterAction(pinnedModules));
+        messenger.informBisecting(bisection.getRemainingRevisions(), revision);
+    }
+
+}
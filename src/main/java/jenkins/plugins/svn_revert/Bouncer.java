@@ -1,7 +1,6 @@
 package jenkins.plugins.svn_revert;
 
 import hudson.Launcher;
-import hudson.model.Result;
 import hudson.model.AbstractBuild;
 import hudson.model.Run;
 import hudson.scm.SubversionSCM;
@@ -10,51 +9,75 @@ import java.io.IOException;
 
 class Bouncer {
 
-    private static final String REVERT = "revert";
-
     static boolean throwOutIfUnstable(final AbstractBuild<?, ?> build, final Launcher launcher,
             final Messenger messenger, final SvnReverter svnReverter, final Claimer claimer,
-            final ChangeLocator changeLocator, final CommitMessages commitMessages,
-            final RevertMailSender mailer, final CommitCountRule commitCountRule)
+            final RevertMailSender mailer, final RevertGates gates, final CulpritSelector culpritSelector,
+            final ChangedRevisions changedRevisions, final DeferredDecisions deferredDecisions,
+            final Bisector bisector, final RevertPolicy policy)
                     throws InterruptedException, IOException {
 
         if (isNotSubversionJob(build)) {
             messenger.informNotSubversionSCM();
             return true;
         }
-        if (currentBuildNotUnstable(build)) {
-            messenger.informBuildStatusNotUnstable();
+        if (bisector.isVerificationBuild(build)) {
+            final AbstractBuild<?, ?> bisected = bisector.verify(build);
+            if (bisected != null) {
+                deferredDecisions.defer(bisected, build, policy.getDeferredDecisionTimeoutMillis());
+                messenger.informCulpritRevertDeferred(bisected.getNumber());
+            }
             return true;
         }
-        if (previousBuildNotSuccessful(build)) {
-            messenger.informPreviousBuildStatusNotSuccess();
+        if (!policy.revertsOn(build.getResult())) {
+            if (policy.revertsOnlyOnUnstable()) {
+                messenger.informBuildStatusNotUnstable();
+            } else {
+                messenger.informBuildStatusNotRevertedOn(build.getResult());
+            }
             return true;
         }
-        if (commitCountRule.noChangesInBuild()) {
-            messenger.informNoChanges();
+        if (previousBuildBuilding(build)) {
+            deferredDecisions.defer(build, policy.getDeferredDecisionTimeoutMillis());
+            messenger.informDeferredUntilPreviousBuildCompletes(Bisector.previousBuildOf(build).getNumber());
             return true;
         }
-        if (commitCountRule.tooManyChangesInBuild()) {
-            messenger.informTooManyChanges();
+        final SubversionSCM subversionScm = getSubversionScm(build);
+        final Revisions culprits = culpritSelector.selectCulprits(subversionScm);
+        if (culprits != null && culprits.count() > 0) {
+            changedRevisions.narrowTo(culprits);
+        }
+        if (!gates.letThrough(build, subversionScm, messenger, bisector, policy)) {
             return true;
         }
-        if (commitMessages.anyMessageContains(REVERT)) {
-            messenger.informCommitMessageContains(REVERT);
+        if (culprits != null && culprits.count() == 0) {
+            messenger.informNoPlausibleCulprit();
             return true;
         }
-        final SubversionSCM subversionScm = getSubversionScm(build);
-        if (changeLocator.changesOutsideWorkspace(subversionScm)) {
-            messenger.informChangesOutsideWorkspace();
+        if (bisector.canBisect(build)) {
+            bisector.start(build, subversionScm);
             return true;
         }
 
+        return revert(build, subversionScm, svnReverter, claimer, mailer, policy.isDryRun());
+    }
+
+    private static boolean revert(final AbstractBuild<?, ?> build, final SubversionSCM subversionScm,
+            final SvnReverter svnReverter, final Claimer claimer, final RevertMailSender mailer,
+            final boolean dryRun) throws InterruptedException {
+        if (dryRun) {
+            return svnReverter.preview(subversionScm) != SvnRevertStatus.REVERT_FAILED;
+        }
+
         final SvnRevertStatus revertStatus = svnReverter.revert(subversionScm);
         if (revertStatus == SvnRevertStatus.REVERT_FAILED) {
             return false;
         }
-        if (revertStatus == SvnRevertStatus.REVERT_SUCCESSFUL) {
+        if (revertStatus == SvnRevertStatus.REVERT_SUCCESSFUL
+                || revertStatus == SvnRevertStatus.REVERT_PARTIAL) {
             claimer.claim(build);
-            mailer.sendRevertMail(build);
+            if (!mailer.sendRevertMail(build)) {
+                svnReverter.notified();
+            }
         }
         return true;
     }
@@ -63,26 +86,12 @@ class Bouncer {
         return !(abstractBuild.getProject().getRootProject().getScm() instanceof SubversionSCM);
     }
 
-    private static boolean currentBuildNotUnstable(final AbstractBuild<?, ?> abstractBuild) {
-        return abstractBuild.getResult() != Result.UNSTABLE;
-    }
-
-    private static boolean previousBuildNotSuccessful(final AbstractBuild<?, ?> abstractBuild) {
-        return !previousBuildSuccessful(abstractBuild);
+    private static boolean previousBuildBuilding(final AbstractBuild<?, ?> abstractBuild) {
+        final Run<?, ?> previousBuild = Bisector.previousBuildOf(abstractBuild);
+        return previousBuild != null && previousBuild.isBuilding();
     }
 
     private static SubversionSCM getSubversionScm(final AbstractBuild<?, ?> abstractBuild) {
         return SubversionSCM.class.cast(abstractBuild.getProject().getRootProject().getScm());
     }
-
-    private static boolean previousBuildSuccessful(final AbstractBuild<?, ?> abstractBuild) {
-        final Run<?, ?> previousBuild = abstractBuild.getPreviousBuild();
-        if (previousBuild != null) {
-            if (previousBuild.isBuilding()) {
-                return false;
-            }
-            return previousBuild.getResult() == Result.SUCCESS;
-        }
-        return false;
-    }
 }
@@ -0,0 +1,8 @@
+package jenkins.plugins.svn_revert;
+
+enum ChangeLocation {
+
+    INSIDE_WORKSPACE, OUTSIDE_WORKSPACE,
+    UNKNOWN;
+
+}
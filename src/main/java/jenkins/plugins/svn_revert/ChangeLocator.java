@@ -5,6 +5,8 @@ import hudson.scm.SubversionSCM;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.tmatesoft.svn.core.SVNException;
 
@@ -12,6 +14,8 @@ import com.google.common.collect.Lists;
 
 class ChangeLocator {
 
+    private static final Logger LOGGER = Logger.getLogger(ChangeLocator.class.getName());
+
     private final AbstractBuild<?, ?> build;
     private final ModuleFinder locationFinder;
     private final ChangedFiles changedFiles;
@@ -23,12 +27,14 @@ class ChangeLocator {
         this.changedFiles = changedFiles;
     }
 
-    boolean changesOutsideWorkspace(final SubversionSCM subversionScm) throws IOException, InterruptedException {
+    ChangeLocation locateChanges(final SubversionSCM subversionScm) throws IOException, InterruptedException {
         final List<String> modulePaths = Lists.newArrayList();
         try {
-            return changedFilesMatchesModules(subversionScm, modulePaths);
+            return changedFilesMatchesModules(subversionScm, modulePaths)
+                    ? ChangeLocation.OUTSIDE_WORKSPACE : ChangeLocation.INSIDE_WORKSPACE;
         } catch (final SVNException e) {
-            return true;
+            LOGGER.log(Level.WARNING, "Could not determine the repository paths of the modules of " + build, e);
+            return ChangeLocation.UNKNOWN;
         }
     }
 
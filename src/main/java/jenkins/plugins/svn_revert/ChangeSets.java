@@ -0,0 +1,154 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.model.Result;
+import hudson.model.Run;
+import hudson.scm.ChangeLogSet.Entry;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+class ChangeSets {
+
+    private final AbstractBuild<?, ?> build;
+    private final int maxBuilds;
+    private final String onlyCommitId;
+    private List<AbstractBuild<?, ?>> buildsSinceLastSuccess;
+    private List<Entry> entries;
+
+    ChangeSets(final AbstractBuild<?, ?> build, final int maxBuilds) {
+        this(build, maxBuilds, null);
+    }
+
+    private ChangeSets(final AbstractBuild<?, ?> build, final int maxBuilds, final String onlyCommitId) {
+        this.build = build;
+        this.maxBuilds = maxBuilds;
+        this.onlyCommitId = onlyCommitId;
+    }
+
+    static ChangeSets of(final AbstractBuild<?, ?> build) {
+        return new ChangeSets(build, 1);
+    }
+
+    ChangeSets narrowTo(final String commitId) {
+        return new ChangeSets(build, maxBuilds, commitId);
+    }
+
+    List<Entry> getEntries() {
+        if (entries == null) {
+            entries = collectEntries();
+        }
+        return entries;
+    }
+
+    boolean isEmpty() {
+        return getEntries().isEmpty();
+    }
+
+    int size() {
+        return getEntries().size();
+    }
+
+    boolean spansMultipleBuilds() {
+        return getBuildsSinceLastSuccess().size() > 1;
+    }
+
+    AbstractBuild<?, ?> getEarliestBuild() {
+        final List<AbstractBuild<?, ?>> builds = getBuildsSinceLastSuccess();
+        return builds.get(builds.size() - 1);
+    }
+
+    private List<Entry> collectEntries() {
+        final List<Entry> collected = collectAllEntries();
+        if (onlyCommitId == null) {
+            return collected;
+        }
+        final List<Entry> narrowed = Lists.newArrayList();
+        for (final Entry entry : collected) {
+            if (onlyCommitId.equals(entry.getCommitId())) {
+                narrowed.add(entry);
+            }
+        }
+        return narrowed;
+    }
+
+    private List<Entry> collectAllEntries() {
+        final List<AbstractBuild<?, ?>> builds = getBuildsSinceLastSuccess();
+        if (builds.size() == 1) {
+            return changeSetOf(build);
+        }
+        final Map<String, Entry> entriesByCommit = Maps.newLinkedHashMap();
+        for (final AbstractBuild<?, ?> includedBuild : Lists.reverse(builds)) {
+            for (final Entry entry : changeSetOf(includedBuild)) {
+                entriesByCommit.put(entry.getCommitId(), entry);
+            }
+        }
+        return Lists.newArrayList(entriesByCommit.values());
+    }
+
+    private static List<Entry> changeSetOf(final AbstractBuild<?, ?> build) {
+        final List<Entry> entries = Lists.<Entry>newArrayList(build.getChangeSet());
+        final AbstractBuild<?, ?> previous = build.getPreviousBuild();
+        final BisectionCause cause = previous == null ? null : previous.getCause(BisectionCause.class);
+        if (cause == null) {
+            return entries;
+        }
+        final AbstractBuild<?, ?> bisected = build.getProject().getBuildByNumber(cause.getOriginalBuildNumber());
+        if (bisected == null) {
+            return entries;
+        }
+        long judged = -1;
+        for (final Entry entry : bisected.getChangeSet()) {
+            judged = Math.max(judged, Long.parseLong(entry.getCommitId()));
+        }
+        final List<Entry> unjudged = Lists.newArrayList();
+        for (final Entry entry : entries) {
+            if (Long.parseLong(entry.getCommitId()) > judged) {
+                unjudged.add(entry);
+            }
+        }
+        return unjudged;
+    }
+
+    private List<AbstractBuild<?, ?>> getBuildsSinceLastSuccess() {
+        if (buildsSinceLastSuccess == null) {
+            buildsSinceLastSuccess = findBuildsSinceLastSuccess();
+        }
+        return buildsSinceLastSuccess;
+    }
+
+    private List<AbstractBuild<?, ?>> findBuildsSinceLastSuccess() {
+        final List<AbstractBuild<?, ?>> builds = Lists.newArrayList();
+        builds.add(build);
+        if (maxBuilds <= 1 || lastSuccessTooFarBack()) {
+            return builds;
+        }
+        for (AbstractBuild<?, ?> previous = Bisector.previousBuildOf(build); previous != null;
+                previous = Bisector.previousBuildOf(previous)) {
+            if (isSuccessful(previous)) {
+                return builds;
+            }
+            if (builds.size() == maxBuilds) {
+                break;
+            }
+            builds.add(previous);
+        }
+        return Lists.<AbstractBuild<?, ?>>newArrayList(build);
+    }
+
+    private boolean lastSuccessTooFarBack() {
+        final Run<?, ?> lastStableBuild = build.getProject().getLastStableBuild();
+        if (lastStableBuild == null || lastStableBuild.getNumber() >= build.getNumber()) {
+            return false;
+        }
+        return build.getNumber() - lastStableBuild.getNumber() > maxBuilds;
+    }
+
+    private static boolean isSuccessful(final Run<?, ?> run) {
+        return !run.isBuilding() && run.getResult() == Result.SUCCESS;
+    }
+
+}
@@ -1,24 +1,25 @@
 package jenkins.plugins.svn_revert;
 
-import hudson.model.AbstractBuild;
 import hudson.scm.ChangeLogSet.AffectedFile;
 import hudson.scm.ChangeLogSet.Entry;
 
 import java.util.List;
+import java.util.Map;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 class ChangedFiles {
 
-    private final AbstractBuild<?, ?> build;
+    private final ChangeSets changeSets;
 
-    ChangedFiles(final AbstractBuild<?, ?> build) {
-        this.build = build;
+    ChangedFiles(final ChangeSets changeSets) {
+        this.changeSets = changeSets;
     }
 
     List<String> getRepositoryPathsFor() {
         final List<String> filePaths = Lists.newLinkedList();
-        for (final Entry change : build.getChangeSet()) {
+        for (final Entry change : changeSets.getEntries()) {
             for (final AffectedFile affectedFile : change.getAffectedFiles()) {
                 filePaths.add(affectedFile.getPath());
             }
@@ -26,4 +27,34 @@ class ChangedFiles {
         return filePaths;
     }
 
+    Map<Integer, List<String>> getRepositoryPathsByRevision() {
+        final Map<Integer, List<String>> filePaths = Maps.newLinkedHashMap();
+        for (final Entry change : changeSets.getEntries()) {
+            final List<String> changePaths = listFor(filePaths, Integer.parseInt(change.getCommitId(), 10));
+            for (final AffectedFile affectedFile : change.getAffectedFiles()) {
+                changePaths.add(affectedFile.getPath());
+            }
+        }
+        return filePaths;
+    }
+
+    Map<Integer, List<String>> getMessagesByRevision() {
+        final Map<Integer, List<String>> messages = Maps.newLinkedHashMap();
+        for (final Entry change : changeSets.getEntries()) {
+            listFor(messages, Integer.parseInt(change.getCommitId(), 10)).add(normalize(change.getMsg()));
+        }
+        return messages;
+    }
+
+    static String normalize(final String message) {
+        return message == null ? "" : message.trim();
+    }
+
+    private static List<String> listFor(final Map<Integer, List<String>> lists, final Integer revision) {
+        if (!lists.containsKey(revision)) {
+            lists.put(revision, Lists.<String>newLinkedList());
+        }
+        return lists.get(revision);
+    }
+
 }
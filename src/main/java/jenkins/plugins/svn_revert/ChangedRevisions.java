@@ -1,7 +1,5 @@
 package jenkins.plugins.svn_revert;
 
-import hudson.model.AbstractBuild;
-import hudson.scm.ChangeLogSet;
 import hudson.scm.ChangeLogSet.Entry;
 
 import java.util.List;
@@ -10,18 +8,36 @@ import com.google.common.collect.Lists;
 
 class ChangedRevisions {
 
-    private final AbstractBuild<?, ?> build;
+    private final ChangeSets changeSets;
+    private Revisions narrowedRevisions;
 
-    ChangedRevisions(final AbstractBuild<?, ?> build) {
-        this.build = build;
+    ChangedRevisions(final ChangeSets changeSets) {
+        this.changeSets = changeSets;
     }
 
     Revisions getRevisions() {
-        final ChangeLogSet<? extends Entry> cs = build.getChangeSet();
+        if (narrowedRevisions != null) {
+            return narrowedRevisions;
+        }
         final List<Integer> revisions = Lists.newArrayList();
-        for (final Entry entry : cs) {
+        for (final Entry entry : changeSets.getEntries()) {
             revisions.add(Integer.parseInt(entry.getCommitId(), 10));
         }
         return Revisions.create(revisions);
     }
-}
\ No newline at end of file
+
+    List<Entry> getChangeEntries() {
+        final List<Integer> revisions = getRevisions().getAllInOrder();
+        final List<Entry> entries = Lists.newArrayList();
+        for (final Entry entry : changeSets.getEntries()) {
+            if (revisions.contains(Integer.parseInt(entry.getCommitId(), 10))) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    void narrowTo(final Revisions revisions) {
+        narrowedRevisions = revisions;
+    }
+}
@@ -0,0 +1,58 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+public class CircuitBreakerConfig extends AbstractDescribableImpl<CircuitBreakerConfig> {
+
+    static final int DEFAULT_FAILURE_THRESHOLD = 3;
+    static final int DEFAULT_COOL_DOWN_MINUTES = 5;
+
+    private final int failureThreshold;
+    private final int coolDownMinutes;
+
+    @DataBoundConstructor
+    public CircuitBreakerConfig(final int failureThreshold, final int coolDownMinutes) {
+        this.failureThreshold = failureThreshold;
+        this.coolDownMinutes = coolDownMinutes;
+    }
+
+    public int getFailureThreshold() {
+        return failureThreshold;
+    }
+
+    public int getCoolDownMinutes() {
+        return coolDownMinutes;
+    }
+
+    SvnCircuitBreakerSettings toSettings() {
+        return new SvnCircuitBreakerSettings(SvnCircuitBreaker.get(), Math.max(1, failureThreshold),
+                TimeUnit.MINUTES.toMillis(Math.max(1, coolDownMinutes)));
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<CircuitBreakerConfig> {
+
+        @Override
+        public String getDisplayName() {
+            return "Circuit breaker";
+        }
+
+        public FormValidation doCheckFailureThreshold(@QueryParameter final String value) {
+            return FormValidation.validatePositiveInteger(value);
+        }
+
+        public FormValidation doCheckCoolDownMinutes(@QueryParameter final String value) {
+            return FormValidation.validatePositiveInteger(value);
+        }
+
+    }
+
+}
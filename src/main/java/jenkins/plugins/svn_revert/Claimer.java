@@ -8,10 +8,13 @@ class Claimer {
     static final String CLAIMED_BY = "Jenkins Revert Plugin";
     private final ChangedRevisions changedRevisions;
     private final boolean claimPluginPresent;
+    private final NotificationTemplates templates;
 
-    Claimer(final ChangedRevisions changedRevisions, final boolean claimPluginPresent) {
+    Claimer(final ChangedRevisions changedRevisions, final boolean claimPluginPresent,
+            final NotificationTemplates templates) {
         this.changedRevisions = changedRevisions;
         this.claimPluginPresent = claimPluginPresent;
+        this.templates = templates;
     }
 
     void claim(final AbstractBuild<?, ?> build) {
@@ -24,9 +27,7 @@ class Claimer {
     }
 
     private String getClaimMessageFor(final AbstractBuild<?, ?> build) {
-        final Revisions revisions = changedRevisions.getRevisions();
-        final String message = "Reverted revision(s) " + revisions.getAllInOrderAsString();
-        return StringHumanizer.pluralize(message, revisions.count());
+        return templates.getClaimMessage().render(new TemplateContext(build, changedRevisions));
     }
 
 }
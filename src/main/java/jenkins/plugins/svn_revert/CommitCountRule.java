@@ -1,29 +1,56 @@
 package jenkins.plugins.svn_revert;
 
-import hudson.model.AbstractBuild;
-import hudson.scm.ChangeLogSet;
 import hudson.scm.ChangeLogSet.Entry;
 
 public class CommitCountRule {
 
-    private final AbstractBuild<?, ?> build;
+    private final ChangeSets changeSets;
     private final boolean shouldRevertMultiple;
+    private final int maxCommits;
+    private final int maxAffectedFiles;
 
-    public CommitCountRule(final AbstractBuild<?, ?> build, final boolean shouldRevertMultiple) {
-        this.build = build;
+    CommitCountRule(final ChangeSets changeSets, final boolean shouldRevertMultiple) {
+        this(changeSets, shouldRevertMultiple, Integer.MAX_VALUE);
+    }
+
+    CommitCountRule(final ChangeSets changeSets, final boolean shouldRevertMultiple, final int maxCommits) {
+        this(changeSets, shouldRevertMultiple, maxCommits, Integer.MAX_VALUE);
+    }
+
+    CommitCountRule(final ChangeSets changeSets, final boolean shouldRevertMultiple, final int maxCommits,
+            final int maxAffectedFiles) {
+        this.changeSets = changeSets;
         this.shouldRevertMultiple = shouldRevertMultiple;
+        this.maxCommits = maxCommits;
+        this.maxAffectedFiles = maxAffectedFiles;
     }
 
     public boolean noChangesInBuild() {
-        return build.getChangeSet().isEmptySet();
+        return changeSets.isEmpty();
     }
 
     public boolean tooManyChangesInBuild() {
+        if (changeSets.size() > maxCommits) {
+            return true;
+        }
         if (shouldRevertMultiple) {
             return false;
         }
-        final ChangeLogSet<? extends Entry> changeSet = build.getChangeSet();
-        return changeSet.getItems().length > 1;
+        return changeSets.size() > 1;
+    }
+
+    public boolean tooManyAffectedFiles() {
+        if (maxAffectedFiles == Integer.MAX_VALUE) {
+            return false;
+        }
+        int affectedFiles = 0;
+        for (final Entry change : changeSets.getEntries()) {
+            affectedFiles += change.getAffectedFiles().size();
+            if (affectedFiles > maxAffectedFiles) {
+                return true;
+            }
+        }
+        return false;
     }
 
 }
@@ -1,18 +1,17 @@
 package jenkins.plugins.svn_revert;
 
-import hudson.model.AbstractBuild;
 import hudson.scm.ChangeLogSet.Entry;
 
 public class CommitMessages {
 
-    private final AbstractBuild<?, ?> build;
+    private final ChangeSets changeSets;
 
-    CommitMessages(final AbstractBuild<?, ?> build) {
-        this.build = build;
+    CommitMessages(final ChangeSets changeSets) {
+        this.changeSets = changeSets;
     }
 
     boolean anyMessageContains(final String substring) {
-        for (final Entry change : build.getChangeSet()) {
+        for (final Entry change : changeSets.getEntries()) {
             final String message = change.getMsg().toLowerCase();
             if (message.contains(substring.toLowerCase())) {
                 return true;
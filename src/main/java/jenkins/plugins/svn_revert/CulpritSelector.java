@@ -0,0 +1,68 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.scm.SubversionSCM;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.tmatesoft.svn.core.SVNException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+class CulpritSelector {
+
+    private final AbstractBuild<?, ?> build;
+    private final boolean enabled;
+    private final FailingTests failingTests;
+    private final ChangedFiles changedFiles;
+    private final ModuleFinder locationFinder;
+
+    CulpritSelector(final AbstractBuild<?, ?> build, final boolean enabled, final FailingTests failingTests,
+            final ChangedFiles changedFiles, final ModuleFinder locationFinder) {
+        this.build = build;
+        this.enabled = enabled;
+        this.failingTests = failingTests;
+        this.changedFiles = changedFiles;
+        this.locationFinder = locationFinder;
+    }
+
+    /**
+     * @return null if all revisions stay candidates, none if no commit relates to the failing tests */
+    Revisions selectCulprits(final SubversionSCM subversionScm) throws IOException, InterruptedException {
+        if (!enabled) {
+            return null;
+        }
+        final Map<String, String> failing = failingTests.getReportFilesByClass();
+        if (failing.isEmpty()) {
+            return null;
+        }
+        final TestCorrelationIndex index = TestCorrelationIndex.forJob(build.getProject().getRootProject());
+        index.update(failing, getModuleRoots(subversionScm));
+        final TestCorrelationIndex.Lookup lookup = index.lookup(failing.keySet());
+
+        final List<Integer> culprits = Lists.newArrayList();
+        for (final Map.Entry<Integer, List<String>> commit : changedFiles.getRepositoryPathsByRevision().entrySet()) {
+            if (lookup.anyRelated(commit.getValue())) {
+                culprits.add(commit.getKey());
+            }
+        }
+        return Revisions.create(culprits);
+    }
+
+    private Map<String, String> getModuleRoots(final SubversionSCM subversionScm)
+            throws IOException, InterruptedException {
+        final Map<String, String> moduleRoots = Maps.newLinkedHashMap();
+        for (final Module module : locationFinder.getModules(subversionScm)) {
+            try {
+                moduleRoots.put(module.getModuleRoot(build).getPath(), module.getRepositoryPath(build));
+            } catch (final SVNException e) {
+                continue;
+            }
+        }
+        return moduleRoots;
+    }
+
+}
@@ -0,0 +1,36 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.model.BuildListener;
+import hudson.model.AbstractBuild;
+import hudson.model.PeriodicWork;
+import hudson.model.Run;
+
+import java.util.concurrent.TimeUnit;
+
+@Extension
+public class DeferredDecisionTimeout extends PeriodicWork {
+
+    @Override
+    public long getRecurrencePeriod() {
+        return MIN;
+    }
+
+    @Override
+    protected void doRun() throws Exception {
+        for (final DeferredDecisions.Pending decision
+                : DeferredDecisions.get().removeExpired(System.currentTimeMillis())) {
+            final Run<?, ?> build = Run.fromExternalizableId(decision.getBuildId());
+            if (build instanceof AbstractBuild) {
+                final BuildListener listener = DeferredRevertListener.openLog((AbstractBuild<?, ?>) build);
+                try {
+                    new Messenger(listener.getLogger()).informDeferredDecisionTimedOut(
+                            TimeUnit.MILLISECONDS.toMinutes(decision.getTimeoutMillis()));
+                } finally {
+                    listener.getLogger().close();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,96 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+class DeferredDecisions {
+
+    private static final DeferredDecisions INSTANCE = new DeferredDecisions();
+
+    private final Map<String, Pending> pending = Maps.newLinkedHashMap();
+
+    static DeferredDecisions get() {
+        return INSTANCE;
+    }
+
+    void defer(final AbstractBuild<?, ?> build, final long timeoutMillis) {
+        defer(build, Bisector.previousBuildOf(build), timeoutMillis);
+    }
+
+    void defer(final AbstractBuild<?, ?> build, final Run<?, ?> awaited, final long timeoutMillis) {
+        defer(build.getExternalizableId(), awaited.getExternalizableId(), System.currentTimeMillis(),
+                timeoutMillis);
+    }
+
+    synchronized void defer(final String buildId, final String previousBuildId, final long now,
+            final long timeoutMillis) {
+        pending.put(buildId, new Pending(buildId, previousBuildId, now + timeoutMillis, timeoutMillis));
+    }
+
+    synchronized List<Pending> involving(final String buildId) {
+        final List<Pending> involved = Lists.newArrayList();
+        for (final Pending decision : pending.values()) {
+            if (decision.buildId.equals(buildId) || decision.previousBuildId.equals(buildId)) {
+                involved.add(decision);
+            }
+        }
+        return involved;
+    }
+
+    /**
+     * @return true if the decision was still pending, i.e. the caller is the one to take it */
+    synchronized boolean remove(final String buildId) {
+        return pending.remove(buildId) != null;
+    }
+
+    synchronized List<Pending> removeExpired(final long now) {
+        final List<Pending> expired = Lists.newArrayList();
+        for (final Pending decision : Lists.newArrayList(pending.values())) {
+            if (decision.deadline <= now) {
+                pending.remove(decision.buildId);
+                expired.add(decision);
+            }
+        }
+        return expired;
+    }
+
+    static final class Pending {
+
+        private final String buildId;
+        private final String previousBuildId;
+        private final long deadline;
+        private final long timeoutMillis;
+
+        Pending(final String buildId, final String previousBuildId, final long deadline,
+                final long timeoutMillis) {
+            this.buildId = buildId;
+            this.previousBuildId = previousBuildId;
+            this.deadline = deadline;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        String getBuildId() {
+            return buildId;
+        }
+
+        String getPreviousBuildId() {
+            return previousBuildId;
+        }
+
+        long getDeadline() {
+            return deadline;
+        }
+
+        long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+
+    }
+
+}
@@ -0,0 +1,117 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.FilePath;
+import hudson.model.AbstractBuild;
+import hudson.model.BuildListener;
+import hudson.model.Computer;
+import hudson.model.Node;
+import hudson.model.Run;
+import hudson.model.StreamBuildListener;
+import hudson.model.listeners.RunListener;
+import hudson.slaves.WorkspaceList;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+@Extension
+@SuppressWarnings("rawtypes")
+public class DeferredRevertListener extends RunListener<Run> {
+
+    static final String LOG_FILE = "svn-revert-deferred.log";
+    private static final Logger LOGGER = Logger.getLogger(DeferredRevertListener.class.getName());
+
+    @Override
+    public void onFinalized(final Run run) {
+        RevertQueue.get().ready(run.getExternalizableId());
+        final DeferredDecisions decisions = DeferredDecisions.get();
+        for (final DeferredDecisions.Pending decision : decisions.involving(run.getExternalizableId())) {
+            final Run<?, ?> build = Run.fromExternalizableId(decision.getBuildId());
+            final Run<?, ?> previousBuild = Run.fromExternalizableId(decision.getPreviousBuildId());
+            if (!(build instanceof AbstractBuild) || previousBuild == null) {
+                decisions.remove(decision.getBuildId());
+                continue;
+            }
+            if (build.isBuilding() || previousBuild.isBuilding()) {
+                continue;
+            }
+            if (decisions.remove(decision.getBuildId())) {
+                queue((AbstractBuild<?, ?>) build);
+            }
+        }
+    }
+
+    static BuildListener openLog(final AbstractBuild<?, ?> build) throws IOException {
+        synchronized (build) {
+            if (build.getAction(RevertLogAction.class) == null) {
+                build.addAction(new RevertLogAction());
+                build.save();
+            }
+        }
+        return new StreamBuildListener(new FileOutputStream(new File(build.getRootDir(), LOG_FILE), true),
+                Charset.defaultCharset());
+    }
+
+    private static void queue(final AbstractBuild<?, ?> build) {
+        final RevertQueue queue = RevertQueue.get();
+        try {
+            final BuildListener listener = openLog(build);
+            try {
+                queue.enqueue(build, listener);
+            } finally {
+                listener.getLogger().close();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not queue deferred revert decision for " + build, e);
+            return;
+        }
+        queue.ready(build.getExternalizableId());
+    }
+
+    /**
+     * @return false if the revert failed */
+    static boolean decideOffExecutor(final AbstractBuild<?, ?> build) throws IOException, InterruptedException {
+        final BuildListener listener = openLog(build);
+        try {
+            final JenkinsGlue glue = build.getProject().getPublishersList().get(JenkinsGlue.class);
+            final Messenger messenger = new Messenger(listener.getLogger());
+            if (glue == null) {
+                messenger.informDeferredJobNoLongerReverts();
+                return true;
+            }
+            final Node node = build.getBuiltOn();
+            final WorkspaceList.Lease lease = acquireWorkspace(build);
+            if (node == null || lease == null) {
+                messenger.informDeferredWorkspaceUnavailable();
+                return true;
+            }
+            try {
+                return glue.decide(build, node.createLauncher(listener), listener, true);
+            } finally {
+                lease.release();
+            }
+        } finally {
+            listener.getLogger().close();
+        }
+    }
+
+    /**
+     * @return null if the workspace is gone */
+    static WorkspaceList.Lease acquireWorkspace(final AbstractBuild<?, ?> build) throws InterruptedException {
+        final Node node = build.getBuiltOn();
+        final Computer computer = node == null ? null : node.toComputer();
+        final FilePath workspace = build.getWorkspace();
+        if (computer == null || workspace == null) {
+            return null;
+        }
+        return computer.getWorkspaceList().acquire(workspace);
+    }
+
+}
@@ -0,0 +1,136 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperties;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.wc.ISVNDiffStatusHandler;
+import org.tmatesoft.svn.core.wc.SVNDiffStatus;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+class DiffSummary {
+
+    private final RevertSizeLimit limit;
+    private final Set<String> seenUrls = Sets.newHashSet();
+    private final Map<DirectoryAtRevision, Set<String>> unsizedFiles = Maps.newLinkedHashMap();
+    private int paths;
+    private long bytes;
+
+    DiffSummary(final RevertSizeLimit limit) {
+        this.limit = limit;
+    }
+
+    ISVNDiffStatusHandler forRange(final SVNRepository repository, final long olderRevision,
+            final long newerRevision) {
+        return new ISVNDiffStatusHandler() {
+            @Override
+            public void handleDiffStatus(final SVNDiffStatus status) throws SVNException {
+                if (!seenUrls.add(status.getURL().toString())) {
+                    return;
+                }
+                if (status.getKind() == SVNNodeKind.FILE) {
+                    final boolean deleted = status.getModificationType() == SVNStatusType.STATUS_DELETED;
+                    addUnsized(repository, status.getPath(), deleted ? olderRevision : newerRevision);
+                }
+                add(1, 0);
+                if (isOverLimit()) {
+                    throw new SVNCancelException();
+                }
+            }
+        };
+    }
+
+    void sumSizes() throws SVNException {
+        for (final Iterator<Map.Entry<DirectoryAtRevision, Set<String>>> it = unsizedFiles.entrySet().iterator();
+                it.hasNext() && !isOverLimit();) {
+            final Map.Entry<DirectoryAtRevision, Set<String>> files = it.next();
+            add(0, files.getKey().sizeOf(files.getValue()));
+            it.remove();
+        }
+        unsizedFiles.clear();
+    }
+
+    void add(final int morePaths, final long moreBytes) {
+        paths += morePaths;
+        bytes += moreBytes;
+    }
+
+    boolean isOverLimit() {
+        return limit.isExceededBy(paths, bytes);
+    }
+
+    int getPaths() {
+        return paths;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    private void addUnsized(final SVNRepository repository, final String path, final long revision) {
+        final int slash = path.lastIndexOf('/');
+        final DirectoryAtRevision directory =
+                new DirectoryAtRevision(repository, slash < 0 ? "" : path.substring(0, slash), revision);
+        if (!unsizedFiles.containsKey(directory)) {
+            unsizedFiles.put(directory, Sets.<String>newHashSet());
+        }
+        unsizedFiles.get(directory).add(path.substring(slash + 1));
+    }
+
+    private static final class DirectoryAtRevision {
+
+        private final SVNRepository repository;
+        private final String path;
+        private final long revision;
+
+        DirectoryAtRevision(final SVNRepository repository, final String path, final long revision) {
+            this.repository = repository;
+            this.path = path;
+            this.revision = revision;
+        }
+
+        long sizeOf(final Set<String> names) throws SVNException {
+            if (names.size() == 1) {
+                final String name = names.iterator().next();
+                final SVNDirEntry entry = repository.info(path.isEmpty() ? name : path + "/" + name, revision);
+                return entry == null ? 0 : Math.max(0, entry.getSize());
+            }
+            final List<SVNDirEntry> entries = Lists.newArrayList();
+            repository.getDir(path, revision, (SVNProperties) null, SVNDirEntry.DIRENT_SIZE, entries);
+            long size = 0;
+            for (final SVNDirEntry entry : entries) {
+                if (names.contains(entry.getName())) {
+                    size += Math.max(0, entry.getSize());
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public int hashCode() {
+            return (System.identityHashCode(repository) * 31 + path.hashCode()) * 31 + (int) revision;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof DirectoryAtRevision)) {
+                return false;
+            }
+            final DirectoryAtRevision other = (DirectoryAtRevision) obj;
+            return repository == other.repository && path.equals(other.path) && revision == other.revision;
+        }
+
+    }
+
+}
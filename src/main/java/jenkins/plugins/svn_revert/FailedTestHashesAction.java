@@ -0,0 +1,43 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.InvisibleAction;
+
+import java.util.Arrays;
+import java.util.Set;
+
+public class FailedTestHashesAction extends InvisibleAction {
+
+    private final long[] hashes;
+
+    FailedTestHashesAction(final long[] hashes) {
+        this.hashes = hashes;
+    }
+
+    static FailedTestHashesAction of(final Set<String> testNames) {
+        final long[] hashes = new long[testNames.size()];
+        int i = 0;
+        for (final String testName : testNames) {
+            hashes[i++] = TestNameHash.of(testName);
+        }
+        Arrays.sort(hashes);
+        return new FailedTestHashesAction(hashes);
+    }
+
+    int size() {
+        return hashes.length;
+    }
+
+    boolean failuresAlsoIn(final FailedTestHashesAction other) {
+        int j = 0;
+        for (final long hash : hashes) {
+            while (j < other.hashes.length && other.hashes[j] < hash) {
+                j++;
+            }
+            if (j == other.hashes.length || other.hashes[j] != hash) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
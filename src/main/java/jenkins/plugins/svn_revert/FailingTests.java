@@ -0,0 +1,51 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.tasks.junit.CaseResult;
+import hudson.tasks.junit.SuiteResult;
+import hudson.tasks.test.AbstractTestResultAction;
+import hudson.tasks.test.TestResult;
+
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+class FailingTests {
+
+    private final AbstractBuild<?, ?> build;
+
+    FailingTests(final AbstractBuild<?, ?> build) {
+        this.build = build;
+    }
+
+    Map<String, String> getReportFilesByClass() {
+        final Map<String, String> reportFiles = Maps.newLinkedHashMap();
+        final AbstractTestResultAction<?> testResults = build.getAction(AbstractTestResultAction.class);
+        if (testResults == null) {
+            return reportFiles;
+        }
+        for (final TestResult failedTest : testResults.getFailedTests()) {
+            if (failedTest instanceof CaseResult) {
+                final CaseResult caseResult = (CaseResult) failedTest;
+                final SuiteResult suite = caseResult.getSuiteResult();
+                reportFiles.put(caseResult.getClassName(), suite == null ? null : suite.getFile());
+            }
+        }
+        return reportFiles;
+    }
+
+    Set<String> getFailingTestNames() {
+        final Set<String> names = Sets.newHashSet();
+        final AbstractTestResultAction<?> testResults = build.getAction(AbstractTestResultAction.class);
+        if (testResults == null) {
+            return names;
+        }
+        for (final TestResult failedTest : testResults.getFailedTests()) {
+            names.add(failedTest.getFullName());
+        }
+        return names;
+    }
+
+}
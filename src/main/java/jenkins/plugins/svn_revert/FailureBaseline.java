@@ -0,0 +1,61 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.tasks.test.AbstractTestResultAction;
+
+import java.io.IOException;
+
+class FailureBaseline {
+
+    static final int MAX_LOOKBACK = 10;
+
+    private final AbstractBuild<?, ?> build;
+    private final ChangeSets changeSets;
+
+    FailureBaseline(final AbstractBuild<?, ?> build, final ChangeSets changeSets) {
+        this.build = build;
+        this.changeSets = changeSets;
+    }
+
+    boolean noNewFailures() {
+        if (build.getAction(AbstractTestResultAction.class) == null) {
+            return false;
+        }
+        final AbstractBuild<?, ?> baseline = findBaseline();
+        if (baseline == null) {
+            return false;
+        }
+        final FailedTestHashesAction current = failedTestHashesOf(build);
+        return current.size() > 0 && current.failuresAlsoIn(failedTestHashesOf(baseline));
+    }
+
+    private AbstractBuild<?, ?> findBaseline() {
+        AbstractBuild<?, ?> previous = Bisector.previousBuildOf(changeSets.getEarliestBuild());
+        for (int walked = 0; previous != null && walked < MAX_LOOKBACK; walked++) {
+            if (!previous.isBuilding() && previous.getAction(AbstractTestResultAction.class) != null) {
+                return previous;
+            }
+            previous = Bisector.previousBuildOf(previous);
+        }
+        return null;
+    }
+
+    static FailedTestHashesAction failedTestHashesOf(final AbstractBuild<?, ?> completed) {
+        final FailedTestHashesAction cached = completed.getAction(FailedTestHashesAction.class);
+        if (cached != null) {
+            return cached;
+        }
+        final FailedTestHashesAction hashes =
+                FailedTestHashesAction.of(new FailingTests(completed).getFailingTestNames());
+        completed.addAction(hashes);
+        if (!completed.isBuilding()) {
+            try {
+                completed.save();
+            } catch (final IOException e) {
+                // Only the cache is lost, hashes are computed again next time.
+            }
+        }
+        return hashes;
+    }
+
+}
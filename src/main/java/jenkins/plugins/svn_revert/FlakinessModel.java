@@ -0,0 +1,140 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.XmlFile;
+import hudson.model.AbstractProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.model.Jenkins;
+
+import com.google.common.collect.Sets;
+
+final class FlakinessModel {
+
+    static final int MIN_OBSERVED_BUILDS = 5;
+    static final int WINDOW = 30;
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1024;
+    private static final String FILE_NAME = FlakinessModel.class.getName() + ".xml";
+    private static final Logger LOGGER = Logger.getLogger(FlakinessModel.class.getName());
+    private static final ConcurrentMap<String, FlakinessModel> MODELS =
+            new ConcurrentHashMap<String, FlakinessModel>();
+
+    private final int[][] flipCounts = new int[DEPTH][WIDTH];
+    private final Deque<long[]> flipsInWindow = new ArrayDeque<long[]>();
+    private Set<String> previousFailures = Sets.newHashSet();
+    private int lastObservedBuild;
+    private final transient XmlFile file;
+
+    private FlakinessModel(final XmlFile file) {
+        this.file = file;
+    }
+
+    static FlakinessModel forJob(final AbstractProject<?, ?> project) {
+        return forJob(project.getFullName(), new XmlFile(Jenkins.XSTREAM, new File(project.getRootDir(), FILE_NAME)));
+    }
+
+    /**
+     * @param file where the model of the job is kept, or null to keep it in memory only */
+    static FlakinessModel forJob(final String jobName, final XmlFile file) {
+        final FlakinessModel model = MODELS.get(jobName);
+        if (model != null) {
+            return model;
+        }
+        final FlakinessModel newModel = new FlakinessModel(file);
+        newModel.load();
+        final FlakinessModel existing = MODELS.putIfAbsent(jobName, newModel);
+        return existing == null ? newModel : existing;
+    }
+
+    static void forget(final String jobName) {
+        MODELS.remove(jobName);
+    }
+
+    synchronized int getLastObservedBuild() {
+        return lastObservedBuild;
+    }
+
+    synchronized Set<String> getPreviousFailures() {
+        return Sets.newHashSet(previousFailures);
+    }
+
+    synchronized void observe(final int buildNumber, final Set<String> failures) {
+        if (buildNumber <= lastObservedBuild) {
+            return;
+        }
+        final Set<String> flipped = Sets.symmetricDifference(failures, previousFailures);
+        final long[] hashes = new long[flipped.size()];
+        int i = 0;
+        for (final String test : flipped) {
+            hashes[i] = TestNameHash.of(test);
+            addFlip(hashes[i++], 1);
+        }
+        flipsInWindow.addLast(hashes);
+        if (flipsInWindow.size() > WINDOW) {
+            for (final long hash : flipsInWindow.removeFirst()) {
+                addFlip(hash, -1);
+            }
+        }
+        previousFailures = Sets.newHashSet(failures);
+        lastObservedBuild = buildNumber;
+    }
+
+    synchronized double getScore(final String test) {
+        final int observedBuilds = flipsInWindow.size();
+        if (observedBuilds < MIN_OBSERVED_BUILDS) {
+            return 0;
+        }
+        return (double) estimateFlips(TestNameHash.of(test)) / observedBuilds;
+    }
+
+    synchronized void save() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.write(this);
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write flakiness model " + file, e);
+        }
+    }
+
+    private synchronized void load() {
+        if (file == null || !file.exists()) {
+            return;
+        }
+        try {
+            file.unmarshal(this);
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load flakiness model " + file, e);
+        }
+    }
+
+    private void addFlip(final long hash, final int count) {
+        for (int row = 0; row < DEPTH; row++) {
+            flipCounts[row][column(hash, row)] += count;
+        }
+    }
+
+    private int estimateFlips(final long hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, flipCounts[row][column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    private static int column(final long hash, final int row) {
+        final int combined = (int) hash + row * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % WIDTH;
+    }
+
+}
@@ -0,0 +1,71 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.model.Result;
+
+import java.util.List;
+import java.util.Set;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+class FlakyTestFilter {
+
+    static final int MAX_HISTORY = FlakinessModel.WINDOW;
+
+    private final AbstractBuild<?, ?> build;
+    private final boolean enabled;
+    private final double threshold;
+
+    FlakyTestFilter(final AbstractBuild<?, ?> build, final boolean enabled, final double threshold) {
+        this.build = build;
+        this.enabled = enabled;
+        this.threshold = threshold;
+    }
+
+    boolean onlyFlakyTestsFailing() {
+        if (!enabled) {
+            return false;
+        }
+        final FlakinessModel model = FlakinessModel.forJob(build.getProject().getRootProject());
+        observeBuildsSince(model);
+
+        final Set<String> failures = failuresIn(build);
+        final Set<String> newFailures = Sets.difference(failures, model.getPreviousFailures());
+        boolean allFlaky = !newFailures.isEmpty();
+        for (final String test : newFailures) {
+            if (model.getScore(test) < threshold) {
+                allFlaky = false;
+                break;
+            }
+        }
+        model.observe(build.getNumber(), failures);
+        model.save();
+        return allFlaky;
+    }
+
+    private void observeBuildsSince(final FlakinessModel model) {
+        final List<AbstractBuild<?, ?>> unobserved = Lists.newArrayList();
+        AbstractBuild<?, ?> previous = Bisector.previousBuildOf(build);
+        for (int walked = 0; previous != null && previous.getNumber() > model.getLastObservedBuild()
+                && walked < MAX_HISTORY; walked++) {
+            if (hasTestResults(previous)) {
+                unobserved.add(previous);
+            }
+            previous = Bisector.previousBuildOf(previous);
+        }
+        for (final AbstractBuild<?, ?> completed : Lists.reverse(unobserved)) {
+            model.observe(completed.getNumber(), failuresIn(completed));
+        }
+    }
+
+    private static boolean hasTestResults(final AbstractBuild<?, ?> completed) {
+        final Result result = completed.getResult();
+        return !completed.isBuilding() && result != null && result.isBetterOrEqualTo(Result.UNSTABLE);
+    }
+
+    Set<String> failuresIn(final AbstractBuild<?, ?> completed) {
+        return new FailingTests(completed).getFailingTestNames();
+    }
+
+}
@@ -2,6 +2,9 @@ package jenkins.plugins.svn_revert;
 
 import hudson.Extension;
 import hudson.Launcher;
+import hudson.matrix.MatrixAggregatable;
+import hudson.matrix.MatrixAggregator;
+import hudson.matrix.MatrixBuild;
 import hudson.model.BuildListener;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
@@ -14,12 +17,23 @@ import hudson.tasks.Publisher;
 import java.io.IOException;
 
 import jenkins.model.Jenkins;
+import jenkins.model.JenkinsLocationConfiguration;
 import net.sf.json.JSONObject;
 
 import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.DataBoundSetter;
 import org.kohsuke.stapler.StaplerRequest;
 
-public class JenkinsGlue extends Notifier {
+public class JenkinsGlue extends Notifier implements MatrixAggregatable {
+
+    private String maxCommits;
+    private String maxAffectedFiles;
+    private String maxRevertMegabytes;
+    private String revertOnResults;
+    private String skipMarkers;
+    private String includedPaths;
+    private String excludedPaths;
+    private transient volatile RevertPolicy policy;
 
     @Override
     public BuildStepMonitor getRequiredMonitorService() {
@@ -30,6 +44,85 @@ public class JenkinsGlue extends Notifier {
     public JenkinsGlue() {
     }
 
+    public String getMaxCommits() {
+        return maxCommits;
+    }
+
+    @DataBoundSetter
+    public void setMaxCommits(final String maxCommits) {
+        this.maxCommits = maxCommits;
+        policy = null;
+    }
+
+    public String getMaxAffectedFiles() {
+        return maxAffectedFiles;
+    }
+
+    @DataBoundSetter
+    public void setMaxAffectedFiles(final String maxAffectedFiles) {
+        this.maxAffectedFiles = maxAffectedFiles;
+        policy = null;
+    }
+
+    public String getMaxRevertMegabytes() {
+        return maxRevertMegabytes;
+    }
+
+    @DataBoundSetter
+    public void setMaxRevertMegabytes(final String maxRevertMegabytes) {
+        this.maxRevertMegabytes = maxRevertMegabytes;
+        policy = null;
+    }
+
+    public String getRevertOnResults() {
+        return revertOnResults;
+    }
+
+    @DataBoundSetter
+    public void setRevertOnResults(final String revertOnResults) {
+        this.revertOnResults = revertOnResults;
+        policy = null;
+    }
+
+    public String getSkipMarkers() {
+        return skipMarkers;
+    }
+
+    @DataBoundSetter
+    public void setSkipMarkers(final String skipMarkers) {
+        this.skipMarkers = skipMarkers;
+        policy = null;
+    }
+
+    public String getIncludedPaths() {
+        return includedPaths;
+    }
+
+    @DataBoundSetter
+    public void setIncludedPaths(final String includedPaths) {
+        this.includedPaths = includedPaths;
+        policy = null;
+    }
+
+    public String getExcludedPaths() {
+        return excludedPaths;
+    }
+
+    @DataBoundSetter
+    public void setExcludedPaths(final String excludedPaths) {
+        this.excludedPaths = excludedPaths;
+        policy = null;
+    }
+
+    RevertPolicy getPolicy() {
+        RevertPolicy current = policy;
+        if (current == null || current.getConfigVersion() != getDescriptor().getConfigVersion()) {
+            current = RevertPolicy.resolve(this, getDescriptor());
+            policy = current;
+        }
+        return current;
+    }
+
     @Override
     public SvnRevertDescriptorImpl getDescriptor() {
         return (SvnRevertDescriptorImpl)super.getDescriptor();
@@ -40,17 +133,85 @@ public class JenkinsGlue extends Notifier {
             final Launcher launcher, final BuildListener listener)
     throws InterruptedException, IOException {
         final Messenger messenger = new Messenger(listener.getLogger());
-        final ChangedRevisions changedRevisions = new ChangedRevisions(build);
-        final ChangedFiles changedFiles = new ChangedFiles(build);
+        if (isConfigurationBuild(build)) {
+            build.addAction(new ParentRevertAction(build.getRootBuild().getExternalizableId()));
+            messenger.informDecidedByParentBuild();
+            return true;
+        }
+        final RevertPolicy policy = getPolicy();
+        if (policy.isQueueReverts() && policy.revertsOn(build.getResult())) {
+            RevertQueue.get().enqueue(build, listener);
+            messenger.informRevertQueued(RevertLogAction.DISPLAY_NAME);
+            return true;
+        }
+        return decide(build, launcher, listener, false);
+    }
+
+    boolean decide(final AbstractBuild<?, ?> build, final Launcher launcher, final BuildListener listener,
+            final boolean afterBuild)
+    throws InterruptedException, IOException {
+        final Messenger messenger = new Messenger(listener.getLogger());
+        final RevertPolicy policy = getPolicy();
+        final ChangeSets changeSets = changeSetsOf(build, policy);
+        final ChangedRevisions changedRevisions = new ChangedRevisions(changeSets);
+        final ChangedFiles changedFiles = new ChangedFiles(changeSets);
         final ModuleFinder locationFinder = new ModuleFinder(build, listener);
-        final SvnReverter svnReverter = new SvnReverter(build, messenger, new SvnKitClientFactory(),
-                locationFinder, changedRevisions);
-        final Claimer claimer = new Claimer(changedRevisions, isClaimPluginPresent());
-        final RevertMailSender mailer = new RevertMailSender(new RevertMailFormatter(changedRevisions), listener);
-        final ChangeLocator changeLocator = new ChangeLocator(build, locationFinder, changedFiles );
-        final CommitMessages commitMessages = new CommitMessages(build);
-        final CommitCountRule commitCountRule = new CommitCountRule(build, getDescriptor().isRevertMultipleCommits());
-        return Bouncer.throwOutIfUnstable(build, launcher, messenger, svnReverter, claimer, changeLocator, commitMessages, mailer, commitCountRule);
+        final NotificationTemplates templates = policy.getTemplates();
+        final SvnReverter svnReverter = new SvnReverter(build, messenger, policy.getSvnKitClientFactory(),
+                locationFinder, changedRevisions, changedFiles,
+                policy.getRevertSettings(RevertJournal.get()).withUpdateToHead(afterBuild));
+        final Claimer claimer = new Claimer(changedRevisions, isClaimPluginPresent(), templates);
+        final RevertMailSender mailer = createMailer(policy, changedRevisions, messenger);
+        final CommitCountRule commitCountRule = new CommitCountRule(changeSets, policy.isRevertMultipleCommits(),
+                policy.getMaxCommits(), policy.getMaxAffectedFiles());
+        final FlakyTestFilter flakyTestFilter = new FlakyTestFilter(build, policy.isSkipFlakyTests(),
+                policy.getFlakinessThreshold());
+        final CulpritSelector culpritSelector = new CulpritSelector(build, policy.isRevertOnlyRelatedCommits(),
+                new FailingTests(build), changedFiles, locationFinder);
+        final RevertGates gates = new RevertGates(changeSets, new FailureBaseline(build, changeSets),
+                commitCountRule, flakyTestFilter, new CommitMessages(changeSets),
+                new ChangeLocator(build, locationFinder, changedFiles),
+                new PathPolicy(policy.getPathRules(), changedFiles));
+        final Bisector bisector = new Bisector(policy.isBisectMultipleCommits(), messenger, locationFinder,
+                changedRevisions);
+        return Bouncer.throwOutIfUnstable(build, launcher, messenger, svnReverter, claimer, mailer, gates,
+                culpritSelector, changedRevisions, DeferredDecisions.get(), bisector, policy);
+    }
+
+    private static ChangeSets changeSetsOf(final AbstractBuild<?, ?> build, final RevertPolicy policy) {
+        final ChangeSets changeSets =
+                policy.isRevertAcrossBuilds() ? new ChangeSets(build, policy.getMaxBuilds()) : ChangeSets.of(build);
+        final BisectionAction bisection = build.getAction(BisectionAction.class);
+        if (bisection != null && bisection.getCulprit() != null) {
+            return changeSets.narrowTo(String.valueOf(bisection.getCulprit()));
+        }
+        return changeSets;
+    }
+
+    /**
+     * @return true if mails were queued */
+    boolean notifyReverted(final AbstractBuild<?, ?> build, final BuildListener listener) {
+        final RevertPolicy policy = getPolicy();
+        final ChangedRevisions changedRevisions = new ChangedRevisions(changeSetsOf(build, policy));
+        new Claimer(changedRevisions, isClaimPluginPresent(), policy.getTemplates()).claim(build);
+        return createMailer(policy, changedRevisions, new Messenger(listener.getLogger())).sendRevertMail(build);
+    }
+
+    private static RevertMailSender createMailer(final RevertPolicy policy, final ChangedRevisions changedRevisions,
+            final Messenger messenger) {
+        return new RevertMailSender(new RevertMailFormatter(changedRevisions, policy.getTemplates()),
+                changedRevisions, AuthorAddressResolver.get(), messenger, RevertMailDigest.get(),
+                policy.getMailDigestMinutes());
+    }
+
+    @Override
+    public MatrixAggregator createAggregator(final MatrixBuild build, final Launcher launcher,
+            final BuildListener listener) {
+        return new MatrixRevertAggregator(this, build, launcher, listener);
+    }
+
+    private static boolean isConfigurationBuild(final AbstractBuild<?, ?> build) {
+        return build.getRootBuild() != build;
     }
 
     private boolean isClaimPluginPresent() {
@@ -64,7 +225,32 @@ public class JenkinsGlue extends Notifier {
     @Extension(optional = true)
     public static final class SvnRevertDescriptorImpl extends BuildStepDescriptor<Publisher> {
 
+        static final double DEFAULT_FLAKINESS_THRESHOLD = 0.2;
+        static final int DEFAULT_MAX_BUILDS = 5;
+        static final int DEFAULT_MAX_COMMITS = 20;
+
         private boolean revertMultipleCommits;
+        private boolean dryRun;
+        private boolean bisectMultipleCommits;
+        private boolean revertOnlyRelatedCommits;
+        private boolean skipFlakyTests;
+        private double flakinessThreshold = DEFAULT_FLAKINESS_THRESHOLD;
+        private boolean revertAcrossBuilds;
+        private int maxBuilds = DEFAULT_MAX_BUILDS;
+        private int maxCommits = DEFAULT_MAX_COMMITS;
+        private String commitMessageTemplate;
+        private String claimMessageTemplate;
+        private String maxAffectedFiles;
+        private String maxRevertMegabytes;
+        private String revertOnResults;
+        private String skipMarkers;
+        private boolean queueReverts;
+        private RevertLockConfig lock;
+        private RevertRateConfig rateLimit;
+        private CircuitBreakerConfig circuitBreaker;
+        private TimeoutConfig timeouts = TimeoutConfig.DEFAULTS;
+        private RevertMailConfig mail = RevertMailConfig.DEFAULTS;
+        private transient volatile long configVersion;
 
         public SvnRevertDescriptorImpl() {
             revertMultipleCommits = true;
@@ -74,10 +260,42 @@ public class JenkinsGlue extends Notifier {
         @Override
         public boolean configure(final StaplerRequest req, final JSONObject formData) throws FormException {
             revertMultipleCommits = formData.containsKey("revertMultipleCommits");
+            dryRun = formData.containsKey("dryRun");
+            queueReverts = formData.containsKey("queueReverts");
+            bisectMultipleCommits = formData.containsKey("bisectMultipleCommits");
+            revertOnlyRelatedCommits = formData.containsKey("revertOnlyRelatedCommits");
+            skipFlakyTests = formData.containsKey("skipFlakyTests");
+            if (skipFlakyTests) {
+                flakinessThreshold = formData.getJSONObject("skipFlakyTests")
+                        .optDouble("flakinessThreshold", DEFAULT_FLAKINESS_THRESHOLD);
+            }
+            revertAcrossBuilds = formData.containsKey("revertAcrossBuilds");
+            if (revertAcrossBuilds) {
+                final JSONObject limits = formData.getJSONObject("revertAcrossBuilds");
+                maxBuilds = limits.optInt("maxBuilds", DEFAULT_MAX_BUILDS);
+                maxCommits = limits.optInt("maxCommits", DEFAULT_MAX_COMMITS);
+            }
+            lock = bindOptional(req, formData, "lock", RevertLockConfig.class);
+            rateLimit = bindOptional(req, formData, "rateLimit", RevertRateConfig.class);
+            circuitBreaker = bindOptional(req, formData, "circuitBreaker", CircuitBreakerConfig.class);
+            timeouts = req.bindJSON(TimeoutConfig.class, formData.getJSONObject("timeouts"));
+            mail = req.bindJSON(RevertMailConfig.class, formData.getJSONObject("mail"));
+            commitMessageTemplate = formData.optString("commitMessageTemplate", null);
+            claimMessageTemplate = formData.optString("claimMessageTemplate", null);
+            maxAffectedFiles = formData.optString("maxAffectedFiles", null);
+            maxRevertMegabytes = formData.optString("maxRevertMegabytes", null);
+            revertOnResults = formData.optString("revertOnResults", null);
+            skipMarkers = formData.optString("skipMarkers", null);
             save();
             return super.configure(req, formData);
         }
 
+        private static <T> T bindOptional(final StaplerRequest req, final JSONObject formData, final String name,
+                final Class<T> type) {
+            final JSONObject section = formData.optJSONObject(name);
+            return section == null || section.isNullObject() ? null : req.bindJSON(type, section);
+        }
+
         @Override
         public boolean isApplicable(final Class<? extends AbstractProject> arg0) {
             return true;
@@ -97,6 +315,114 @@ public class JenkinsGlue extends Notifier {
             save();
         }
 
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        public boolean isQueueReverts() {
+            return queueReverts;
+        }
+
+        public boolean isBisectMultipleCommits() {
+            return bisectMultipleCommits;
+        }
+
+        public boolean isRevertOnlyRelatedCommits() {
+            return revertOnlyRelatedCommits;
+        }
+
+        public boolean isSkipFlakyTests() {
+            return skipFlakyTests;
+        }
+
+        public double getFlakinessThreshold() {
+            return flakinessThreshold;
+        }
+
+        public boolean isRevertAcrossBuilds() {
+            return revertAcrossBuilds;
+        }
+
+        public int getMaxBuilds() {
+            return maxBuilds;
+        }
+
+        public int getMaxCommits() {
+            return maxCommits;
+        }
+
+        public String getCommitMessageTemplate() {
+            return orDefault(commitMessageTemplate, NotificationTemplates.COMMIT_MESSAGE);
+        }
+
+        public String getClaimMessageTemplate() {
+            return orDefault(claimMessageTemplate, NotificationTemplates.CLAIM_MESSAGE);
+        }
+
+        public String getMaxAffectedFiles() {
+            return maxAffectedFiles;
+        }
+
+        public String getMaxRevertMegabytes() {
+            return maxRevertMegabytes;
+        }
+
+        public String getRevertOnResults() {
+            return orDefault(revertOnResults, RevertPolicy.DEFAULT_REVERT_ON_RESULTS);
+        }
+
+        public String getSkipMarkers() {
+            return orDefault(skipMarkers, RevertPolicy.DEFAULT_SKIP_MARKERS);
+        }
+
+        public RevertLockConfig getLock() {
+            return lock;
+        }
+
+        public RevertRateConfig getRateLimit() {
+            return rateLimit;
+        }
+
+        public CircuitBreakerConfig getCircuitBreaker() {
+            return circuitBreaker;
+        }
+
+        public TimeoutConfig getTimeouts() {
+            return timeouts;
+        }
+
+        public RevertMailConfig getMail() {
+            return mail;
+        }
+
+        SvnKitClientFactory createSvnKitClientFactory() {
+            return timeouts.createSvnKitClientFactory();
+        }
+
+        String getLockOwner() {
+            final String url = JenkinsLocationConfiguration.get().getUrl();
+            return url != null ? url : Jenkins.get().getLegacyInstanceId();
+        }
+
+        @Override
+        public synchronized void save() {
+            configVersion++;
+            super.save();
+        }
+
+        long getConfigVersion() {
+            return configVersion;
+        }
+
+        NotificationTemplates getNotificationTemplates() {
+            return new NotificationTemplates(getCommitMessageTemplate(), getClaimMessageTemplate(),
+                    mail.getSubjectTemplate(), mail.getBodyTemplate());
+        }
+
+        private static String orDefault(final String template, final String defaultTemplate) {
+            return template == null || template.trim().isEmpty() ? defaultTemplate : template;
+        }
+
     }
 
 }
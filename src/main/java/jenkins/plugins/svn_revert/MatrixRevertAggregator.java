@@ -0,0 +1,41 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Launcher;
+import hudson.matrix.MatrixAggregator;
+import hudson.matrix.MatrixBuild;
+import hudson.matrix.MatrixRun;
+import hudson.model.BuildListener;
+import hudson.model.Result;
+
+import java.io.IOException;
+
+class MatrixRevertAggregator extends MatrixAggregator {
+
+    private final JenkinsGlue glue;
+
+    MatrixRevertAggregator(final JenkinsGlue glue, final MatrixBuild build, final Launcher launcher,
+            final BuildListener listener) {
+        super(build, launcher, listener);
+        this.glue = glue;
+    }
+
+    @Override
+    public boolean endBuild() throws InterruptedException, IOException {
+        if (build.getResult() == null) {
+            build.setResult(getWorstResult());
+        }
+        return glue.perform(build, launcher, listener);
+    }
+
+    private Result getWorstResult() {
+        Result worst = Result.SUCCESS;
+        for (final MatrixRun run : build.getExactRuns()) {
+            final Result result = run.getResult();
+            if (result != null) {
+                worst = worst.combine(result);
+            }
+        }
+        return worst;
+    }
+
+}
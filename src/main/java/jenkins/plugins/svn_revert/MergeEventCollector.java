@@ -0,0 +1,136 @@
+package jenkins.plugins.svn_revert;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.tmatesoft.svn.core.ISVNCanceller;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.SVNEvent;
+import org.tmatesoft.svn.core.wc.SVNEventAction;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+class MergeEventCollector implements ISVNEventHandler {
+
+    private final Set<File> touchedFiles = Sets.newLinkedHashSet();
+    private final Set<File> conflictedFiles = Sets.newLinkedHashSet();
+    private final Set<File> addedOrDeletedFiles = Sets.newLinkedHashSet();
+    private final ISVNCanceller canceller;
+    private Listener listener;
+
+    MergeEventCollector() {
+        this(ISVNCanceller.NULL);
+    }
+
+    MergeEventCollector(final ISVNCanceller canceller) {
+        this.canceller = canceller;
+    }
+
+    @Override
+    public void handleEvent(final SVNEvent event, final double progress) {
+        final File file = event.getFile();
+        if (file == null) {
+            return;
+        }
+        if (isConflict(event)) {
+            conflictedFiles.add(file);
+        }
+        final boolean addedOrDeleted = isAddOrDelete(event.getAction());
+        if (addedOrDeleted) {
+            addedOrDeletedFiles.add(file);
+        }
+        if (isChange(event.getAction()) && touchedFiles.add(file) && listener != null) {
+            listener.touched(file, addedOrDeleted);
+        }
+    }
+
+    /**
+     * @param listener told about each path when the merge first touches it, or null */
+    void setListener(final Listener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void checkCancelled() throws SVNCancelException {
+        canceller.checkCancelled();
+    }
+
+    List<File> getTouchedFiles() {
+        return Lists.newArrayList(touchedFiles);
+    }
+
+    List<File> getConflictedFiles() {
+        return Lists.newArrayList(conflictedFiles);
+    }
+
+    List<File> getAddedOrDeletedFiles() {
+        final List<File> topmostFiles = Lists.newArrayList();
+        for (final File file : addedOrDeletedFiles) {
+            if (!belowAddedOrDeleted(file)) {
+                topmostFiles.add(file);
+            }
+        }
+        return topmostFiles;
+    }
+
+    List<File> getModifiedFiles() {
+        final List<File> modifiedFiles = Lists.newArrayList();
+        for (final File file : touchedFiles) {
+            if (!addedOrDeletedFiles.contains(file) && !belowAddedOrDeleted(file)) {
+                modifiedFiles.add(file);
+            }
+        }
+        return modifiedFiles;
+    }
+
+    void clear() {
+        touchedFiles.clear();
+        conflictedFiles.clear();
+        addedOrDeletedFiles.clear();
+    }
+
+    private boolean belowAddedOrDeleted(final File file) {
+        return file.getParentFile() != null && within(file.getParentFile(), addedOrDeletedFiles);
+    }
+
+    static boolean within(final File file, final Collection<File> directories) {
+        for (File parent = file; parent != null; parent = parent.getParentFile()) {
+            if (directories.contains(parent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isConflict(final SVNEvent event) {
+        return event.getAction() == SVNEventAction.TREE_CONFLICT
+                || event.getContentsStatus() == SVNStatusType.CONFLICTED
+                || event.getPropertiesStatus() == SVNStatusType.CONFLICTED;
+    }
+
+    private boolean isAddOrDelete(final SVNEventAction action) {
+        return action == SVNEventAction.UPDATE_ADD
+                || action == SVNEventAction.UPDATE_DELETE
+                || action == SVNEventAction.UPDATE_REPLACE;
+    }
+
+    private boolean isChange(final SVNEventAction action) {
+        return action == SVNEventAction.UPDATE_ADD
+                || action == SVNEventAction.UPDATE_DELETE
+                || action == SVNEventAction.UPDATE_UPDATE
+                || action == SVNEventAction.UPDATE_REPLACE
+                || action == SVNEventAction.TREE_CONFLICT;
+    }
+
+    interface Listener {
+
+        void touched(File file, boolean addedOrDeleted);
+
+    }
+
+}
@@ -0,0 +1,145 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.collect.Lists;
+
+final class MessageTemplate {
+
+    private static final String PLURAL = "(s)";
+    private static final int MAX_COMPILED = 64;
+    private static final ConcurrentMap<String, MessageTemplate> COMPILED =
+            new ConcurrentHashMap<String, MessageTemplate>();
+
+    private final List<Part> parts;
+
+    private MessageTemplate(final List<Part> parts) {
+        this.parts = parts;
+    }
+
+    static MessageTemplate compile(final String source) {
+        final MessageTemplate compiled = COMPILED.get(source);
+        if (compiled != null) {
+            return compiled;
+        }
+        if (COMPILED.size() >= MAX_COMPILED) {
+            COMPILED.clear();
+        }
+        final MessageTemplate template = new MessageTemplate(parse(source));
+        COMPILED.putIfAbsent(source, template);
+        return template;
+    }
+
+    String render(final TemplateContext context) {
+        final StringBuilder out = new StringBuilder();
+        renderTo(out, context);
+        return out.toString();
+    }
+
+    void renderTo(final StringBuilder out, final TemplateContext context) {
+        for (final Part part : parts) {
+            switch (part.kind) {
+            case LITERAL:
+                out.append(part.text);
+                break;
+            case PLURAL:
+                if (context.getRevisionCount() != 1) {
+                    out.append('s');
+                }
+                break;
+            case REVISIONS:
+                context.appendRevisions(out);
+                break;
+            case JOB:
+                context.appendJob(out);
+                break;
+            case BUILD_URL:
+                context.appendBuildUrl(out);
+                break;
+            case AUTHORS:
+                context.appendAuthors(out);
+                break;
+            case CULPRIT_FILES:
+                context.appendCulpritFiles(out);
+                break;
+            case RESULT:
+                context.appendResult(out);
+                break;
+            default:
+                throw new IllegalStateException("Unknown template part " + part.kind);
+            }
+        }
+    }
+
+    private static List<Part> parse(final String source) {
+        final List<Part> parts = Lists.newArrayList();
+        final StringBuilder literal = new StringBuilder();
+        int i = 0;
+        while (i < source.length()) {
+            if (source.startsWith("${", i)) {
+                final int end = source.indexOf('}', i + 2);
+                final Kind token = end < 0 ? null : Kind.forToken(source.substring(i + 2, end));
+                if (token != null) {
+                    addLiteral(parts, literal);
+                    parts.add(new Part(token, null));
+                    i = end + 1;
+                    continue;
+                }
+            }
+            if (source.startsWith(PLURAL, i)) {
+                addLiteral(parts, literal);
+                parts.add(new Part(Kind.PLURAL, null));
+                i += PLURAL.length();
+                continue;
+            }
+            literal.append(source.charAt(i));
+            i++;
+        }
+        addLiteral(parts, literal);
+        return parts;
+    }
+
+    private static void addLiteral(final List<Part> parts, final StringBuilder literal) {
+        if (literal.length() > 0) {
+            parts.add(new Part(Kind.LITERAL, literal.toString()));
+            literal.setLength(0);
+        }
+    }
+
+    private enum Kind {
+
+        LITERAL(null), PLURAL(null), REVISIONS("revisions"), JOB("job"), BUILD_URL("buildUrl"),
+        AUTHORS("authors"), CULPRIT_FILES("culpritFiles"), RESULT("result");
+
+        private final String token;
+
+        Kind(final String token) {
+            this.token = token;
+        }
+
+        static Kind forToken(final String name) {
+            for (final Kind kind : values()) {
+                if (name.equals(kind.token)) {
+                    return kind;
+                }
+            }
+            return null;
+        }
+
+    }
+
+    private static final class Part {
+
+        private final Kind kind;
+        private final String text;
+
+        Part(final Kind kind, final String text) {
+            this.kind = kind;
+            this.text = text;
+        }
+
+    }
+
+}
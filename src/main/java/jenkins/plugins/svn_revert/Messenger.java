@@ -1,5 +1,7 @@
 package jenkins.plugins.svn_revert;
 
+import hudson.model.Result;
+
 import java.io.PrintStream;
 
 import org.tmatesoft.svn.core.SVNException;
@@ -14,14 +16,17 @@ class Messenger {
             "The Subversion Revert Plugin can only be used with Subversion SCM.";
     static final String NO_SVN_AUTH_PROVIDER = "No Subversion credentials available.";
     static final String REVERTED_CHANGES =
-            "Reverted changes between %d:%d in %s since build became UNSTABLE.\n";
+            "Reverted revision(s) %s in %s since build became %s.\n";
     static final String NO_CHANGES =
             "Will not revert since there are no changes in current build.";
     static final String FILES_TO_REVERT_OUT_OF_DATE =
-            "Tried to revert since build status became UNSTABLE, " +
-            "but failed since files to revert are out of date.";
+            "Tried to revert since build status became %s, " +
+            "but failed since files to revert are out of date.\n";
     static final String CHANGES_OUTSIDE_WORKSPACE =
             "Will not revert since some changes in commit(s) outside workspace detected.";
+    static final String CHANGE_LOCATION_UNKNOWN =
+            "Will not revert since the repository paths of the modules could not be determined, "
+            + "see the controller log.";
     static final String SUBVERSION_EXCEPTION_DURING_REVERT =
             "Revert failed because of a Subversion error:";
     static final String SUBVERSION_ERROR_CODE = "Subversion Error Code: ";
@@ -29,6 +34,84 @@ class Messenger {
             "Will not revert since commit message contains '%s'.";
     static final String TOO_MANY_CHANGES =
             "Will not revert since there are multiple commits in the failing build.";
+    static final String DRY_RUN_PREVIEW =
+            "Dry run: reverting would change %d file(s) and conflict in %d.\n";
+    static final String DRY_RUN_CONFLICT = "  Conflict: ";
+    static final String PREVIEW_HAS_CONFLICTS =
+            "Will not revert since a dry run showed that reverting conflicts in %d file(s).\n";
+    static final String ROLLED_BACK =
+            "Rolled back %d reverse-merged path(s) in %d ms.\n";
+    static final String ROLLBACK_FAILED =
+            "Rolling back reverse-merged changes failed, workspace may need a cleanup:";
+    static final String BISECTING =
+            "Bisecting revisions %s to find the commit that broke the build, building revision %d.\n";
+    static final String BISECTION_FOUND_CULPRIT =
+            "Bisection found revision %d to be the culprit.\n";
+    static final String BISECTION_ABANDONED =
+            "Abandoned bisection since revision %d, expected to be the culprit, did not fail.\n";
+    static final String NO_PLAUSIBLE_CULPRIT =
+            "Will not revert since no commit touches code related to the failing tests.";
+    static final String DEFERRED_UNTIL_PREVIOUS_BUILD_COMPLETES =
+            "Previous build #%d is still running, will decide whether to revert once it completes (see %s).\n";
+    static final String DEFERRED_WORKSPACE_UNAVAILABLE =
+            "Will not revert since the workspace of the build is no longer available.";
+    static final String CULPRIT_REVERT_DEFERRED =
+            "Will decide whether to revert it on build #%d once this build completes (see %s of that build).\n";
+    static final String DEFERRED_JOB_NO_LONGER_REVERTS =
+            "Will not revert since the job no longer reverts commits that break the build.";
+    static final String DEFERRED_DECISION_TIMED_OUT =
+            "Will not revert since the previous build did not complete within %d minutes.\n";
+    static final String INCLUDING_CHANGES_SINCE_LAST_SUCCESS =
+            "Previous build status is not SUCCESS, considering the commits of all builds since the last successful one.";
+    static final String DECIDED_BY_PARENT_BUILD =
+            "Whether to revert is decided once for all configurations by the parent build.";
+    static final String REPOSITORY_REVERT_STATUS =
+            "Revert in repository %s: %s\n";
+    static final String NO_REVERT_MAIL_RECIPIENTS =
+            "Will not mail about the revert since no committer has a known e-mail address.";
+    static final String REVERT_MAIL_QUEUED =
+            "Will mail %d committer(s) about the revert, collecting reverts for %d min.\n";
+    static final String NO_NEW_FAILURES =
+            "Will not revert since every failing test already failed before these changes.";
+    static final String ONLY_FLAKY_TESTS_FAILING =
+            "Will not revert since every new failure is in a test known to be flaky.";
+    static final String REVERTING_AT_HEAD =
+            "Updating the workspace to the youngest revision before reverting, since the build has finished.";
+    static final String PATH_NOT_REVERTABLE =
+            "Will not revert since the path rules of the job do not allow reverting %s.\n";
+    static final String BUILD_STATUS_NOT_REVERTED_ON =
+            "Will not revert since the job is not configured to revert when build status is %s.\n";
+    static final String TOO_MANY_AFFECTED_FILES =
+            "Will not revert since the commits affect more than %d file(s).\n";
+    static final String REVERT_TOO_LARGE =
+            "Will not revert since reverting touches at least %d path(s) and %d KB, more than the configured limits.\n";
+    static final String REVERT_QUEUED =
+            "Queued the revert to run after the build, freeing the executor (see %s).\n";
+    static final String RECOVERED_COMMIT =
+            "Committed the revert that a restart of Jenkins interrupted.";
+    static final String RECOVERED_COMMIT_FOUND =
+            "Found the revert that a restart of Jenkins interrupted already committed.";
+    static final String RECOVERED_ROLLBACK =
+            "Rolled back %d path(s) of a revert that a restart of Jenkins interrupted.\n";
+    static final String REVERT_LOCKED_ELSEWHERE =
+            "Will not revert since another Jenkins is reverting in the repository.";
+    static final String REVERT_LOCK_SENTINEL_MISSING =
+            "Will not revert since the lock sentinel file %s does not exist in %s. "
+            + "Commit an empty file there or change the sentinel path in the global configuration.\n";
+    static final String ALREADY_REVERTED_ELSEWHERE =
+            "Will not revert since another Jenkins already reverted the revision(s).";
+    static final String REVERT_NOT_MARKED =
+            "Could not mark the reverted revision(s) for other Jenkins controllers:";
+    static final String REVERT_BUDGET_EXHAUSTED =
+            "Will not revert since the revert budget of %s is exhausted (%d per hour, at most %d at once).\n";
+    static final String CIRCUIT_OPEN =
+            "Will not revert since recent reverts in %s failed; waiting until the repository responds again.\n";
+    static final String PROGRESS =
+            "Reverting: %d file(s) merged, %d file(s) committed, %d KB sent, at %s\n";
+    static final String REVERT_LOCK_LOST =
+            "Will not commit the revert since another Jenkins took over the repository lock after its lease ran out.";
+    static final String REVERT_LOCK_NOT_RELEASED =
+            "Could not release the repository lock, other Jenkins controllers will wait for its lease to end:";
     private final PrintStream logger;
 
     Messenger(final PrintStream logger) {
@@ -51,8 +134,8 @@ class Messenger {
         logger.println(NO_SVN_AUTH_PROVIDER);
     }
 
-    void informReverted(final Revisions revisions, final String repository) {
-        logger.format(REVERTED_CHANGES, revisions.getBefore(), revisions.getLast(), repository);
+    void informReverted(final Revisions revisions, final String repository, final Result result) {
+        logger.format(REVERTED_CHANGES, revisions.getAllInOrderAsString(), repository, result);
     }
 
     void informNoChanges() {
@@ -63,14 +146,18 @@ class Messenger {
         logger.format(COMMIT_MESSAGE_CONTAINS, substring);
     }
 
-    void informFilesToRevertOutOfDate() {
-        logger.println(FILES_TO_REVERT_OUT_OF_DATE);
+    void informFilesToRevertOutOfDate(final Result result) {
+        logger.format(FILES_TO_REVERT_OUT_OF_DATE, result);
     }
 
     void informChangesOutsideWorkspace() {
         logger.println(CHANGES_OUTSIDE_WORKSPACE);
     }
 
+    void informChangeLocationUnknown() {
+        logger.println(CHANGE_LOCATION_UNKNOWN);
+    }
+
     void informNothingRevertedBecauseOf(final SVNException exception) {
         logger.println(SUBVERSION_EXCEPTION_DURING_REVERT);
         logger.println(SUBVERSION_ERROR_CODE + exception.getErrorMessage().getErrorCode());
@@ -89,5 +176,165 @@ class Messenger {
         logger.println(TOO_MANY_CHANGES);
     }
 
+    void informPreview(final RevertPreview preview) {
+        logger.format(StringHumanizer.pluralize(DRY_RUN_PREVIEW, preview.getFiles().size()),
+                preview.getFiles().size(), preview.getConflicts().size());
+        for (final String conflict : preview.getConflicts()) {
+            logger.println(DRY_RUN_CONFLICT + conflict);
+        }
+    }
+
+    void informPreviewHasConflicts(final RevertPreview preview) {
+        logger.format(StringHumanizer.pluralize(PREVIEW_HAS_CONFLICTS, preview.getConflicts().size()),
+                preview.getConflicts().size());
+    }
+
+    void informRolledBack(final int paths, final long millis) {
+        logger.format(StringHumanizer.pluralize(ROLLED_BACK, paths), paths, millis);
+    }
+
+    void informRollbackFailedBecauseOf(final SVNException exception) {
+        logger.println(ROLLBACK_FAILED);
+        printStackTraceFor(exception);
+    }
+
+    void informBisecting(final String remainingRevisions, final int revision) {
+        logger.format(BISECTING, remainingRevisions, revision);
+    }
+
+    void informBisectionFoundCulprit(final int revision) {
+        logger.format(BISECTION_FOUND_CULPRIT, revision);
+    }
+
+    void informBisectionAbandoned(final int revision) {
+        logger.format(BISECTION_ABANDONED, revision);
+    }
+
+    void informNoPlausibleCulprit() {
+        logger.println(NO_PLAUSIBLE_CULPRIT);
+    }
+
+    void informOnlyFlakyTestsFailing() {
+        logger.println(ONLY_FLAKY_TESTS_FAILING);
+    }
+
+    void informNoNewFailures() {
+        logger.println(NO_NEW_FAILURES);
+    }
+
+    void informDeferredUntilPreviousBuildCompletes(final int previousBuildNumber) {
+        logger.format(DEFERRED_UNTIL_PREVIOUS_BUILD_COMPLETES, previousBuildNumber, RevertLogAction.DISPLAY_NAME);
+    }
+
+    void informDeferredWorkspaceUnavailable() {
+        logger.println(DEFERRED_WORKSPACE_UNAVAILABLE);
+    }
+
+    void informDeferredJobNoLongerReverts() {
+        logger.println(DEFERRED_JOB_NO_LONGER_REVERTS);
+    }
+
+    void informDeferredDecisionTimedOut(final long minutes) {
+        logger.format(DEFERRED_DECISION_TIMED_OUT, minutes);
+    }
+
+    void informRevertingAtHead() {
+        logger.println(REVERTING_AT_HEAD);
+    }
+
+    void informIncludingChangesSinceLastSuccess() {
+        logger.println(INCLUDING_CHANGES_SINCE_LAST_SUCCESS);
+    }
+
+    void informCulpritRevertDeferred(final int bisectedBuildNumber) {
+        logger.format(CULPRIT_REVERT_DEFERRED, bisectedBuildNumber, RevertLogAction.DISPLAY_NAME);
+    }
+
+    void informDecidedByParentBuild() {
+        logger.println(DECIDED_BY_PARENT_BUILD);
+    }
+
+    void informRepositoryRevertStatus(final String repositoryUuid, final SvnRevertStatus status) {
+        logger.format(REPOSITORY_REVERT_STATUS, repositoryUuid, status);
+    }
+
+    void informNoRevertMailRecipients() {
+        logger.println(NO_REVERT_MAIL_RECIPIENTS);
+    }
+
+    void informRevertMailQueued(final int recipients, final int minutes) {
+        logger.format(StringHumanizer.pluralize(REVERT_MAIL_QUEUED, recipients), recipients, minutes);
+    }
+
+    void informPathNotRevertable(final String path) {
+        logger.format(PATH_NOT_REVERTABLE, path);
+    }
+
+    void informBuildStatusNotRevertedOn(final Result result) {
+        logger.format(BUILD_STATUS_NOT_REVERTED_ON, result);
+    }
+
+    void informTooManyAffectedFiles(final int maxAffectedFiles) {
+        logger.format(TOO_MANY_AFFECTED_FILES, maxAffectedFiles);
+    }
+
+    void informRevertTooLarge(final int paths, final long bytes) {
+        logger.format(REVERT_TOO_LARGE, paths, bytes / 1024);
+    }
+
+    void informRevertQueued(final String logFile) {
+        logger.format(REVERT_QUEUED, logFile);
+    }
+
+    void informRecoveredCommit() {
+        logger.println(RECOVERED_COMMIT);
+    }
+
+    void informRecoveredRollback(final int paths) {
+        logger.format(RECOVERED_ROLLBACK, paths);
+    }
+
+    void informRecoveredCommitFound() {
+        logger.println(RECOVERED_COMMIT_FOUND);
+    }
+
+    void informRevertLockedElsewhere() {
+        logger.println(REVERT_LOCKED_ELSEWHERE);
+    }
+
+    void informRevertLockSentinelMissing(final String sentinelPath, final String repository) {
+        logger.format(REVERT_LOCK_SENTINEL_MISSING, sentinelPath, repository);
+    }
+
+    void informAlreadyRevertedElsewhere() {
+        logger.println(ALREADY_REVERTED_ELSEWHERE);
+    }
+
+    void informRevertNotMarked(final SVNException exception) {
+        logger.println(REVERT_NOT_MARKED);
+        logger.println(exception.getMessage());
+    }
+
+    void informRevertBudgetExhausted(final String repository, final int revertsPerHour, final int burst) {
+        logger.format(REVERT_BUDGET_EXHAUSTED, repository, revertsPerHour, burst);
+    }
+
+    void informCircuitOpen(final String repository) {
+        logger.format(CIRCUIT_OPEN, repository);
+    }
+
+    void informProgress(final int filesMerged, final int filesCommitted, final long bytesSent,
+            final String path) {
+        logger.format(PROGRESS, filesMerged, filesCommitted, bytesSent / 1024, path);
+    }
+
+    void informRevertLockLost() {
+        logger.println(REVERT_LOCK_LOST);
+    }
+
+    void informRevertLockNotReleased(final SVNException exception) {
+        logger.println(REVERT_LOCK_NOT_RELEASED);
+        logger.println(exception.getMessage());
+    }
 
 }
@@ -12,10 +12,18 @@ import org.tmatesoft.svn.core.SVNURL;
 class Module {
 
     private final ModuleLocation moduleLocation;
+    private final String repositoryRoot;
 
 
     Module(final ModuleLocation moduleLocation) {
+        this(moduleLocation, null);
+    }
+
+    /**
+     * @param repositoryRoot as recorded in the working copy, or null to ask the server for it */
+    Module(final ModuleLocation moduleLocation, final String repositoryRoot) {
         this.moduleLocation = moduleLocation;
+        this.repositoryRoot = repositoryRoot;
     }
 
     File getModuleRoot(final AbstractBuild<?, ?> build) {
@@ -31,12 +39,16 @@ class Module {
     }
 
     String getRepositoryRoot(final AbstractProject<?, ?> rootProject) throws SVNException {
+        if (repositoryRoot != null) {
+            return repositoryRoot;
+        }
         return moduleLocation.getRepositoryRoot(rootProject).toString();
     }
 
     String getRepositoryPath(final AbstractBuild<?, ?> build) throws SVNException {
         final String fullUrl = getURL();
-        final String repositoryUrl = getRepositoryRoot(build.getProject().getRootProject());
+        final String repositoryUrl = repositoryRoot != null
+                ? repositoryRoot : getRepositoryRoot(build.getProject().getRootProject());
         if (fullUrl.startsWith(repositoryUrl)) {
             return fullUrl.substring(repositoryUrl.length());
         } else {
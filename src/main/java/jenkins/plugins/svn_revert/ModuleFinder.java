@@ -1,35 +1,86 @@
 package jenkins.plugins.svn_revert;
 
 import hudson.EnvVars;
+import hudson.FilePath;
 import hudson.model.BuildListener;
 import hudson.model.AbstractBuild;
+import hudson.remoting.VirtualChannel;
 import hudson.scm.SubversionSCM;
 import hudson.scm.SubversionSCM.ModuleLocation;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import jenkins.MasterToSlaveFileCallable;
+
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNInfo;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+
 import com.google.common.collect.Lists;
 
 class ModuleFinder {
 
     private final AbstractBuild<?, ?> build;
     private final BuildListener listener;
+    private List<Module> modules;
 
     ModuleFinder(final AbstractBuild<?, ?> build, final BuildListener listener) {
         this.build = build;
         this.listener = listener;
     }
 
-    List<Module> getModules(final SubversionSCM subversionScm)
+    synchronized List<Module> getModules(final SubversionSCM subversionScm)
+            throws IOException, InterruptedException {
+        if (modules == null) {
+            modules = findModules(subversionScm);
+        }
+        return modules;
+    }
+
+    private List<Module> findModules(final SubversionSCM subversionScm)
             throws IOException, InterruptedException {
         final EnvVars envVars = build.getEnvironment(listener);
-        final ArrayList<Module> modules = Lists.newArrayList();
+        final ArrayList<Module> found = Lists.newArrayList();
         for (final ModuleLocation moduleLocation : subversionScm.getLocations(envVars, build)) {
-            modules.add(new Module(moduleLocation));
+            found.add(new Module(moduleLocation, readRepositoryRoot(moduleLocation)));
         }
-        return modules;
+        return found;
+    }
+
+    private String readRepositoryRoot(final ModuleLocation moduleLocation) throws InterruptedException {
+        final FilePath workspace = build.getWorkspace();
+        if (workspace == null) {
+            return null;
+        }
+        try {
+            return workspace.child(moduleLocation.getLocalDir()).act(new RepositoryRootReader());
+        } catch (final IOException e) {
+            return null;
+        }
+    }
+
+    private static final class RepositoryRootReader extends MasterToSlaveFileCallable<String> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public String invoke(final File moduleRoot, final VirtualChannel channel) {
+            final SVNClientManager clientManager = SVNClientManager.newInstance();
+            try {
+                final SVNInfo info = clientManager.getWCClient().doInfo(moduleRoot, SVNRevision.WORKING);
+                return info == null || info.getRepositoryRootURL() == null
+                        ? null : info.getRepositoryRootURL().toString();
+            } catch (final SVNException e) {
+                return null;
+            } finally {
+                clientManager.dispose();
+            }
+        }
+
     }
 
 }
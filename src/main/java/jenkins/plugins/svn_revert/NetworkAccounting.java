@@ -0,0 +1,173 @@
+package jenkins.plugins.svn_revert;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+
+import org.tmatesoft.svn.util.ISVNDebugLog;
+import org.tmatesoft.svn.util.SVNDebugLogAdapter;
+import org.tmatesoft.svn.util.SVNLogType;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+class NetworkAccounting extends SVNDebugLogAdapter {
+
+    static final String OTHER = "other";
+
+    private final ISVNDebugLog log;
+    private final Ticker ticker;
+    private final Map<String, NetworkUsage> usages = Maps.newLinkedHashMap();
+    private final ThreadLocal<NetworkUsage> current = new ThreadLocal<NetworkUsage>() {
+        @Override
+        protected NetworkUsage initialValue() {
+            return usageOf(OTHER);
+        }
+    };
+    private final ThreadLocal<Boolean> awaitingResponse = new ThreadLocal<Boolean>() {
+        @Override
+        protected Boolean initialValue() {
+            return false;
+        }
+    };
+
+    NetworkAccounting(final ISVNDebugLog log, final Ticker ticker) {
+        this.log = log;
+        this.ticker = ticker;
+    }
+
+    long begin(final String operation) {
+        current.set(usageOf(operation));
+        awaitingResponse.remove();
+        return ticker.read();
+    }
+
+    void end(final long began) {
+        current.get().took(ticker.read() - began);
+        current.remove();
+        awaitingResponse.remove();
+    }
+
+    List<NetworkUsage> getUsages() {
+        final List<NetworkUsage> copies = Lists.newArrayList();
+        synchronized (usages) {
+            for (final NetworkUsage usage : usages.values()) {
+                if (!usage.isEmpty()) {
+                    copies.add(usage.copy());
+                }
+            }
+        }
+        return copies;
+    }
+
+    private NetworkUsage usageOf(final String operation) {
+        synchronized (usages) {
+            NetworkUsage usage = usages.get(operation);
+            if (usage == null) {
+                usage = new NetworkUsage(operation);
+                usages.put(operation, usage);
+            }
+            return usage;
+        }
+    }
+
+    @Override
+    public InputStream createLogStream(final SVNLogType logType, final InputStream is) {
+        return new CountingInputStream(log.createLogStream(logType, is));
+    }
+
+    @Override
+    public OutputStream createLogStream(final SVNLogType logType, final OutputStream os) {
+        return new CountingOutputStream(log.createLogStream(logType, os));
+    }
+
+    @Override
+    public void log(final SVNLogType logType, final String message, final byte[] data) {
+        log.log(logType, message, data);
+    }
+
+    @Override
+    public void log(final SVNLogType logType, final Throwable th, final Level logLevel) {
+        log.log(logType, th, logLevel);
+    }
+
+    @Override
+    public void log(final SVNLogType logType, final String message, final Level logLevel) {
+        log.log(logType, message, logLevel);
+    }
+
+    private final class CountingInputStream extends FilterInputStream {
+
+        CountingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            final long started = ticker.read();
+            final int read = super.read();
+            counted(read < 0 ? 0 : 1, started);
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            final long started = ticker.read();
+            final int read = super.read(b, off, len);
+            counted(Math.max(0, read), started);
+            return read;
+        }
+
+        private void counted(final int bytes, final long started) {
+            final boolean response = awaitingResponse.get() && bytes > 0;
+            if (response) {
+                awaitingResponse.set(false);
+            }
+            current.get().read(bytes, ticker.read() - started, response);
+        }
+
+    }
+
+    private final class CountingOutputStream extends FilterOutputStream {
+
+        CountingOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            final long started = ticker.read();
+            out.write(b);
+            counted(1, started);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            final long started = ticker.read();
+            out.write(b, off, len);
+            counted(len, started);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            final long started = ticker.read();
+            out.flush();
+            counted(0, started);
+        }
+
+        private void counted(final int bytes, final long started) {
+            if (bytes > 0) {
+                awaitingResponse.set(true);
+            }
+            current.get().written(bytes, ticker.read() - started);
+        }
+
+    }
+
+}
@@ -0,0 +1,31 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+class NetworkMetrics {
+
+    private static final NetworkMetrics INSTANCE = new NetworkMetrics();
+
+    private final Map<String, NetworkUsage> usages = Maps.newLinkedHashMap();
+
+    static NetworkMetrics get() {
+        return INSTANCE;
+    }
+
+    synchronized void record(final List<NetworkUsage> more) {
+        NetworkUsage.addTo(usages, more);
+    }
+
+    synchronized List<NetworkUsage> getUsages() {
+        final List<NetworkUsage> copies = Lists.newArrayList();
+        for (final NetworkUsage usage : usages.values()) {
+            copies.add(usage.copy());
+        }
+        return copies;
+    }
+
+}
@@ -0,0 +1,98 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.List;
+import java.util.Map;
+
+public final class NetworkUsage {
+
+    private final String operation;
+    private long roundTrips;
+    private long bytesRead;
+    private long bytesWritten;
+    private long networkNanos;
+    private long totalNanos;
+
+    NetworkUsage(final String operation) {
+        this.operation = operation;
+    }
+
+    synchronized void read(final long bytes, final long nanos, final boolean response) {
+        bytesRead += bytes;
+        networkNanos += nanos;
+        if (response) {
+            roundTrips++;
+        }
+    }
+
+    synchronized void written(final long bytes, final long nanos) {
+        bytesWritten += bytes;
+        networkNanos += nanos;
+    }
+
+    synchronized void took(final long nanos) {
+        totalNanos += nanos;
+    }
+
+    synchronized void add(final NetworkUsage other) {
+        final NetworkUsage added = other.copy();
+        roundTrips += added.roundTrips;
+        bytesRead += added.bytesRead;
+        bytesWritten += added.bytesWritten;
+        networkNanos += added.networkNanos;
+        totalNanos += added.totalNanos;
+    }
+
+    synchronized NetworkUsage copy() {
+        return copy(operation);
+    }
+
+    synchronized NetworkUsage copy(final String newOperation) {
+        final NetworkUsage copy = new NetworkUsage(newOperation);
+        copy.roundTrips = roundTrips;
+        copy.bytesRead = bytesRead;
+        copy.bytesWritten = bytesWritten;
+        copy.networkNanos = networkNanos;
+        copy.totalNanos = totalNanos;
+        return copy;
+    }
+
+    synchronized boolean isEmpty() {
+        return bytesRead == 0 && bytesWritten == 0 && totalNanos == 0;
+    }
+
+    static void addTo(final Map<String, NetworkUsage> totals, final List<NetworkUsage> usages) {
+        for (final NetworkUsage usage : usages) {
+            NetworkUsage total = totals.get(usage.getOperation());
+            if (total == null) {
+                total = new NetworkUsage(usage.getOperation());
+                totals.put(usage.getOperation(), total);
+            }
+            total.add(usage);
+        }
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public synchronized long getRoundTrips() {
+        return roundTrips;
+    }
+
+    public synchronized long getBytesRead() {
+        return bytesRead;
+    }
+
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public synchronized long getNetworkMillis() {
+        return networkNanos / 1000000;
+    }
+
+    public synchronized long getTotalMillis() {
+        return totalNanos / 1000000;
+    }
+
+}
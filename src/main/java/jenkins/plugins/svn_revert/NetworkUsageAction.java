@@ -0,0 +1,35 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.InvisibleAction;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class NetworkUsageAction extends InvisibleAction {
+
+    private final Map<String, NetworkUsage> usages = Maps.newLinkedHashMap();
+
+    synchronized void add(final List<NetworkUsage> more) {
+        NetworkUsage.addTo(usages, more);
+    }
+
+    public synchronized List<NetworkUsage> getUsages() {
+        final List<NetworkUsage> copies = Lists.newArrayList();
+        for (final NetworkUsage usage : usages.values()) {
+            copies.add(usage.copy());
+        }
+        return copies;
+    }
+
+    public synchronized NetworkUsage getTotal() {
+        final NetworkUsage total = new NetworkUsage("total");
+        for (final NetworkUsage usage : usages.values()) {
+            total.add(usage);
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,43 @@
+package jenkins.plugins.svn_revert;
+
+final class NotificationTemplates {
+
+    static final String COMMIT_MESSAGE =
+            "Automatically reverted revision(s) ${revisions} since Jenkins build ${job} became ${result}.";
+    static final String CLAIM_MESSAGE = "Reverted revision(s) ${revisions}";
+    static final String MAIL_SUBJECT = "Reverted revision(s): ${revisions}";
+    static final String MAIL_BODY =
+            "Revision(s) ${revisions} was reverted since they made ${job} ${result}.\n\nSee: ${buildUrl}";
+    static final NotificationTemplates DEFAULTS =
+            new NotificationTemplates(COMMIT_MESSAGE, CLAIM_MESSAGE, MAIL_SUBJECT, MAIL_BODY);
+
+    private final MessageTemplate commitMessage;
+    private final MessageTemplate claimMessage;
+    private final MessageTemplate mailSubject;
+    private final MessageTemplate mailBody;
+
+    NotificationTemplates(final String commitMessage, final String claimMessage, final String mailSubject,
+            final String mailBody) {
+        this.commitMessage = MessageTemplate.compile(commitMessage);
+        this.claimMessage = MessageTemplate.compile(claimMessage);
+        this.mailSubject = MessageTemplate.compile(mailSubject);
+        this.mailBody = MessageTemplate.compile(mailBody);
+    }
+
+    MessageTemplate getCommitMessage() {
+        return commitMessage;
+    }
+
+    MessageTemplate getClaimMessage() {
+        return claimMessage;
+    }
+
+    MessageTemplate getMailSubject() {
+        return mailSubject;
+    }
+
+    MessageTemplate getMailBody() {
+        return mailBody;
+    }
+
+}
@@ -0,0 +1,18 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.InvisibleAction;
+import hudson.model.Run;
+
+public class ParentRevertAction extends InvisibleAction {
+
+    private final String parentBuildId;
+
+    ParentRevertAction(final String parentBuildId) {
+        this.parentBuildId = parentBuildId;
+    }
+
+    public Run<?, ?> getParentBuild() {
+        return Run.fromExternalizableId(parentBuildId);
+    }
+
+}
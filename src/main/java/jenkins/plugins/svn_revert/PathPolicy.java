@@ -0,0 +1,22 @@
+package jenkins.plugins.svn_revert;
+
+class PathPolicy {
+
+    private final PathRules rules;
+    private final ChangedFiles changedFiles;
+
+    PathPolicy(final PathRules rules, final ChangedFiles changedFiles) {
+        this.rules = rules;
+        this.changedFiles = changedFiles;
+    }
+
+    /**
+     * @return the first changed path the rules do not allow to revert, or null if all are allowed */
+    String firstBlockedPath() {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        return rules.firstBlocked(changedFiles.getRepositoryPathsFor());
+    }
+
+}
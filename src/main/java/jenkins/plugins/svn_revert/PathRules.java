@@ -0,0 +1,185 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+final class PathRules {
+
+    static final PathRules NONE = new PathRules(new Node(), false);
+
+    private final Node start;
+    private final boolean hasIncludes;
+
+    private PathRules(final Node start, final boolean hasIncludes) {
+        this.start = start;
+        this.hasIncludes = hasIncludes;
+    }
+
+    static PathRules compile(final String includes, final String excludes) {
+        final Node start = new Node();
+        final boolean hasIncludes = addGlobs(start, includes, true);
+        final boolean hasExcludes = addGlobs(start, excludes, false);
+        if (!hasIncludes && !hasExcludes) {
+            return NONE;
+        }
+        return new PathRules(start, hasIncludes);
+    }
+
+    boolean isEmpty() {
+        return this == NONE;
+    }
+
+    /**
+     * @return the first of the paths that may not be reverted, or null if all of them may */
+    String firstBlocked(final Iterable<String> paths) {
+        if (isEmpty()) {
+            return null;
+        }
+        for (final String path : paths) {
+            if (!allows(path)) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    boolean allows(final String path) {
+        Set<Node> states = Sets.newHashSet();
+        enter(start, states);
+        for (final String segment : segmentsOf(path)) {
+            final Set<Node> next = Sets.newHashSet();
+            for (final Node state : states) {
+                if (state.excludes && state.anySegments) {
+                    return false;
+                }
+                state.step(segment, next);
+            }
+            if (next.isEmpty()) {
+                return !hasIncludes;
+            }
+            states = next;
+        }
+        boolean included = false;
+        for (final Node state : states) {
+            if (state.excludes) {
+                return false;
+            }
+            included |= state.includes;
+        }
+        return included || !hasIncludes;
+    }
+
+    private static boolean addGlobs(final Node start, final String globs, final boolean include) {
+        if (globs == null) {
+            return false;
+        }
+        boolean added = false;
+        for (final String line : globs.split("[\\r\\n]+")) {
+            final String glob = line.trim();
+            if (glob.isEmpty()) {
+                continue;
+            }
+            Node node = start;
+            for (final String segment : segmentsOf(glob)) {
+                node = node.child(segment);
+            }
+            if (include) {
+                node.includes = true;
+            } else {
+                node.excludes = true;
+            }
+            added = true;
+        }
+        return added;
+    }
+
+    private static void enter(final Node node, final Set<Node> states) {
+        if (states.add(node) && node.anySegmentsChild != null) {
+            enter(node.anySegmentsChild, states);
+        }
+    }
+
+    private static List<String> segmentsOf(final String path) {
+        final List<String> segments = Lists.newArrayList();
+        for (final String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments;
+    }
+
+    private static Pattern compileSegment(final String segment) {
+        final StringBuilder regex = new StringBuilder();
+        int literalStart = 0;
+        for (int i = 0; i < segment.length(); i++) {
+            final char c = segment.charAt(i);
+            if (c == '*' || c == '?') {
+                if (i > literalStart) {
+                    regex.append(Pattern.quote(segment.substring(literalStart, i)));
+                }
+                regex.append(c == '*' ? "[^/]*" : "[^/]");
+                literalStart = i + 1;
+            }
+        }
+        if (segment.length() > literalStart) {
+            regex.append(Pattern.quote(segment.substring(literalStart)));
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> literalChildren = Maps.newHashMap();
+        private final Map<String, Node> wildcardChildren = Maps.newLinkedHashMap();
+        private final Map<String, Pattern> wildcardPatterns = Maps.newHashMap();
+        private Node anySegmentsChild;
+        private boolean anySegments;
+        private boolean includes;
+        private boolean excludes;
+
+        Node child(final String segment) {
+            if (segment.equals("**")) {
+                if (anySegmentsChild == null) {
+                    anySegmentsChild = new Node();
+                    anySegmentsChild.anySegments = true;
+                }
+                return anySegmentsChild;
+            }
+            final boolean wildcard = segment.indexOf('*') >= 0 || segment.indexOf('?') >= 0;
+            final Map<String, Node> children = wildcard ? wildcardChildren : literalChildren;
+            Node child = children.get(segment);
+            if (child == null) {
+                child = new Node();
+                children.put(segment, child);
+                if (wildcard) {
+                    wildcardPatterns.put(segment, compileSegment(segment));
+                }
+            }
+            return child;
+        }
+
+        void step(final String segment, final Set<Node> next) {
+            if (anySegments) {
+                enter(this, next);
+            }
+            final Node literal = literalChildren.get(segment);
+            if (literal != null) {
+                enter(literal, next);
+            }
+            for (final Map.Entry<String, Node> wildcard : wildcardChildren.entrySet()) {
+                if (wildcardPatterns.get(wildcard.getKey()).matcher(segment).matches()) {
+                    enter(wildcard.getValue(), next);
+                }
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.InvisibleAction;
+
+public class QueuedRevertAction extends InvisibleAction {
+
+    public enum State {
+        QUEUED, RUNNING, FINISHED, FAILED
+    }
+
+    private volatile State state = State.QUEUED;
+
+    public State getState() {
+        return state;
+    }
+
+    void setState(final State state) {
+        this.state = state;
+    }
+
+    public String getLogUrlName() {
+        return RevertLogAction.URL_NAME;
+    }
+
+}
@@ -0,0 +1,135 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNLock;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNPropertyValue;
+import org.tmatesoft.svn.core.io.ISVNLockHandler;
+import org.tmatesoft.svn.core.io.SVNRepository;
+
+class RepositoryRevertLock {
+
+    static final String REVERTED_BY_PROPERTY = "svn-revert:reverted-by";
+    private static final String COMMENT_PREFIX = "svn-revert lease by ";
+    private static final String UNTIL = " until ";
+
+    private final SVNRepository repository;
+    private final String sentinelPath;
+    private final String owner;
+    private final long leaseMillis;
+    private SVNLock lock;
+
+    RepositoryRevertLock(final SVNRepository repository, final String sentinelPath, final String owner,
+            final long leaseMillis) {
+        this.repository = repository;
+        this.sentinelPath = sentinelPath;
+        this.owner = owner;
+        this.leaseMillis = leaseMillis;
+    }
+
+    boolean sentinelExists() throws SVNException {
+        return repository.checkPath(sentinelPath, -1) == SVNNodeKind.FILE;
+    }
+
+    /**
+     * @return false if another controller holds an unexpired lease */
+    boolean tryAcquire() throws SVNException {
+        final long now = System.currentTimeMillis();
+        final SVNLock existing = repository.getLock(sentinelPath);
+        if (existing != null && !isExpired(existing, now)) {
+            return false;
+        }
+        final LockHandler handler = new LockHandler();
+        final Map<String, Long> paths = Collections.singletonMap(sentinelPath, null);
+        try {
+            repository.lock(paths, COMMENT_PREFIX + owner + UNTIL + (now + leaseMillis), existing != null, handler);
+        } catch (final SVNException e) {
+            if (e.getErrorMessage().getErrorCode() == SVNErrorCode.FS_PATH_ALREADY_LOCKED) {
+                return false;
+            }
+            throw e;
+        }
+        lock = handler.lock;
+        return lock != null;
+    }
+
+    boolean renew() throws SVNException {
+        if (lock == null) {
+            return false;
+        }
+        final SVNLock current = repository.getLock(sentinelPath);
+        if (current == null || !lock.getID().equals(current.getID())) {
+            lock = null;
+            return false;
+        }
+        final LockHandler handler = new LockHandler();
+        final Map<String, Long> paths = Collections.singletonMap(sentinelPath, null);
+        repository.lock(paths, COMMENT_PREFIX + owner + UNTIL + (System.currentTimeMillis() + leaseMillis), true,
+                handler);
+        lock = handler.lock;
+        return lock != null;
+    }
+
+    void release() throws SVNException {
+        if (lock == null) {
+            return;
+        }
+        final Map<String, String> paths = Collections.singletonMap(sentinelPath, lock.getID());
+        lock = null;
+        repository.unlock(paths, false, new LockHandler());
+    }
+
+    boolean alreadyReverted(final Revisions revisions) throws SVNException {
+        for (final Integer revision : revisions.getAllInOrder()) {
+            if (repository.getRevisionPropertyValue(revision, REVERTED_BY_PROPERTY) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void markReverted(final Revisions revisions) throws SVNException {
+        for (final Integer revision : revisions.getAllInOrder()) {
+            repository.setRevisionPropertyValue(revision, REVERTED_BY_PROPERTY, SVNPropertyValue.create(owner));
+        }
+    }
+
+    void close() {
+        repository.closeSession();
+    }
+
+    static boolean isExpired(final SVNLock lock, final long now) {
+        final String comment = lock.getComment();
+        if (comment == null || !comment.startsWith(COMMENT_PREFIX) || comment.lastIndexOf(UNTIL) < 0) {
+            return false;
+        }
+        try {
+            return now >= Long.parseLong(comment.substring(comment.lastIndexOf(UNTIL) + UNTIL.length()).trim());
+        } catch (final NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static final class LockHandler implements ISVNLockHandler {
+
+        private SVNLock lock;
+
+        @Override
+        public void handleLock(final String path, final SVNLock newLock, final SVNErrorMessage error) {
+            if (error == null) {
+                lock = newLock;
+            }
+        }
+
+        @Override
+        public void handleUnlock(final String path, final SVNLock removedLock, final SVNErrorMessage error) {
+        }
+
+    }
+
+}
@@ -0,0 +1,48 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.concurrent.TimeUnit;
+
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNErrorCode;
+import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.SVNEvent;
+
+import com.google.common.base.Ticker;
+
+class RevertCanceller implements ISVNEventHandler {
+
+    static final RevertCanceller NONE = new RevertCanceller(Ticker.systemTicker(), 0);
+
+    private final Ticker ticker;
+    private final long budgetNanos;
+    private final long deadline;
+
+    /**
+     * @param budgetMillis how long reverting may take from now on, 0 for no deadline */
+    RevertCanceller(final Ticker ticker, final long budgetMillis) {
+        this.ticker = ticker;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.deadline = ticker.read() + budgetNanos;
+    }
+
+    static RevertCanceller startingNow(final long budgetMillis) {
+        return budgetMillis > 0 ? new RevertCanceller(Ticker.systemTicker(), budgetMillis) : NONE;
+    }
+
+    @Override
+    public void checkCancelled() throws SVNCancelException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new SVNCancelException(SVNErrorMessage.create(SVNErrorCode.CANCELLED, "Build was aborted"));
+        }
+        if (budgetNanos > 0 && ticker.read() - deadline >= 0) {
+            throw new SVNCancelException(SVNErrorMessage.create(SVNErrorCode.CANCELLED,
+                    "Revert took longer than " + TimeUnit.NANOSECONDS.toSeconds(budgetNanos) + " seconds"));
+        }
+    }
+
+    @Override
+    public void handleEvent(final SVNEvent event, final double progress) {
+    }
+
+}
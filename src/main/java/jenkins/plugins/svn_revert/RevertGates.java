@@ -0,0 +1,89 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.Result;
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+import hudson.scm.SubversionSCM;
+
+class RevertGates {
+
+    private final ChangeSets changeSets;
+    private final FailureBaseline failureBaseline;
+    private final CommitCountRule commitCountRule;
+    private final FlakyTestFilter flakyTestFilter;
+    private final CommitMessages commitMessages;
+    private final ChangeLocator changeLocator;
+    private final PathPolicy pathPolicy;
+
+    RevertGates(final ChangeSets changeSets, final FailureBaseline failureBaseline,
+            final CommitCountRule commitCountRule, final FlakyTestFilter flakyTestFilter,
+            final CommitMessages commitMessages, final ChangeLocator changeLocator, final PathPolicy pathPolicy) {
+        this.changeSets = changeSets;
+        this.failureBaseline = failureBaseline;
+        this.commitCountRule = commitCountRule;
+        this.flakyTestFilter = flakyTestFilter;
+        this.commitMessages = commitMessages;
+        this.changeLocator = changeLocator;
+        this.pathPolicy = pathPolicy;
+    }
+
+    boolean letThrough(final AbstractBuild<?, ?> build, final SubversionSCM subversionScm,
+            final Messenger messenger, final Bisector bisector, final RevertPolicy policy) {
+        if (failureBaseline.noNewFailures()) {
+            messenger.informNoNewFailures();
+            return false;
+        }
+        if (changeSets.spansMultipleBuilds()) {
+            messenger.informIncludingChangesSinceLastSuccess();
+        } else if (previousBuildNotSuccessful(build)) {
+            messenger.informPreviousBuildStatusNotSuccess();
+            return false;
+        }
+        if (commitCountRule.noChangesInBuild()) {
+            messenger.informNoChanges();
+            return false;
+        }
+        if (flakyTestFilter.onlyFlakyTestsFailing()) {
+            messenger.informOnlyFlakyTestsFailing();
+            return false;
+        }
+        if (commitCountRule.tooManyChangesInBuild() && !bisector.canBisect(build)) {
+            messenger.informTooManyChanges();
+            return false;
+        }
+        if (commitCountRule.tooManyAffectedFiles()) {
+            messenger.informTooManyAffectedFiles(policy.getMaxAffectedFiles());
+            return false;
+        }
+        for (final String marker : policy.getSkipMarkers()) {
+            if (commitMessages.anyMessageContains(marker)) {
+                messenger.informCommitMessageContains(marker);
+                return false;
+            }
+        }
+        final ChangeLocation changeLocation = changeLocator.locateChanges(subversionScm);
+        if (changeLocation == ChangeLocation.OUTSIDE_WORKSPACE) {
+            messenger.informChangesOutsideWorkspace();
+            return false;
+        }
+        if (changeLocation == ChangeLocation.UNKNOWN) {
+            messenger.informChangeLocationUnknown();
+            return false;
+        }
+        final String blockedPath = pathPolicy.firstBlockedPath();
+        if (blockedPath != null) {
+            messenger.informPathNotRevertable(blockedPath);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean previousBuildNotSuccessful(final AbstractBuild<?, ?> abstractBuild) {
+        final Run<?, ?> previousBuild = Bisector.previousBuildOf(abstractBuild);
+        if (previousBuild == null || previousBuild.isBuilding()) {
+            return true;
+        }
+        return previousBuild.getResult() != Result.SUCCESS;
+    }
+
+}
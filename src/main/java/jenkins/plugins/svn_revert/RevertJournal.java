@@ -0,0 +1,219 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.XmlFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.model.Jenkins;
+
+import com.google.common.collect.Lists;
+
+class RevertJournal {
+
+    enum Phase {
+        PLANNED, MERGED, COMMITTED
+    }
+
+    private static final String FILE_NAME = RevertJournal.class.getName() + ".xml";
+    private static final Logger LOGGER = Logger.getLogger(RevertJournal.class.getName());
+    private static RevertJournal instance;
+
+    private final XmlFile file;
+    private final List<Entry> entries = Lists.newArrayList();
+
+    RevertJournal(final XmlFile file) {
+        this.file = file;
+    }
+
+    static synchronized RevertJournal get() {
+        if (instance == null) {
+            instance = new RevertJournal(new XmlFile(Jenkins.XSTREAM, new File(Jenkins.get().getRootDir(), FILE_NAME)));
+            instance.load();
+        }
+        return instance;
+    }
+
+    synchronized String planned(final String buildId, final String commitMessage, final List<File> moduleDirs) {
+        final Entry entry = new Entry(UUID.randomUUID().toString(), buildId, commitMessage, pathsOf(moduleDirs));
+        entry.subtrees = Lists.newArrayList();
+        entry.files = pathsOf(moduleDirs);
+        entries.add(entry);
+        save();
+        return entry.id;
+    }
+
+    synchronized void touched(final String id, final File file, final boolean addedOrDeleted) {
+        final Entry entry = find(id);
+        if (entry == null) {
+            return;
+        }
+        final List<String> paths = addedOrDeleted ? entry.subtrees : entry.files;
+        if (!paths.contains(file.getPath())) {
+            paths.add(file.getPath());
+            save();
+        }
+    }
+
+    synchronized void merged(final String id, final List<File> subtrees, final List<File> files) {
+        final Entry entry = find(id);
+        if (entry != null) {
+            entry.subtrees = pathsOf(subtrees);
+            entry.files = pathsOf(files);
+            entry.phase = Phase.MERGED;
+            save();
+        }
+    }
+
+    synchronized void committed(final String id) {
+        final Entry entry = find(id);
+        if (entry != null) {
+            entry.phase = Phase.COMMITTED;
+            save();
+        }
+    }
+
+    synchronized void notified(final String buildId) {
+        boolean removed = false;
+        for (final Iterator<Entry> it = entries.iterator(); it.hasNext();) {
+            final Entry entry = it.next();
+            if (Objects.equals(entry.buildId, buildId) && entry.phase == Phase.COMMITTED) {
+                it.remove();
+                removed = true;
+            }
+        }
+        if (removed) {
+            save();
+        }
+    }
+
+    synchronized void remove(final String id) {
+        final Entry entry = find(id);
+        if (entry != null) {
+            entries.remove(entry);
+            save();
+        }
+    }
+
+    synchronized List<Entry> getEntries() {
+        return Lists.newArrayList(entries);
+    }
+
+    private Entry find(final String id) {
+        for (final Entry entry : entries) {
+            if (entry.id.equals(id)) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void load() {
+        if (file == null || !file.exists()) {
+            return;
+        }
+        try {
+            entries.addAll((List<Entry>) file.read());
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load revert journal " + file, e);
+        }
+    }
+
+    private void save() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.write(Lists.newArrayList(entries));
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write revert journal " + file, e);
+        }
+    }
+
+    private static List<String> pathsOf(final List<File> files) {
+        final List<String> paths = Lists.newArrayList();
+        for (final File file : files) {
+            paths.add(file.getPath());
+        }
+        return paths;
+    }
+
+    private static List<File> filesOf(final List<String> paths) {
+        final List<File> files = Lists.newArrayList();
+        if (paths != null) {
+            for (final String path : paths) {
+                files.add(new File(path));
+            }
+        }
+        return files;
+    }
+
+    static final class Entry {
+
+        private final String id;
+        private final String buildId;
+        private final String commitMessage;
+        private final List<String> moduleDirs;
+        private List<String> subtrees;
+        private List<String> files;
+        private Phase phase = Phase.PLANNED;
+
+        Entry(final String id, final String buildId, final String commitMessage, final List<String> moduleDirs) {
+            this.id = id;
+            this.buildId = buildId;
+            this.commitMessage = commitMessage;
+            this.moduleDirs = moduleDirs;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        String getBuildId() {
+            return buildId;
+        }
+
+        String getCommitMessage() {
+            return commitMessage;
+        }
+
+        Phase getPhase() {
+            return phase;
+        }
+
+        List<File> getModuleDirs() {
+            return filesOf(moduleDirs);
+        }
+
+        List<File> getSubtrees() {
+            final List<File> all = filesOf(subtrees);
+            final List<File> topmost = Lists.newArrayList();
+            for (final File subtree : all) {
+                if (subtree.getParentFile() == null || !MergeEventCollector.within(subtree.getParentFile(), all)) {
+                    topmost.add(subtree);
+                }
+            }
+            return topmost;
+        }
+
+        List<File> getFiles() {
+            final List<File> subtreeFiles = filesOf(subtrees);
+            final List<File> separate = Lists.newArrayList();
+            for (final File file : filesOf(files)) {
+                if (!MergeEventCollector.within(file, subtreeFiles)) {
+                    separate.add(file);
+                }
+            }
+            return separate;
+        }
+
+    }
+
+}
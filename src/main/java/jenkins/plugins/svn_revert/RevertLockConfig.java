@@ -0,0 +1,67 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+public class RevertLockConfig extends AbstractDescribableImpl<RevertLockConfig> {
+
+    static final String DEFAULT_SENTINEL_PATH = "/.svn-revert-lock";
+    static final int DEFAULT_LEASE_MINUTES = 30;
+
+    private final String sentinelPath;
+    private final int leaseMinutes;
+
+    @DataBoundConstructor
+    public RevertLockConfig(final String sentinelPath, final int leaseMinutes) {
+        this.sentinelPath = sentinelPath;
+        this.leaseMinutes = leaseMinutes;
+    }
+
+    public String getSentinelPath() {
+        final String path = Util.fixEmptyAndTrim(sentinelPath);
+        return path == null ? DEFAULT_SENTINEL_PATH : path;
+    }
+
+    public int getLeaseMinutes() {
+        return leaseMinutes;
+    }
+
+    RevertLockSettings toSettings(final String owner) {
+        return new RevertLockSettings(getSentinelPath(), owner, TimeUnit.MINUTES.toMillis(Math.max(1, leaseMinutes)));
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<RevertLockConfig> {
+
+        @Override
+        public String getDisplayName() {
+            return "Repository lock";
+        }
+
+        public FormValidation doCheckSentinelPath(@QueryParameter final String value) {
+            final String path = Util.fixEmptyAndTrim(value);
+            if (path == null) {
+                return FormValidation.error("Enter the path of a file below the repository root.");
+            }
+            if (!path.startsWith("/") || path.endsWith("/")) {
+                return FormValidation.error("The path must start with / and name a file, such as "
+                        + DEFAULT_SENTINEL_PATH + ".");
+            }
+            return FormValidation.ok();
+        }
+
+        public FormValidation doCheckLeaseMinutes(@QueryParameter final String value) {
+            return FormValidation.validatePositiveInteger(value);
+        }
+
+    }
+
+}
@@ -0,0 +1,27 @@
+package jenkins.plugins.svn_revert;
+
+final class RevertLockSettings {
+
+    private final String sentinelPath;
+    private final String owner;
+    private final long leaseMillis;
+
+    RevertLockSettings(final String sentinelPath, final String owner, final long leaseMillis) {
+        this.sentinelPath = sentinelPath;
+        this.owner = owner;
+        this.leaseMillis = leaseMillis;
+    }
+
+    String getSentinelPath() {
+        return sentinelPath;
+    }
+
+    String getOwner() {
+        return owner;
+    }
+
+    long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+}
@@ -0,0 +1,66 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Util;
+import hudson.model.Run;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+import javax.servlet.http.HttpServletResponse;
+
+import jenkins.model.RunAction2;
+
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+public class RevertLogAction implements RunAction2 {
+
+    static final String DISPLAY_NAME = "SVN Revert Log";
+    static final String URL_NAME = "svn-revert-log";
+
+    private transient Run<?, ?> run;
+
+    @Override
+    public String getIconFileName() {
+        return "clipboard.png";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return DISPLAY_NAME;
+    }
+
+    @Override
+    public String getUrlName() {
+        return URL_NAME;
+    }
+
+    @Override
+    public void onAttached(final Run<?, ?> attachedTo) {
+        run = attachedTo;
+    }
+
+    @Override
+    public void onLoad(final Run<?, ?> loadedWith) {
+        run = loadedWith;
+    }
+
+    public void doIndex(final StaplerRequest req, final StaplerResponse rsp) throws IOException {
+        final File log = new File(run.getRootDir(), DeferredRevertListener.LOG_FILE);
+        if (!log.isFile()) {
+            rsp.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        rsp.setContentType("text/plain;charset=" + Charset.defaultCharset().name());
+        final InputStream in = new FileInputStream(log);
+        try {
+            Util.copyStream(in, rsp.getOutputStream());
+        } finally {
+            in.close();
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.Util;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+
+public class RevertMailConfig extends AbstractDescribableImpl<RevertMailConfig> {
+
+    static final int DEFAULT_DIGEST_MINUTES = 5;
+    static final RevertMailConfig DEFAULTS = new RevertMailConfig(DEFAULT_DIGEST_MINUTES, null, null);
+
+    private final int digestMinutes;
+    private final String subjectTemplate;
+    private final String bodyTemplate;
+
+    @DataBoundConstructor
+    public RevertMailConfig(final int digestMinutes, final String subjectTemplate, final String bodyTemplate) {
+        this.digestMinutes = digestMinutes;
+        this.subjectTemplate = subjectTemplate;
+        this.bodyTemplate = bodyTemplate;
+    }
+
+    public int getDigestMinutes() {
+        return digestMinutes;
+    }
+
+    public String getSubjectTemplate() {
+        return Util.fixEmptyAndTrim(subjectTemplate) == null ? NotificationTemplates.MAIL_SUBJECT : subjectTemplate;
+    }
+
+    public String getBodyTemplate() {
+        return Util.fixEmptyAndTrim(bodyTemplate) == null ? NotificationTemplates.MAIL_BODY : bodyTemplate;
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<RevertMailConfig> {
+
+        @Override
+        public String getDisplayName() {
+            return "Revert mails";
+        }
+
+    }
+
+}
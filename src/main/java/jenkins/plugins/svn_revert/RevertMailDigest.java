@@ -0,0 +1,233 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.tasks.Mailer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.mail.Message;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.Transport;
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
+import javax.mail.internet.MimeMessage;
+
+import jenkins.model.JenkinsLocationConfiguration;
+import jenkins.util.Timer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+class RevertMailDigest {
+
+    static final String DIGEST_SUBJECT = "Reverted revisions in %d builds";
+    static final String DIGEST_SEPARATOR = "\n\n----\n\n";
+    private static final Logger LOGGER = Logger.getLogger(RevertMailDigest.class.getName());
+    private static RevertMailDigest instance;
+
+    private final MailSessionFactory sessionFactory;
+    private final ScheduledExecutorService executor;
+    private final RevertJournal journal;
+    private final Map<String, List<Notice>> pending = Maps.newLinkedHashMap();
+    private boolean flushScheduled;
+
+    RevertMailDigest(final MailSessionFactory sessionFactory, final ScheduledExecutorService executor,
+            final RevertJournal journal) {
+        this.sessionFactory = sessionFactory;
+        this.executor = executor;
+        this.journal = journal;
+    }
+
+    static synchronized RevertMailDigest get() {
+        if (instance == null) {
+            instance = new RevertMailDigest(new MailerSessionFactory(), Timer.get(), RevertJournal.get());
+        }
+        return instance;
+    }
+
+    void add(final String buildId, final Collection<String> recipients, final String subject, final String body,
+            final long windowMillis) {
+        final Notice notice = new Notice(buildId, subject, body);
+        synchronized (this) {
+            for (final String recipient : recipients) {
+                if (!pending.containsKey(recipient)) {
+                    pending.put(recipient, Lists.<Notice>newArrayList());
+                }
+                pending.get(recipient).add(notice);
+            }
+        }
+        scheduleFlush(windowMillis);
+    }
+
+    private void scheduleFlush(final long windowMillis) {
+        synchronized (this) {
+            if (flushScheduled || pending.isEmpty()) {
+                return;
+            }
+            flushScheduled = true;
+        }
+        executor.schedule(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (final MessagingException e) {
+                    LOGGER.log(Level.WARNING, "Failed to send revert mail digest, will retry", e);
+                    scheduleFlush(windowMillis);
+                }
+            }
+        }, windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    int flush() throws MessagingException {
+        final Map<String, List<Notice>> digests;
+        synchronized (this) {
+            digests = Maps.newLinkedHashMap(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        if (digests.isEmpty()) {
+            return 0;
+        }
+        final Set<String> builds = buildsOf(digests);
+        final Map<String, List<Notice>> unsent = Maps.newLinkedHashMap(digests);
+        int sent = 0;
+        try {
+            final Session session = sessionFactory.createSession();
+            final Transport transport = session.getTransport();
+            transport.connect();
+            try {
+                for (final Map.Entry<String, List<Notice>> digest : digests.entrySet()) {
+                    final MimeMessage mail = createMail(session, digest.getKey(), digest.getValue());
+                    try {
+                        transport.sendMessage(mail, mail.getAllRecipients());
+                        sent++;
+                    } catch (final SendFailedException e) {
+                        if (e.getInvalidAddresses() == null || e.getInvalidAddresses().length == 0) {
+                            throw e;
+                        }
+                        LOGGER.log(Level.WARNING, "Dropping revert mail digest to invalid address "
+                                + digest.getKey(), e);
+                    }
+                    unsent.remove(digest.getKey());
+                }
+            } finally {
+                transport.close();
+            }
+        } finally {
+            requeue(unsent);
+            notified(builds);
+        }
+        return sent;
+    }
+
+    private void notified(final Set<String> builds) {
+        synchronized (this) {
+            builds.removeAll(buildsOf(pending));
+        }
+        for (final String build : builds) {
+            journal.notified(build);
+        }
+    }
+
+    private static Set<String> buildsOf(final Map<String, List<Notice>> digests) {
+        final Set<String> builds = Sets.newHashSet();
+        for (final List<Notice> notices : digests.values()) {
+            for (final Notice notice : notices) {
+                builds.add(notice.buildId);
+            }
+        }
+        return builds;
+    }
+
+    private synchronized void requeue(final Map<String, List<Notice>> unsent) {
+        if (unsent.isEmpty()) {
+            return;
+        }
+        final Map<String, List<Notice>> addedMeanwhile = Maps.newLinkedHashMap(pending);
+        pending.clear();
+        pending.putAll(unsent);
+        for (final Map.Entry<String, List<Notice>> added : addedMeanwhile.entrySet()) {
+            if (pending.containsKey(added.getKey())) {
+                pending.get(added.getKey()).addAll(added.getValue());
+            } else {
+                pending.put(added.getKey(), added.getValue());
+            }
+        }
+    }
+
+    synchronized int getPendingRecipients() {
+        return pending.size();
+    }
+
+    private MimeMessage createMail(final Session session, final String recipient, final List<Notice> notices)
+            throws MessagingException {
+        final MimeMessage mail = new MimeMessage(session);
+        final InternetAddress from = sessionFactory.getFrom();
+        if (from != null) {
+            mail.setFrom(from);
+        }
+        mail.setRecipient(Message.RecipientType.TO, new InternetAddress(recipient));
+        if (notices.size() == 1) {
+            mail.setSubject(notices.get(0).subject, "UTF-8");
+        } else {
+            mail.setSubject(String.format(DIGEST_SUBJECT, notices.size()), "UTF-8");
+        }
+        final StringBuilder body = new StringBuilder();
+        for (final Notice notice : notices) {
+            if (body.length() > 0) {
+                body.append(DIGEST_SEPARATOR);
+            }
+            body.append(notice.body);
+        }
+        mail.setText(body.toString(), "UTF-8");
+        return mail;
+    }
+
+    private static final class Notice {
+
+        private final String buildId;
+        private final String subject;
+        private final String body;
+
+        Notice(final String buildId, final String subject, final String body) {
+            this.buildId = buildId;
+            this.subject = subject;
+            this.body = body;
+        }
+
+    }
+
+    interface MailSessionFactory {
+
+        Session createSession();
+
+        InternetAddress getFrom() throws AddressException;
+
+    }
+
+    private static final class MailerSessionFactory implements MailSessionFactory {
+
+        @Override
+        public Session createSession() {
+            return Mailer.descriptor().createSession();
+        }
+
+        @Override
+        public InternetAddress getFrom() throws AddressException {
+            final String adminAddress = JenkinsLocationConfiguration.get().getAdminAddress();
+            return adminAddress == null ? null : new InternetAddress(adminAddress);
+        }
+
+    }
+
+}
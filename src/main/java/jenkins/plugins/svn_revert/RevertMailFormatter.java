@@ -2,34 +2,23 @@ package jenkins.plugins.svn_revert;
 
 import hudson.model.AbstractBuild;
 
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
-
 class RevertMailFormatter {
 
-    private static final String MAIL_SUBJECT = "Reverted revision(s): %s";
-    private static final String MAIL_BODY =
-            "Revision(s) %s was reverted since they made %s UNSTABLE.\n\nSee: %s";
     private final ChangedRevisions changedRevisions;
+    private final NotificationTemplates templates;
 
-    RevertMailFormatter(final ChangedRevisions changedRevisions) {
+    RevertMailFormatter(final ChangedRevisions changedRevisions, final NotificationTemplates templates) {
         this.changedRevisions = changedRevisions;
+        this.templates = templates;
     }
 
-    public MimeMessage format(final MimeMessage mail, final AbstractBuild<?, ?> build,
-            final String jenkinsUrl)
-            throws MessagingException {
-        final Revisions revisions = changedRevisions.getRevisions();
-
-        final String revisionsInText = revisions.getAllInOrderAsString();
-        final String subject = StringHumanizer.pluralize(MAIL_SUBJECT, revisions.count());
-        mail.setSubject(String.format(subject, revisionsInText));
-
-        final String jobName = build.getProject().getRootProject().getName();
-        final String body = StringHumanizer.pluralize(MAIL_BODY, revisions.count());
-        mail.setText(String.format(body, revisionsInText, jobName,  jenkinsUrl + build.getUrl()));
+    String formatSubject(final AbstractBuild<?, ?> build) {
+        return templates.getMailSubject().render(new TemplateContext(build, changedRevisions));
+    }
 
-        return mail;
+    String formatBody(final AbstractBuild<?, ?> build, final String jenkinsUrl) {
+        return templates.getMailBody().render(
+                new TemplateContext(build, changedRevisions.getRevisions(), changedRevisions, jenkinsUrl));
     }
 
 }
@@ -1,31 +1,49 @@
 package jenkins.plugins.svn_revert;
 
-import hudson.model.BuildListener;
 import hudson.model.AbstractBuild;
-import hudson.tasks.MailSender;
 
-class RevertMailSender extends MailSender {
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import jenkins.model.JenkinsLocationConfiguration;
+
+class RevertMailSender {
 
     private final RevertMailFormatter formatter;
-    private final BuildListener listener;
+    private final ChangedRevisions changedRevisions;
+    private final AuthorAddressResolver addressResolver;
+    private final Messenger messenger;
+    private final RevertMailDigest digest;
+    private final int windowMinutes;
 
-    RevertMailSender(final RevertMailFormatter formatter, final BuildListener listener) {
-        super("", false, true, "UTF-8");
+    RevertMailSender(final RevertMailFormatter formatter, final ChangedRevisions changedRevisions,
+            final AuthorAddressResolver addressResolver, final Messenger messenger,
+            final RevertMailDigest digest, final int windowMinutes) {
         this.formatter = formatter;
-        this.listener = listener;
+        this.changedRevisions = changedRevisions;
+        this.addressResolver = addressResolver;
+        this.messenger = messenger;
+        this.digest = digest;
+        this.windowMinutes = windowMinutes;
     }
 
-    /* Temp disable
-    @Override
-    protected MimeMessage getMail(final AbstractBuild<?, ?> build, final BuildListener listener)
-            throws MessagingException, InterruptedException {
-        final MimeMessage mail = super.getMail(build, listener);
-        return formatter.format(mail, build, Mailer.descriptor().getUrl());
+    /**
+     * @return true if mails were queued, in which case the digest tells the journal once they are sent */
+    boolean sendRevertMail(final AbstractBuild<?, ?> build) {
+        final Set<String> recipients = addressResolver.resolve(changedRevisions.getChangeEntries());
+        if (recipients.isEmpty()) {
+            messenger.informNoRevertMailRecipients();
+            return false;
+        }
+        digest.add(build.getExternalizableId(), recipients, formatter.formatSubject(build),
+                formatter.formatBody(build, getJenkinsUrl()), TimeUnit.MINUTES.toMillis(windowMinutes));
+        messenger.informRevertMailQueued(recipients.size(), windowMinutes);
+        return true;
     }
-    */
 
-    void sendRevertMail(final AbstractBuild<?, ?> build) throws InterruptedException {
-        super.execute(build, listener);
+    private static String getJenkinsUrl() {
+        final String url = JenkinsLocationConfiguration.get().getUrl();
+        return url == null ? "" : url;
     }
 
 }
@@ -0,0 +1,218 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.Result;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import jenkins.plugins.svn_revert.JenkinsGlue.SvnRevertDescriptorImpl;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.primitives.Ints;
+
+class RevertPolicy {
+
+    static final String DEFAULT_REVERT_ON_RESULTS = "UNSTABLE";
+    static final String DEFAULT_SKIP_MARKERS = "revert";
+
+    private final long configVersion;
+    private final boolean revertMultipleCommits;
+    private final boolean revertAcrossBuilds;
+    private final int maxBuilds;
+    private final int maxCommits;
+    private final int maxAffectedFiles;
+    private final long maxRevertBytes;
+    private final Set<Result> revertOnResults;
+    private final List<String> skipMarkers;
+    private final boolean bisectMultipleCommits;
+    private final boolean revertOnlyRelatedCommits;
+    private final boolean skipFlakyTests;
+    private final double flakinessThreshold;
+    private final int mailDigestMinutes;
+    private final long deferredDecisionTimeoutMillis;
+    private final NotificationTemplates templates;
+    private final PathRules pathRules;
+    private final boolean dryRun;
+    private final boolean queueReverts;
+    private final RevertLockSettings lockSettings;
+    private final RevertRateLimit rateLimit;
+    private final SvnKitClientFactory svnKitClientFactory;
+    private final SvnCircuitBreakerSettings circuitBreaker;
+
+    private RevertPolicy(final JenkinsGlue job, final SvnRevertDescriptorImpl global, final long configVersion) {
+        this.configVersion = configVersion;
+        revertMultipleCommits = global.isRevertMultipleCommits();
+        revertAcrossBuilds = global.isRevertAcrossBuilds();
+        maxBuilds = global.getMaxBuilds();
+        maxCommits = parseLimit(job.getMaxCommits(),
+                revertAcrossBuilds ? global.getMaxCommits() : Integer.MAX_VALUE);
+        maxAffectedFiles = parseLimit(job.getMaxAffectedFiles(),
+                parseLimit(global.getMaxAffectedFiles(), Integer.MAX_VALUE));
+        final int maxRevertMegabytes = parseLimit(job.getMaxRevertMegabytes(),
+                parseLimit(global.getMaxRevertMegabytes(), 0));
+        maxRevertBytes = maxRevertMegabytes == 0 ? Long.MAX_VALUE : maxRevertMegabytes * 1024L * 1024L;
+        revertOnResults = parseResults(orDefault(job.getRevertOnResults(), global.getRevertOnResults()));
+        skipMarkers = parseMarkers(orDefault(job.getSkipMarkers(), global.getSkipMarkers()));
+        bisectMultipleCommits = global.isBisectMultipleCommits();
+        revertOnlyRelatedCommits = global.isRevertOnlyRelatedCommits();
+        skipFlakyTests = global.isSkipFlakyTests();
+        flakinessThreshold = global.getFlakinessThreshold();
+        mailDigestMinutes = global.getMail().getDigestMinutes();
+        deferredDecisionTimeoutMillis = global.getTimeouts().getDeferredDecisionTimeoutMillis();
+        templates = global.getNotificationTemplates();
+        pathRules = PathRules.compile(job.getIncludedPaths(), job.getExcludedPaths());
+        dryRun = global.isDryRun();
+        queueReverts = global.isQueueReverts();
+        lockSettings = global.getLock() != null ? global.getLock().toSettings(global.getLockOwner()) : null;
+        rateLimit = global.getRateLimit() != null ? global.getRateLimit().toLimit() : RevertRateLimit.NONE;
+        svnKitClientFactory = global.createSvnKitClientFactory();
+        circuitBreaker = global.getCircuitBreaker() != null
+                ? global.getCircuitBreaker().toSettings()
+                : SvnCircuitBreakerSettings.NONE;
+    }
+
+    static RevertPolicy resolve(final JenkinsGlue job, final SvnRevertDescriptorImpl global) {
+        return new RevertPolicy(job, global, global.getConfigVersion());
+    }
+
+    long getConfigVersion() {
+        return configVersion;
+    }
+
+    boolean isRevertMultipleCommits() {
+        return revertMultipleCommits;
+    }
+
+    boolean isRevertAcrossBuilds() {
+        return revertAcrossBuilds;
+    }
+
+    int getMaxBuilds() {
+        return maxBuilds;
+    }
+
+    int getMaxCommits() {
+        return maxCommits;
+    }
+
+    int getMaxAffectedFiles() {
+        return maxAffectedFiles;
+    }
+
+    RevertSizeLimit getRevertSizeLimit() {
+        if (maxAffectedFiles == Integer.MAX_VALUE && maxRevertBytes == Long.MAX_VALUE) {
+            return RevertSizeLimit.NONE;
+        }
+        return new RevertSizeLimit(maxAffectedFiles, maxRevertBytes);
+    }
+
+    RevertSettings getRevertSettings(final RevertJournal journal) {
+        return new RevertSettings(templates, getRevertSizeLimit(), journal, lockSettings, rateLimit, circuitBreaker,
+                false);
+    }
+
+    boolean revertsOn(final Result result) {
+        return revertOnResults.contains(result);
+    }
+
+    boolean revertsOnlyOnUnstable() {
+        return revertOnResults.equals(Collections.singleton(Result.UNSTABLE));
+    }
+
+    List<String> getSkipMarkers() {
+        return skipMarkers;
+    }
+
+    boolean isBisectMultipleCommits() {
+        return bisectMultipleCommits;
+    }
+
+    boolean isRevertOnlyRelatedCommits() {
+        return revertOnlyRelatedCommits;
+    }
+
+    boolean isSkipFlakyTests() {
+        return skipFlakyTests;
+    }
+
+    double getFlakinessThreshold() {
+        return flakinessThreshold;
+    }
+
+    int getMailDigestMinutes() {
+        return mailDigestMinutes;
+    }
+
+    long getDeferredDecisionTimeoutMillis() {
+        return deferredDecisionTimeoutMillis;
+    }
+
+    NotificationTemplates getTemplates() {
+        return templates;
+    }
+
+    PathRules getPathRules() {
+        return pathRules;
+    }
+
+    boolean isDryRun() {
+        return dryRun;
+    }
+
+    boolean isQueueReverts() {
+        return queueReverts;
+    }
+
+    RevertLockSettings getRevertLockSettings() {
+        return lockSettings;
+    }
+
+    RevertRateLimit getRevertRateLimit() {
+        return rateLimit;
+    }
+
+    SvnKitClientFactory getSvnKitClientFactory() {
+        return svnKitClientFactory;
+    }
+
+    SvnCircuitBreakerSettings getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    static int parseLimit(final String value, final int fallback) {
+        if (value == null) {
+            return fallback;
+        }
+        final Integer limit = Ints.tryParse(value.trim());
+        return limit == null || limit <= 0 ? fallback : limit;
+    }
+
+    static Set<Result> parseResults(final String value) {
+        final ImmutableSet.Builder<Result> results = ImmutableSet.builder();
+        for (final String name : value.trim().split("[,\\s]+")) {
+            final Result result = Result.fromString(name);
+            if (result.toString().equalsIgnoreCase(name)) {
+                results.add(result);
+            }
+        }
+        return results.build();
+    }
+
+    static List<String> parseMarkers(final String value) {
+        final ImmutableList.Builder<String> markers = ImmutableList.builder();
+        for (final String line : value.split("[\\r\\n]+")) {
+            final String marker = line.trim();
+            if (!marker.isEmpty()) {
+                markers.add(marker);
+            }
+        }
+        return markers.build();
+    }
+
+    private static String orDefault(final String value, final String defaultValue) {
+        return value == null || value.trim().isEmpty() ? defaultValue : value;
+    }
+
+}
@@ -0,0 +1,58 @@
+package jenkins.plugins.svn_revert;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+public final class RevertPreview {
+
+    private final List<String> files;
+    private final List<String> conflicts;
+
+    RevertPreview(final List<String> files, final List<String> conflicts) {
+        this.files = files;
+        this.conflicts = conflicts;
+    }
+
+    static RevertPreview of(final MergeEventCollector collector) {
+        return new RevertPreview(pathsOf(collector.getTouchedFiles()),
+                pathsOf(collector.getConflictedFiles()));
+    }
+
+    static RevertPreview combine(final List<RevertPreview> previews) {
+        final List<String> files = Lists.newArrayList();
+        final List<String> conflicts = Lists.newArrayList();
+        for (final RevertPreview preview : previews) {
+            files.addAll(preview.files);
+            conflicts.addAll(preview.conflicts);
+        }
+        return new RevertPreview(files, conflicts);
+    }
+
+    public List<String> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    public List<String> getConflicts() {
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+
+    public boolean isEmpty() {
+        return files.isEmpty();
+    }
+
+    private static List<String> pathsOf(final List<File> files) {
+        final List<String> paths = Lists.newArrayList();
+        for (final File file : files) {
+            paths.add(file.getPath());
+        }
+        return paths;
+    }
+
+}
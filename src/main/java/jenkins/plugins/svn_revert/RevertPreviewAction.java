@@ -0,0 +1,35 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.InvisibleAction;
+
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class RevertPreviewAction extends InvisibleAction {
+
+    private final Map<String, RevertPreview> previews = Maps.newLinkedHashMap();
+
+    static String keyFor(final Revisions revisions, final List<Module> modules) {
+        final List<String> urls = Lists.newArrayList();
+        for (final Module module : modules) {
+            urls.add(module.getURL());
+        }
+        return revisions.getAllInOrderAsString() + "@" + urls;
+    }
+
+    synchronized RevertPreview get(final String key) {
+        return previews.get(key);
+    }
+
+    synchronized void put(final String key, final RevertPreview preview) {
+        previews.put(key, preview);
+    }
+
+    public synchronized List<RevertPreview> getPreviews() {
+        return Lists.newArrayList(previews.values());
+    }
+
+}
@@ -0,0 +1,103 @@
+package jenkins.plugins.svn_revert;
+
+import java.io.File;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.SVNEvent;
+import org.tmatesoft.svn.core.wc.SVNEventAction;
+
+class RevertProgress {
+
+    static final RevertProgress NONE = new RevertProgress(null, null, 0);
+
+    private final Messenger messenger;
+    private final ScheduledExecutorService scheduler;
+    private final long intervalMillis;
+    private ScheduledFuture<?> reporter;
+    private int filesMerged;
+    private int filesCommitted;
+    private long bytesSent;
+    private String lastPath = "";
+
+    RevertProgress(final Messenger messenger, final ScheduledExecutorService scheduler, final long intervalMillis) {
+        this.messenger = messenger;
+        this.scheduler = scheduler;
+        this.intervalMillis = intervalMillis;
+    }
+
+    boolean isEnabled() {
+        return messenger != null && intervalMillis > 0;
+    }
+
+    ISVNEventHandler around(final ISVNEventHandler delegate) {
+        if (!isEnabled()) {
+            return delegate;
+        }
+        return new ISVNEventHandler() {
+            @Override
+            public void handleEvent(final SVNEvent event, final double progress) throws SVNException {
+                if (delegate != null) {
+                    delegate.handleEvent(event, progress);
+                }
+                count(event);
+            }
+
+            @Override
+            public void checkCancelled() throws SVNCancelException {
+                if (delegate != null) {
+                    delegate.checkCancelled();
+                }
+            }
+        };
+    }
+
+    synchronized void start() {
+        if (!isEnabled() || reporter != null) {
+            return;
+        }
+        reporter = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                report();
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    synchronized void stop() {
+        if (reporter != null) {
+            reporter.cancel(false);
+            reporter = null;
+        }
+    }
+
+    synchronized void count(final SVNEvent event) {
+        final SVNEventAction action = event.getAction();
+        final File file = event.getFile();
+        if (action == SVNEventAction.UPDATE_ADD || action == SVNEventAction.UPDATE_DELETE
+                || action == SVNEventAction.UPDATE_UPDATE || action == SVNEventAction.UPDATE_REPLACE) {
+            filesMerged++;
+        } else if (action == SVNEventAction.COMMIT_ADDED || action == SVNEventAction.COMMIT_DELETED
+                || action == SVNEventAction.COMMIT_MODIFIED || action == SVNEventAction.COMMIT_REPLACED) {
+            filesCommitted++;
+        } else if (action == SVNEventAction.COMMIT_DELTA_SENT && file != null) {
+            bytesSent += file.length();
+        } else {
+            return;
+        }
+        if (file != null) {
+            lastPath = file.getPath();
+        }
+    }
+
+    private synchronized void report() {
+        if (reporter != null) {
+            messenger.informProgress(filesMerged, filesCommitted, bytesSent, lastPath);
+        }
+    }
+
+}
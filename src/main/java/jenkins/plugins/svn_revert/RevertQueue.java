@@ -0,0 +1,280 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.XmlFile;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.BuildListener;
+import hudson.model.Run;
+import hudson.scm.SCM;
+import hudson.scm.SubversionSCM;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.model.Jenkins;
+
+import org.tmatesoft.svn.core.SVNException;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+class RevertQueue {
+
+    static final int WORKERS = Integer.getInteger(RevertQueue.class.getName() + ".workers", 2);
+    private static final String FILE_NAME = RevertQueue.class.getName() + ".xml";
+    private static final long THROUGHPUT_WINDOW_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final Logger LOGGER = Logger.getLogger(RevertQueue.class.getName());
+    private static RevertQueue instance;
+
+    private final Executor executor;
+    private final Runner runner;
+    private final XmlFile file;
+    private final List<Queued> queued = Lists.newArrayList();
+    private final Set<String> busyRepositories = Sets.newHashSet();
+    private final Deque<Long> completions = Lists.newLinkedList();
+    private long completed;
+    private long totalWaitMillis;
+    private long maxWaitMillis;
+
+    RevertQueue(final Executor executor, final Runner runner, final XmlFile file) {
+        this.executor = executor;
+        this.runner = runner;
+        this.file = file;
+    }
+
+    static synchronized RevertQueue get() {
+        if (instance == null) {
+            instance = new RevertQueue(Executors.newFixedThreadPool(WORKERS,
+                    new NamingThreadFactory(new DaemonThreadFactory(), "SVN revert queue")), new BuildRunner(),
+                    new XmlFile(Jenkins.XSTREAM, new File(Jenkins.get().getRootDir(), FILE_NAME)));
+            instance.load();
+        }
+        return instance;
+    }
+
+    void enqueue(final AbstractBuild<?, ?> build, final BuildListener listener) throws InterruptedException {
+        build.addAction(new QueuedRevertAction());
+        enqueue(build.getExternalizableId(), repositoryOf(build, listener), System.currentTimeMillis());
+    }
+
+    synchronized void enqueue(final String buildId, final String repository, final long now) {
+        queued.add(new Queued(buildId, repository, now));
+        save();
+    }
+
+    synchronized void ready(final String buildId) {
+        for (final Queued entry : queued) {
+            if (entry.buildId.equals(buildId)) {
+                entry.ready = true;
+            }
+        }
+        dispatch();
+    }
+
+    synchronized int getLength() {
+        return queued.size();
+    }
+
+    synchronized List<Queued> getQueued() {
+        return Lists.newArrayList(queued);
+    }
+
+    synchronized long getCompleted() {
+        return completed;
+    }
+
+    synchronized long getAverageWaitMillis() {
+        return completed == 0 ? 0 : totalWaitMillis / completed;
+    }
+
+    synchronized long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    synchronized int getThroughputPerHour(final long now) {
+        removeOldCompletions(now);
+        return completions.size();
+    }
+
+    private void dispatch() {
+        final Set<String> blocked = Sets.newHashSet(busyRepositories);
+        for (final Queued entry : queued) {
+            if (entry.started || blocked.contains(entry.repository)) {
+                continue;
+            }
+            blocked.add(entry.repository);
+            if (entry.ready) {
+                entry.started = true;
+                busyRepositories.add(entry.repository);
+                executor.execute(new Worker(entry));
+            }
+        }
+    }
+
+    private synchronized void finished(final Queued entry, final long started, final long now) {
+        queued.remove(entry);
+        busyRepositories.remove(entry.repository);
+        final long waitMillis = Math.max(0, started - entry.enqueuedAt);
+        completed++;
+        totalWaitMillis += waitMillis;
+        maxWaitMillis = Math.max(maxWaitMillis, waitMillis);
+        completions.addLast(now);
+        removeOldCompletions(now);
+        save();
+        dispatch();
+    }
+
+    private void removeOldCompletions(final long now) {
+        while (!completions.isEmpty() && completions.peekFirst() <= now - THROUGHPUT_WINDOW_MILLIS) {
+            completions.removeFirst();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void load() {
+        if (file == null || !file.exists()) {
+            return;
+        }
+        try {
+            for (final Queued entry : (List<Queued>) file.read()) {
+                entry.ready = true;
+                queued.add(entry);
+            }
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load queued reverts from " + file, e);
+        }
+        dispatch();
+    }
+
+    private void save() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.write(Lists.newArrayList(queued));
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not save queued reverts to " + file, e);
+        }
+    }
+
+    private static String repositoryOf(final AbstractBuild<?, ?> build, final BuildListener listener)
+            throws InterruptedException {
+        final AbstractProject<?, ?> rootProject = build.getProject().getRootProject();
+        final SCM scm = rootProject.getScm();
+        if (scm instanceof SubversionSCM) {
+            try {
+                final List<Module> modules = new ModuleFinder(build, listener).getModules((SubversionSCM) scm);
+                if (!modules.isEmpty()) {
+                    return modules.get(0).getRepositoryRoot(rootProject);
+                }
+            } catch (final IOException e) {
+                LOGGER.log(Level.FINE, "Could not find repository of " + build, e);
+            } catch (final SVNException e) {
+                LOGGER.log(Level.FINE, "Could not find repository of " + build, e);
+            }
+        }
+        return rootProject.getFullName();
+    }
+
+    interface Runner {
+
+        void run(String buildId) throws Exception;
+
+    }
+
+    private final class Worker implements Runnable {
+
+        private final Queued entry;
+
+        Worker(final Queued entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void run() {
+            final long started = System.currentTimeMillis();
+            try {
+                runner.run(entry.buildId);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (final Exception e) {
+                LOGGER.log(Level.WARNING, "Queued revert failed for " + entry.buildId, e);
+            } finally {
+                finished(entry, started, System.currentTimeMillis());
+            }
+        }
+
+    }
+
+    private static final class BuildRunner implements Runner {
+
+        @Override
+        public void run(final String buildId) throws Exception {
+            final Run<?, ?> run = Run.fromExternalizableId(buildId);
+            if (!(run instanceof AbstractBuild)) {
+                return;
+            }
+            final AbstractBuild<?, ?> build = (AbstractBuild<?, ?>) run;
+            final QueuedRevertAction action = build.getAction(QueuedRevertAction.class);
+            update(build, action, QueuedRevertAction.State.RUNNING);
+            boolean successful = false;
+            try {
+                successful = DeferredRevertListener.decideOffExecutor(build);
+            } finally {
+                update(build, action, successful ? QueuedRevertAction.State.FINISHED : QueuedRevertAction.State.FAILED);
+            }
+        }
+
+        private static void update(final AbstractBuild<?, ?> build, final QueuedRevertAction action,
+                final QueuedRevertAction.State state) throws IOException {
+            if (action != null) {
+                action.setState(state);
+                build.save();
+            }
+        }
+
+    }
+
+    public static final class Queued {
+
+        private final String buildId;
+        private final String repository;
+        private final long enqueuedAt;
+        private transient boolean ready;
+        private transient boolean started;
+
+        Queued(final String buildId, final String repository, final long enqueuedAt) {
+            this.buildId = buildId;
+            this.repository = repository;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        public String getBuildId() {
+            return buildId;
+        }
+
+        public String getRepository() {
+            return repository;
+        }
+
+        public long getEnqueuedAt() {
+            return enqueuedAt;
+        }
+
+        public boolean isStarted() {
+            return started;
+        }
+
+    }
+
+}
@@ -0,0 +1,74 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.ManagementLink;
+
+import java.util.List;
+
+@Extension
+public class RevertQueueLink extends ManagementLink {
+
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void resumeQueuedReverts() {
+        RevertQueue.get();
+    }
+
+    @Override
+    public String getIconFileName() {
+        return "symbol-list";
+    }
+
+    @Override
+    public String getDisplayName() {
+        return "SVN Revert Queue";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Reverts waiting to run after their builds, and how long they waited.";
+    }
+
+    @Override
+    public String getUrlName() {
+        return "svn-revert-queue";
+    }
+
+    public int getLength() {
+        return RevertQueue.get().getLength();
+    }
+
+    public long getAverageWaitSeconds() {
+        return RevertQueue.get().getAverageWaitMillis() / 1000;
+    }
+
+    public long getMaxWaitSeconds() {
+        return RevertQueue.get().getMaxWaitMillis() / 1000;
+    }
+
+    public int getThroughputPerHour() {
+        return RevertQueue.get().getThroughputPerHour(System.currentTimeMillis());
+    }
+
+    public long getCompleted() {
+        return RevertQueue.get().getCompleted();
+    }
+
+    public List<RevertQueue.Queued> getQueued() {
+        return RevertQueue.get().getQueued();
+    }
+
+    public List<RevertRateLimiter.Budget> getBudgets() {
+        return RevertRateLimiter.get().getBudgets();
+    }
+
+    public List<SvnCircuitBreaker.Circuit> getCircuits() {
+        return SvnCircuitBreaker.get().getCircuits();
+    }
+
+    public List<NetworkUsage> getNetworkUsage() {
+        return NetworkMetrics.get().getUsages();
+    }
+
+}
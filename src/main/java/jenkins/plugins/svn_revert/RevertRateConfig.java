@@ -0,0 +1,55 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+public class RevertRateConfig extends AbstractDescribableImpl<RevertRateConfig> {
+
+    static final int DEFAULT_MAX_REVERTS_PER_HOUR = 6;
+    static final int DEFAULT_BURST = 3;
+
+    private final int maxRevertsPerHour;
+    private final int burst;
+
+    @DataBoundConstructor
+    public RevertRateConfig(final int maxRevertsPerHour, final int burst) {
+        this.maxRevertsPerHour = maxRevertsPerHour;
+        this.burst = burst;
+    }
+
+    public int getMaxRevertsPerHour() {
+        return maxRevertsPerHour;
+    }
+
+    public int getBurst() {
+        return burst;
+    }
+
+    RevertRateLimit toLimit() {
+        return new RevertRateLimit(RevertRateLimiter.get(), Math.max(1, maxRevertsPerHour), Math.max(1, burst));
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<RevertRateConfig> {
+
+        @Override
+        public String getDisplayName() {
+            return "Revert rate limit";
+        }
+
+        public FormValidation doCheckMaxRevertsPerHour(@QueryParameter final String value) {
+            return FormValidation.validatePositiveInteger(value);
+        }
+
+        public FormValidation doCheckBurst(@QueryParameter final String value) {
+            return FormValidation.validatePositiveInteger(value);
+        }
+
+    }
+
+}
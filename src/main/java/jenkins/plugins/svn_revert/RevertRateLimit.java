@@ -0,0 +1,33 @@
+package jenkins.plugins.svn_revert;
+
+final class RevertRateLimit {
+
+    static final RevertRateLimit NONE = new RevertRateLimit(null, 0, 0);
+
+    private final RevertRateLimiter limiter;
+    private final int revertsPerHour;
+    private final int burst;
+
+    RevertRateLimit(final RevertRateLimiter limiter, final int revertsPerHour, final int burst) {
+        this.limiter = limiter;
+        this.revertsPerHour = revertsPerHour;
+        this.burst = burst;
+    }
+
+    boolean isLimited() {
+        return limiter != null;
+    }
+
+    int getRevertsPerHour() {
+        return revertsPerHour;
+    }
+
+    int getBurst() {
+        return burst;
+    }
+
+    boolean tryAcquire(final String repository) {
+        return !isLimited() || limiter.tryAcquire(repository, revertsPerHour, burst);
+    }
+
+}
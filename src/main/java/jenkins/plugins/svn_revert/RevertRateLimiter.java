@@ -0,0 +1,97 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+class RevertRateLimiter {
+
+    private static final long NANOS_PER_HOUR = TimeUnit.HOURS.toNanos(1);
+    private static final RevertRateLimiter INSTANCE = new RevertRateLimiter(Ticker.systemTicker());
+
+    private final Ticker ticker;
+    private final Map<String, Budget> budgets = Maps.newTreeMap();
+
+    RevertRateLimiter(final Ticker ticker) {
+        this.ticker = ticker;
+    }
+
+    static RevertRateLimiter get() {
+        return INSTANCE;
+    }
+
+    synchronized boolean tryAcquire(final String repository, final int revertsPerHour, final int burst) {
+        final long now = ticker.read();
+        Budget budget = budgets.get(repository);
+        if (budget == null) {
+            budget = new Budget(repository, burst, now);
+            budgets.put(repository, budget);
+        }
+        budget.refill(now, revertsPerHour, burst);
+        if (budget.tokens < 1) {
+            budget.exhausted++;
+            return false;
+        }
+        budget.tokens--;
+        budget.granted++;
+        return true;
+    }
+
+    synchronized List<Budget> getBudgets() {
+        final List<Budget> copies = Lists.newArrayList();
+        for (final Budget budget : budgets.values()) {
+            copies.add(budget.copy());
+        }
+        return copies;
+    }
+
+    public static final class Budget {
+
+        private final String repository;
+        private double tokens;
+        private long refilledAt;
+        private long granted;
+        private long exhausted;
+
+        Budget(final String repository, final double tokens, final long refilledAt) {
+            this.repository = repository;
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+
+        private void refill(final long now, final int revertsPerHour, final int burst) {
+            final long elapsed = Math.max(0, now - refilledAt);
+            tokens = Math.min(burst, tokens + (double) elapsed * revertsPerHour / NANOS_PER_HOUR);
+            refilledAt = now;
+        }
+
+        private Budget copy() {
+            final Budget copy = new Budget(repository, tokens, refilledAt);
+            copy.granted = granted;
+            copy.exhausted = exhausted;
+            return copy;
+        }
+
+        public String getRepository() {
+            return repository;
+        }
+
+        public int getTokens() {
+            return (int) tokens;
+        }
+
+        public long getGranted() {
+            return granted;
+        }
+
+        public long getExhausted() {
+            return exhausted;
+        }
+
+    }
+
+}
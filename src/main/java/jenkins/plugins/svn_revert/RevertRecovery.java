@@ -0,0 +1,118 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.init.InitMilestone;
+import hudson.init.Initializer;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.BuildListener;
+import hudson.model.Run;
+import hudson.scm.SCM;
+import hudson.scm.SubversionSCM;
+import hudson.slaves.WorkspaceList;
+
+import java.io.File;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+
+import org.tmatesoft.svn.core.SVNException;
+
+public final class RevertRecovery {
+
+    private static final Logger LOGGER = Logger.getLogger(RevertRecovery.class.getName());
+
+    private RevertRecovery() {
+    }
+
+    @Initializer(after = InitMilestone.JOB_LOADED)
+    public static void recoverInterruptedReverts() {
+        final RevertJournal journal = RevertJournal.get();
+        if (journal.getEntries().isEmpty()) {
+            return;
+        }
+        Timer.get().submit(new Runnable() {
+            @Override
+            public void run() {
+                for (final RevertJournal.Entry entry : journal.getEntries()) {
+                    try {
+                        recover(journal, entry, Jenkins.get()
+                                .getDescriptorByType(JenkinsGlue.SvnRevertDescriptorImpl.class)
+                                .createSvnKitClientFactory());
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (final Exception e) {
+                        LOGGER.log(Level.WARNING, "Could not recover revert of " + entry.getBuildId(), e);
+                    }
+                }
+            }
+        });
+    }
+
+    private static void recover(final RevertJournal journal, final RevertJournal.Entry entry,
+            final SvnKitClientFactory svnFactory) throws Exception {
+        final Run<?, ?> run = Run.fromExternalizableId(entry.getBuildId());
+        if (!(run instanceof AbstractBuild)) {
+            journal.remove(entry.getId());
+            return;
+        }
+        final AbstractBuild<?, ?> build = (AbstractBuild<?, ?>) run;
+        final AbstractProject<?, ?> rootProject = build.getProject().getRootProject();
+        final SCM scm = rootProject.getScm();
+        final BuildListener listener = DeferredRevertListener.openLog(build);
+        final WorkspaceList.Lease lease = DeferredRevertListener.acquireWorkspace(build);
+        try {
+            final Messenger messenger = new Messenger(listener.getLogger());
+            if (entry.getPhase() != RevertJournal.Phase.COMMITTED) {
+                if (!(scm instanceof SubversionSCM)) {
+                    journal.remove(entry.getId());
+                    return;
+                }
+                if (!finish(journal, entry, svnFactory.create(rootProject, (SubversionSCM) scm), messenger)) {
+                    return;
+                }
+            }
+            final JenkinsGlue glue = build.getProject().getPublishersList().get(JenkinsGlue.class);
+            if (glue == null || !glue.notifyReverted(build, listener)) {
+                journal.notified(entry.getBuildId());
+            }
+        } finally {
+            if (lease != null) {
+                lease.release();
+            }
+            listener.getLogger().close();
+        }
+    }
+
+    /**
+     * @return true if the revert is committed and committers still need to be notified */
+    static boolean finish(final RevertJournal journal, final RevertJournal.Entry entry,
+            final SvnKitClient client, final Messenger messenger) throws SVNException {
+        if (client.hasCommitted(entry.getCommitMessage(), entry.getModuleDirs())) {
+            journal.committed(entry.getId());
+            messenger.informRecoveredCommitFound();
+            return true;
+        }
+        if (entry.getPhase() == RevertJournal.Phase.MERGED && commit(client, entry)) {
+            journal.committed(entry.getId());
+            messenger.informRecoveredCommit();
+            return true;
+        }
+        final int paths = client.rollback(entry.getSubtrees(), entry.getFiles());
+        journal.remove(entry.getId());
+        messenger.informRecoveredRollback(paths);
+        return false;
+    }
+
+    private static boolean commit(final SvnKitClient client, final RevertJournal.Entry entry) {
+        try {
+            return client.commit(entry.getCommitMessage(), entry.getModuleDirs().toArray(new File[0]));
+        } catch (final Exception e) {
+            LOGGER.log(Level.INFO, "Could not finish commit of revert of " + entry.getBuildId(), e);
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,88 @@
+package jenkins.plugins.svn_revert;
+
+final class RevertSettings {
+
+    private final NotificationTemplates templates;
+    private final RevertSizeLimit sizeLimit;
+    private final RevertJournal journal;
+    private final RevertLockSettings lockSettings;
+    private final RevertRateLimit rateLimit;
+    private final SvnCircuitBreakerSettings circuitBreaker;
+    private final boolean updateToHead;
+
+    RevertSettings(final NotificationTemplates templates, final RevertSizeLimit sizeLimit,
+            final RevertJournal journal, final RevertLockSettings lockSettings, final RevertRateLimit rateLimit,
+            final SvnCircuitBreakerSettings circuitBreaker, final boolean updateToHead) {
+        this.templates = templates;
+        this.sizeLimit = sizeLimit;
+        this.journal = journal;
+        this.lockSettings = lockSettings;
+        this.rateLimit = rateLimit;
+        this.circuitBreaker = circuitBreaker;
+        this.updateToHead = updateToHead;
+    }
+
+    static RevertSettings of(final NotificationTemplates templates) {
+        return new RevertSettings(templates, RevertSizeLimit.NONE, new RevertJournal(null), null,
+                RevertRateLimit.NONE, SvnCircuitBreakerSettings.NONE, false);
+    }
+
+    RevertSettings withSizeLimit(final RevertSizeLimit sizeLimit) {
+        return new RevertSettings(templates, sizeLimit, journal, lockSettings, rateLimit, circuitBreaker,
+                updateToHead);
+    }
+
+    RevertSettings withJournal(final RevertJournal journal) {
+        return new RevertSettings(templates, sizeLimit, journal, lockSettings, rateLimit, circuitBreaker,
+                updateToHead);
+    }
+
+    RevertSettings withLockSettings(final RevertLockSettings lockSettings) {
+        return new RevertSettings(templates, sizeLimit, journal, lockSettings, rateLimit, circuitBreaker,
+                updateToHead);
+    }
+
+    RevertSettings withRateLimit(final RevertRateLimit rateLimit) {
+        return new RevertSettings(templates, sizeLimit, journal, lockSettings, rateLimit, circuitBreaker,
+                updateToHead);
+    }
+
+    RevertSettings withCircuitBreaker(final SvnCircuitBreakerSettings circuitBreaker) {
+        return new RevertSettings(templates, sizeLimit, journal, lockSettings, rateLimit, circuitBreaker,
+                updateToHead);
+    }
+
+    RevertSettings withUpdateToHead(final boolean updateToHead) {
+        return new RevertSettings(templates, sizeLimit, journal, lockSettings, rateLimit, circuitBreaker,
+                updateToHead);
+    }
+
+    NotificationTemplates getTemplates() {
+        return templates;
+    }
+
+    RevertSizeLimit getSizeLimit() {
+        return sizeLimit;
+    }
+
+    RevertJournal getJournal() {
+        return journal;
+    }
+
+    RevertLockSettings getLockSettings() {
+        return lockSettings;
+    }
+
+    RevertRateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    SvnCircuitBreakerSettings getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    boolean isUpdateToHead() {
+        return updateToHead;
+    }
+
+}
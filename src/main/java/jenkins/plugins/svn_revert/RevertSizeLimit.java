@@ -0,0 +1,23 @@
+package jenkins.plugins.svn_revert;
+
+final class RevertSizeLimit {
+
+    static final RevertSizeLimit NONE = new RevertSizeLimit(Integer.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int maxPaths;
+    private final long maxBytes;
+
+    RevertSizeLimit(final int maxPaths, final long maxBytes) {
+        this.maxPaths = maxPaths;
+        this.maxBytes = maxBytes;
+    }
+
+    boolean isLimited() {
+        return maxPaths != Integer.MAX_VALUE || maxBytes != Long.MAX_VALUE;
+    }
+
+    boolean isExceededBy(final int paths, final long bytes) {
+        return paths > maxPaths || bytes > maxBytes;
+    }
+
+}
@@ -45,7 +45,7 @@ final class Revisions {
         return StringUtils.join(getAllInOrder(), ", ");
     }
 
-    private List<Integer> getAllInOrder() {
+    List<Integer> getAllInOrder() {
         return listOfRevisions;
     }
 
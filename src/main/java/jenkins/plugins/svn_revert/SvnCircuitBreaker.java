@@ -0,0 +1,149 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.util.Timer;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+class SvnCircuitBreaker {
+
+    private static final Logger LOGGER = Logger.getLogger(SvnCircuitBreaker.class.getName());
+    private static SvnCircuitBreaker instance;
+
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Circuit> circuits = Maps.newTreeMap();
+
+    interface Probe {
+        boolean isHealthy();
+    }
+
+    SvnCircuitBreaker(final ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    static synchronized SvnCircuitBreaker get() {
+        if (instance == null) {
+            instance = new SvnCircuitBreaker(Timer.get());
+        }
+        return instance;
+    }
+
+    synchronized boolean allows(final String repository) {
+        final Circuit circuit = circuits.get(repository);
+        if (circuit == null || !circuit.open) {
+            return true;
+        }
+        circuit.skipped++;
+        return false;
+    }
+
+    synchronized void succeeded(final String repository) {
+        final Circuit circuit = circuits.get(repository);
+        if (circuit != null) {
+            circuit.failures = 0;
+            circuit.open = false;
+        }
+    }
+
+    synchronized void failed(final String repository, final int threshold, final long coolDownMillis,
+            final Probe probe) {
+        Circuit circuit = circuits.get(repository);
+        if (circuit == null) {
+            circuit = new Circuit(repository);
+            circuits.put(repository, circuit);
+        }
+        circuit.failures++;
+        if (!circuit.open && circuit.failures >= threshold) {
+            circuit.open = true;
+            circuit.opened++;
+            LOGGER.log(Level.WARNING, "Skipping reverts in {0} after {1} consecutive failures",
+                    new Object[] { repository, circuit.failures });
+            scheduleProbe(repository, coolDownMillis, probe);
+        }
+    }
+
+    synchronized List<Circuit> getCircuits() {
+        final List<Circuit> copies = Lists.newArrayList();
+        for (final Circuit circuit : circuits.values()) {
+            copies.add(circuit.copy());
+        }
+        return copies;
+    }
+
+    private void scheduleProbe(final String repository, final long coolDownMillis, final Probe probe) {
+        scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                probe(repository, coolDownMillis, probe);
+            }
+        }, coolDownMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void probe(final String repository, final long coolDownMillis, final Probe probe) {
+        final boolean healthy = probe.isHealthy();
+        synchronized (this) {
+            final Circuit circuit = circuits.get(repository);
+            if (circuit == null || !circuit.open) {
+                return;
+            }
+            if (healthy) {
+                LOGGER.log(Level.INFO, "Reverting in {0} again, it responds", repository);
+                circuit.failures = 0;
+                circuit.open = false;
+            } else {
+                scheduleProbe(repository, coolDownMillis, probe);
+            }
+        }
+    }
+
+    public static final class Circuit {
+
+        private final String repository;
+        private int failures;
+        private boolean open;
+        private long opened;
+        private long skipped;
+
+        Circuit(final String repository) {
+            this.repository = repository;
+        }
+
+        private Circuit copy() {
+            final Circuit copy = new Circuit(repository);
+            copy.failures = failures;
+            copy.open = open;
+            copy.opened = opened;
+            copy.skipped = skipped;
+            return copy;
+        }
+
+        public String getRepository() {
+            return repository;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public boolean isOpen() {
+            return open;
+        }
+
+        public long getOpened() {
+            return opened;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+    }
+
+}
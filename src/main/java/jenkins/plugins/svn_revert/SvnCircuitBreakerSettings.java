@@ -0,0 +1,38 @@
+package jenkins.plugins.svn_revert;
+
+final class SvnCircuitBreakerSettings {
+
+    static final SvnCircuitBreakerSettings NONE = new SvnCircuitBreakerSettings(null, 0, 0);
+
+    private final SvnCircuitBreaker breaker;
+    private final int failureThreshold;
+    private final long coolDownMillis;
+
+    SvnCircuitBreakerSettings(final SvnCircuitBreaker breaker, final int failureThreshold,
+            final long coolDownMillis) {
+        this.breaker = breaker;
+        this.failureThreshold = failureThreshold;
+        this.coolDownMillis = coolDownMillis;
+    }
+
+    boolean isEnabled() {
+        return breaker != null;
+    }
+
+    boolean allows(final String repository) {
+        return !isEnabled() || breaker.allows(repository);
+    }
+
+    void succeeded(final String repository) {
+        if (isEnabled()) {
+            breaker.succeeded(repository);
+        }
+    }
+
+    void failed(final String repository, final SvnCircuitBreaker.Probe probe) {
+        if (isEnabled()) {
+            breaker.failed(repository, failureThreshold, coolDownMillis, probe);
+        }
+    }
+
+}
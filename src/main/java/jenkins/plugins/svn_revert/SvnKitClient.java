@@ -1,49 +1,361 @@
 package jenkins.plugins.svn_revert;
 
+import hudson.Util;
+
 import java.io.File;
 import java.io.IOException;
-import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+
+import jenkins.util.Timer;
 
+import org.tmatesoft.svn.core.SVNCancelException;
 import org.tmatesoft.svn.core.SVNCommitInfo;
 import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNErrorCode;
 import org.tmatesoft.svn.core.SVNErrorMessage;
+import org.tmatesoft.svn.core.ISVNLogEntryHandler;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNLogEntry;
 import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepository;
 import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNCommitClient;
 import org.tmatesoft.svn.core.wc.SVNCommitPacket;
 import org.tmatesoft.svn.core.wc.SVNDiffClient;
+import org.tmatesoft.svn.core.wc.SVNInfo;
 import org.tmatesoft.svn.core.wc.SVNRevision;
 import org.tmatesoft.svn.core.wc.SVNRevisionRange;
+import org.tmatesoft.svn.core.wc.SVNStatus;
+import org.tmatesoft.svn.core.wc.SVNStatusClient;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+import org.tmatesoft.svn.util.SVNDebugLog;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 class SvnKitClient {
 
     private final SVNClientManager clientManager;
+    private final RevertCanceller canceller;
+    private final MergeEventCollector mergedChanges;
+    private final List<File> mergedDirectories = Lists.newArrayList();
+    private final long progressIntervalMillis;
+    private final NetworkAccounting accounting;
+    private RevertProgress progress = RevertProgress.NONE;
 
     SvnKitClient(final SVNClientManager clientManager) {
+        this(clientManager, RevertCanceller.NONE);
+    }
+
+    SvnKitClient(final SVNClientManager clientManager, final RevertCanceller canceller) {
+        this(clientManager, canceller, 0);
+    }
+
+    SvnKitClient(final SVNClientManager clientManager, final RevertCanceller canceller,
+            final long progressIntervalMillis) {
+        this(clientManager, canceller, progressIntervalMillis,
+                new NetworkAccounting(SVNDebugLog.getDefaultLog(), Ticker.systemTicker()));
+    }
+
+    SvnKitClient(final SVNClientManager clientManager, final RevertCanceller canceller,
+            final long progressIntervalMillis, final NetworkAccounting accounting) {
         this.clientManager = clientManager;
+        this.accounting = accounting;
+        this.canceller = canceller;
+        this.progressIntervalMillis = progressIntervalMillis;
+        mergedChanges = new MergeEventCollector(canceller);
+    }
+
+    void reportProgressTo(final Messenger messenger) {
+        progress = new RevertProgress(messenger, Timer.get(), progressIntervalMillis);
+    }
+
+    List<NetworkUsage> getNetworkUsage() {
+        return accounting.getUsages();
+    }
+
+    void recordMergedPathsTo(final MergeEventCollector.Listener listener) {
+        mergedChanges.setListener(listener);
     }
 
     void reverseMerge(final Revisions revisions, final SVNURL svnurl, final File moduleDirectory)
     throws SVNException, IOException {
-        final SVNRevisionRange range = new SVNRevisionRange(
-                SVNRevision.create(revisions.getLast()),
-                SVNRevision.create(revisions.getBefore()));
         final SVNDiffClient diffClient = clientManager.getDiffClient();
+        addMergedDirectory(moduleDirectory);
+        diffClient.setEventHandler(progress.around(mergedChanges));
+        final long began = accounting.begin("merge");
+        progress.start();
+        try {
+            merge(diffClient, revisions, svnurl, moduleDirectory, false);
+        } finally {
+            progress.stop();
+            accounting.end(began);
+            diffClient.setEventHandler(null);
+        }
+    }
+
+    private void addMergedDirectory(final File moduleDirectory) throws IOException {
+        final File directory = moduleDirectory.getCanonicalFile();
+        if (!mergedDirectories.contains(directory)) {
+            mergedDirectories.add(directory);
+        }
+    }
+
+    int rollbackMergedChanges() throws SVNException {
+        final int paths = rollback(getMergedSubtrees(), getMergedFiles());
+        mergedChanges.clear();
+        mergedDirectories.clear();
+        return paths;
+    }
+
+    int rollback(final List<File> subtrees, final List<File> files) throws SVNException {
+        final SVNWCClient wcClient = clientManager.getWCClient();
+        final long began = accounting.begin("rollback");
+        try {
+            if (!subtrees.isEmpty()) {
+                wcClient.doRevert(subtrees.toArray(new File[0]), SVNDepth.INFINITY, null);
+                deleteUnversioned(subtrees);
+            }
+            if (!files.isEmpty()) {
+                wcClient.doRevert(files.toArray(new File[0]), SVNDepth.EMPTY, null);
+            }
+        } finally {
+            accounting.end(began);
+        }
+        return subtrees.size() + files.size();
+    }
+
+    private void deleteUnversioned(final List<File> paths) throws SVNException {
+        final SVNStatusClient statusClient = clientManager.getStatusClient();
+        for (final File path : paths) {
+            if (!path.exists()) {
+                continue;
+            }
+            final SVNStatus status = statusClient.doStatus(path, false);
+            if (status == null || status.getContentsStatus() != SVNStatusType.STATUS_UNVERSIONED) {
+                continue;
+            }
+            delete(path);
+        }
+    }
+
+    private static void delete(final File path) throws SVNException {
+        try {
+            Util.deleteRecursive(path);
+        } catch (final IOException e) {
+            throw new SVNException(SVNErrorMessage.create(SVNErrorCode.IO_ERROR, e.getMessage()), e);
+        }
+    }
+
+    void updateToHead(final File moduleDirectory) throws SVNException, IOException {
+        final File directory = moduleDirectory.getCanonicalFile();
+        final SVNWCClient wcClient = clientManager.getWCClient();
+        final SVNUpdateClient updateClient = clientManager.getUpdateClient();
+        updateClient.setEventHandler(canceller);
+        final long began = accounting.begin("update");
+        try {
+            wcClient.doCleanup(directory);
+            wcClient.doRevert(new File[] { directory }, SVNDepth.INFINITY, null);
+            updateClient.doUpdate(directory, SVNRevision.HEAD, SVNDepth.INFINITY, false, false);
+        } finally {
+            accounting.end(began);
+            updateClient.setEventHandler(null);
+        }
+    }
+
+    List<File> getMergedSubtrees() {
+        return mergedChanges.getAddedOrDeletedFiles();
+    }
+
+    List<File> getMergedFiles() {
+        final List<File> files = mergedChanges.getModifiedFiles();
+        for (final File directory : mergedDirectories) {
+            if (!files.contains(directory)) {
+                files.add(directory);
+            }
+        }
+        return files;
+    }
+
+    boolean hasMergedChanges() {
+        return !mergedDirectories.isEmpty();
+    }
+
+    RevertPreview previewReverseMerge(final Revisions revisions, final SVNURL svnurl,
+            final File moduleDirectory) throws SVNException, IOException {
+        final MergeEventCollector collector = new MergeEventCollector(canceller);
+        final SVNDiffClient diffClient = clientManager.getDiffClient();
+        diffClient.setEventHandler(collector);
+        final long began = accounting.begin("preview");
+        try {
+            merge(diffClient, revisions, svnurl, moduleDirectory, true);
+        } finally {
+            accounting.end(began);
+            diffClient.setEventHandler(null);
+        }
+        return RevertPreview.of(collector);
+    }
+
+    void summarizeReverseDiff(final Revisions revisions, final SVNURL svnurl, final DiffSummary summary)
+    throws SVNException {
+        final SVNDiffClient diffClient = clientManager.getDiffClient();
+        final long began = accounting.begin("diff summary");
+        final SVNRepository repository = clientManager.createRepository(svnurl, true);
+        diffClient.setEventHandler(canceller);
+        try {
+            for (final SVNRevisionRange range : getReverseRanges(revisions)) {
+                diffClient.doDiffStatus(svnurl, range.getEndRevision(), svnurl, range.getStartRevision(),
+                        SVNDepth.INFINITY, false, summary.forRange(repository,
+                                range.getEndRevision().getNumber(), range.getStartRevision().getNumber()));
+            }
+            summary.sumSizes();
+        } catch (final SVNCancelException e) {
+            if (!summary.isOverLimit()) {
+                throw e;
+            }
+        } finally {
+            diffClient.setEventHandler(null);
+            repository.closeSession();
+            accounting.end(began);
+        }
+    }
+
+    Map<Integer, String> getLogMessages(final Revisions revisions, final SVNURL svnurl) throws SVNException {
+        final Map<Integer, String> messages = Maps.newLinkedHashMap();
+        final long began = accounting.begin("log");
+        final SVNRepository repository = clientManager.createRepository(svnurl, true);
+        try {
+            final long youngest = repository.getLatestRevision();
+            if (revisions.getFirst() > youngest) {
+                return messages;
+            }
+            final SVNRevision last = SVNRevision.create(Math.min(revisions.getLast(), youngest));
+            clientManager.getLogClient().doLog(svnurl, new String[] { "" }, last,
+                    SVNRevision.create(revisions.getFirst()), last, false, false, 0, new ISVNLogEntryHandler() {
+                        @Override
+                        public void handleLogEntry(final SVNLogEntry logEntry) {
+                            messages.put((int) logEntry.getRevision(), logEntry.getMessage());
+                        }
+                    });
+        } finally {
+            repository.closeSession();
+            accounting.end(began);
+        }
+        return messages;
+    }
+
+    boolean hasCommitted(final String message, final List<File> moduleDirs) throws SVNException {
+        final long began = accounting.begin("log");
+        try {
+            for (final File moduleDir : moduleDirs) {
+                if (!moduleDir.isDirectory()) {
+                    continue;
+                }
+                final SVNInfo info = clientManager.getWCClient().doInfo(moduleDir, SVNRevision.WORKING);
+                if (info != null && hasCommitSince(info.getURL(), info.getRevision().getNumber(), message)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            accounting.end(began);
+        }
+    }
+
+    private boolean hasCommitSince(final SVNURL svnurl, final long revision, final String message)
+    throws SVNException {
+        final List<Long> found = Lists.newArrayList();
+        final SVNRepository repository = clientManager.createRepository(svnurl, true);
+        try {
+            if (revision > repository.getLatestRevision()) {
+                return false;
+            }
+            clientManager.getLogClient().doLog(svnurl, new String[] { "" }, SVNRevision.HEAD,
+                    SVNRevision.create(revision), SVNRevision.HEAD, false, false, 0, new ISVNLogEntryHandler() {
+                        @Override
+                        public void handleLogEntry(final SVNLogEntry logEntry) {
+                            if (message.equals(logEntry.getMessage())) {
+                                found.add(logEntry.getRevision());
+                            }
+                        }
+                    });
+        } finally {
+            repository.closeSession();
+        }
+        return !found.isEmpty();
+    }
+
+    RepositoryRevertLock createRevertLock(final String repositoryRoot, final RevertLockSettings settings)
+    throws SVNException {
+        return new RepositoryRevertLock(clientManager.createRepository(SVNURL.parseURIEncoded(repositoryRoot), false),
+                settings.getSentinelPath(), settings.getOwner(), settings.getLeaseMillis());
+    }
+
+    boolean isReachable(final String repositoryRoot) {
+        final long began = accounting.begin("health check");
+        try {
+            final SVNRepository repository =
+                    clientManager.createRepository(SVNURL.parseURIEncoded(repositoryRoot), false);
+            try {
+                repository.testConnection();
+                return true;
+            } finally {
+                repository.closeSession();
+            }
+        } catch (final SVNException e) {
+            return false;
+        } finally {
+            accounting.end(began);
+        }
+    }
+
+    private void merge(final SVNDiffClient diffClient, final Revisions revisions, final SVNURL svnurl,
+            final File moduleDirectory, final boolean dryRun) throws SVNException, IOException {
         diffClient.doMerge(svnurl, SVNRevision.create(revisions.getLast()),
-                Collections.singleton(range), moduleDirectory.getCanonicalFile(), SVNDepth.INFINITY,
-                true, false, false, false);
+                getReverseRanges(revisions), moduleDirectory.getCanonicalFile(), SVNDepth.INFINITY,
+                true, false, dryRun, false);
+    }
+
+    private List<SVNRevisionRange> getReverseRanges(final Revisions revisions) {
+        final List<SVNRevisionRange> ranges = Lists.newArrayList();
+        final List<Integer> inOrder = revisions.getAllInOrder();
+        int runEnd = inOrder.size() - 1;
+        for (int i = runEnd; i >= 0; i--) {
+            if (i == 0 || inOrder.get(i - 1) != inOrder.get(i) - 1) {
+                ranges.add(new SVNRevisionRange(
+                        SVNRevision.create(inOrder.get(runEnd)),
+                        SVNRevision.create(inOrder.get(i) - 1)));
+                runEnd = i - 1;
+            }
+        }
+        return ranges;
+    }
+
+    String getRepositoryUuid(final File moduleDirectory) throws SVNException, IOException {
+        return clientManager.getWCClient().doInfo(moduleDirectory.getCanonicalFile(), SVNRevision.WORKING)
+                .getRepositoryUUID();
     }
 
     boolean commit(final String revertMessage, final File... moduleDirectories)
     throws IOException, SVNException {
         final SVNCommitClient commitClient = clientManager.getCommitClient();
-        final SVNCommitPacket[] commitPackets = getCommitPackets(commitClient, moduleDirectories);
-        final SVNCommitInfo[] commitInfos = commitClient.doCommit(commitPackets, true, revertMessage);
-        return wasCommitSuccessful(commitInfos);
+        commitClient.setEventHandler(progress.around(canceller));
+        final long began = accounting.begin("commit");
+        progress.start();
+        try {
+            final SVNCommitPacket[] commitPackets = getCommitPackets(commitClient, moduleDirectories);
+            final SVNCommitInfo[] commitInfos = commitClient.doCommit(commitPackets, true, revertMessage);
+            return wasCommitSuccessful(commitInfos);
+        } finally {
+            progress.stop();
+            accounting.end(began);
+            commitClient.setEventHandler(null);
+        }
     }
 
     private SVNCommitPacket[] getCommitPackets(final SVNCommitClient commitClient,
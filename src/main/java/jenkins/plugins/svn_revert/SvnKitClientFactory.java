@@ -5,11 +5,33 @@ import hudson.scm.SubversionSCM;
 
 import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
 import org.tmatesoft.svn.core.auth.ISVNAuthenticationProvider;
+import org.tmatesoft.svn.core.internal.wc.DefaultSVNAuthenticationManager;
+import org.tmatesoft.svn.core.io.SVNRepository;
 import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNWCUtil;
+import org.tmatesoft.svn.util.SVNDebugLog;
+
+import com.google.common.base.Ticker;
 
 class SvnKitClientFactory {
 
+    private final int connectTimeoutMillis;
+    private final int readTimeoutMillis;
+    private final long timeBudgetMillis;
+    private final long progressIntervalMillis;
+
+    SvnKitClientFactory() {
+        this(0, 0, 0, 0);
+    }
+
+    SvnKitClientFactory(final int connectTimeoutMillis, final int readTimeoutMillis,
+            final long timeBudgetMillis, final long progressIntervalMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.readTimeoutMillis = readTimeoutMillis;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.progressIntervalMillis = progressIntervalMillis;
+    }
+
     SvnKitClient create(final AbstractProject<?, ?> project,
             final SubversionSCM scm) throws NoSvnAuthException {
         final ISVNAuthenticationProvider svnAuthProvider =
@@ -17,9 +39,42 @@ class SvnKitClientFactory {
         if (svnAuthProvider == null) {
             throw new NoSvnAuthException();
         }
-        final ISVNAuthenticationManager svnAuthManager =
-                SVNWCUtil.createDefaultAuthenticationManager();
+        final ISVNAuthenticationManager svnAuthManager = createAuthenticationManager();
         svnAuthManager.setAuthenticationProvider(svnAuthProvider);
-        return new SvnKitClient(SVNClientManager.newInstance(null, svnAuthManager));
+        final SVNClientManager clientManager = SVNClientManager.newInstance(null, svnAuthManager);
+        final NetworkAccounting accounting = new NetworkAccounting(SVNDebugLog.getDefaultLog(), Ticker.systemTicker());
+        clientManager.setDebugLog(accounting);
+        return new SvnKitClient(clientManager, RevertCanceller.startingNow(timeBudgetMillis), progressIntervalMillis,
+                accounting);
+    }
+
+    ISVNAuthenticationManager createAuthenticationManager() {
+        if (connectTimeoutMillis == 0 && readTimeoutMillis == 0) {
+            return SVNWCUtil.createDefaultAuthenticationManager();
+        }
+        return new TimeoutAuthenticationManager(connectTimeoutMillis, readTimeoutMillis);
+    }
+
+    static final class TimeoutAuthenticationManager extends DefaultSVNAuthenticationManager {
+
+        private final int connectTimeoutMillis;
+        private final int readTimeoutMillis;
+
+        TimeoutAuthenticationManager(final int connectTimeoutMillis, final int readTimeoutMillis) {
+            super(SVNWCUtil.getDefaultConfigurationDirectory(), true, null, null);
+            this.connectTimeoutMillis = connectTimeoutMillis;
+            this.readTimeoutMillis = readTimeoutMillis;
+        }
+
+        @Override
+        public int getConnectTimeout(final SVNRepository repository) {
+            return connectTimeoutMillis > 0 ? connectTimeoutMillis : super.getConnectTimeout(repository);
+        }
+
+        @Override
+        public int getReadTimeout(final SVNRepository repository) {
+            return readTimeoutMillis > 0 ? readTimeoutMillis : super.getReadTimeout(repository);
+        }
+
     }
 }
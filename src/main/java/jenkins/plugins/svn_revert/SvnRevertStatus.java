@@ -2,6 +2,8 @@ package jenkins.plugins.svn_revert;
 
 enum SvnRevertStatus {
 
-    REVERT_SUCCESSFUL, NOTHING_REVERTED, REVERT_FAILED;
+    REVERT_SUCCESSFUL,
+    REVERT_PARTIAL,
+    NOTHING_REVERTED, REVERT_FAILED;
 
 }
@@ -3,34 +3,61 @@ package jenkins.plugins.svn_revert;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.scm.SubversionSCM;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import org.tmatesoft.svn.core.SVNCancelException;
 import org.tmatesoft.svn.core.SVNException;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 class SvnReverter {
 
-    static final String REVERT_MESSAGE =
-            "Automatically reverted revision(s) %s since Jenkins build %s became UNSTABLE.";
     private final Messenger messenger;
     private final AbstractBuild<?, ?> build;
     private SvnKitClient svnKitClient;
     private final SvnKitClientFactory svnFactory;
     private final ModuleFinder locationFinder;
     private final ChangedRevisions changedRevisions;
+    private final ChangedFiles changedFiles;
+    private final NotificationTemplates templates;
+    private final RevertSizeLimit sizeLimit;
+    private final RevertJournal journal;
+    private final RevertLockSettings lockSettings;
+    private final RevertRateLimit rateLimit;
+    private final SvnCircuitBreakerSettings circuitBreaker;
+    private final boolean updateToHead;
+    private final Map<SvnKitClient, String> journalEntries = Maps.newConcurrentMap();
 
     SvnReverter(final AbstractBuild<?,?> build, final Messenger messenger,
             final SvnKitClientFactory svnFactory, final ModuleFinder locationFinder,
-            final ChangedRevisions changedRevisions) {
+            final ChangedRevisions changedRevisions, final ChangedFiles changedFiles,
+            final RevertSettings settings) {
         this.build = build;
         this.messenger = messenger;
         this.svnFactory = svnFactory;
         this.locationFinder = locationFinder;
         this.changedRevisions = changedRevisions;
+        this.changedFiles = changedFiles;
+        this.templates = settings.getTemplates();
+        this.sizeLimit = settings.getSizeLimit();
+        this.journal = settings.getJournal();
+        this.lockSettings = settings.getLockSettings();
+        this.rateLimit = settings.getRateLimit();
+        this.circuitBreaker = settings.getCircuitBreaker();
+        this.updateToHead = settings.isUpdateToHead();
     }
 
     SvnRevertStatus revert(final SubversionSCM subversionScm) {
@@ -39,54 +66,486 @@ class SvnReverter {
         try {
             return revertAndCommit(rootProject, subversionScm);
         } catch (final RuntimeException e) {
+            rollbackMergedChanges();
             throw e;
         } catch (final NoSvnAuthException e) {
             messenger.informNoSvnAuthProvider();
             return SvnRevertStatus.REVERT_FAILED;
         } catch (final SVNException e) {
             messenger.informNothingRevertedBecauseOf(e);
+            rollbackMergedChanges();
             return SvnRevertStatus.NOTHING_REVERTED;
         } catch (final Exception e) {
             messenger.printStackTraceFor(e);
+            rollbackMergedChanges();
             return SvnRevertStatus.REVERT_FAILED;
+        } finally {
+            recordNetworkUsage(svnKitClient);
+            svnKitClient = null;
         }
     }
 
+    SvnRevertStatus preview(final SubversionSCM subversionScm) {
+        final AbstractProject<?, ?> rootProject = build.getProject().getRootProject();
+
+        try {
+            final RevertPreview preview = previewFor(rootProject, subversionScm);
+            if (preview != null) {
+                messenger.informPreview(preview);
+            }
+            return SvnRevertStatus.NOTHING_REVERTED;
+        } catch (final RuntimeException e) {
+            throw e;
+        } catch (final NoSvnAuthException e) {
+            messenger.informNoSvnAuthProvider();
+            return SvnRevertStatus.REVERT_FAILED;
+        } catch (final SVNException e) {
+            messenger.informNothingRevertedBecauseOf(e);
+            return SvnRevertStatus.NOTHING_REVERTED;
+        } catch (final Exception e) {
+            messenger.printStackTraceFor(e);
+            return SvnRevertStatus.REVERT_FAILED;
+        } finally {
+            recordNetworkUsage(svnKitClient);
+            svnKitClient = null;
+        }
+    }
+
+    private RevertPreview previewFor(final AbstractProject<?, ?> rootProject,
+            final SubversionSCM subversionScm)
+    throws NoSvnAuthException, IOException, InterruptedException, SVNException {
+        final List<Module> modules = locationFinder.getModules(subversionScm);
+        final Revisions revisions = changedRevisions.getRevisions();
+        final String key = RevertPreviewAction.keyFor(revisions, modules);
+        final RevertPreviewAction previews = getPreviewAction();
+        final RevertPreview cachedPreview = previews.get(key);
+        if (cachedPreview != null) {
+            return cachedPreview;
+        }
+
+        svnKitClient = svnFactory.create(rootProject, subversionScm);
+        if (isTooLarge(svnKitClient, revisions, modules)) {
+            return null;
+        }
+        updateToHead(svnKitClient, modules);
+        final List<RevertPreview> modulePreviews = Lists.newArrayList();
+        for (final Module module : modules) {
+            modulePreviews.add(svnKitClient.previewReverseMerge(revisions, module.getSvnUrl(),
+                    module.getModuleRoot(build)));
+        }
+        final RevertPreview preview = RevertPreview.combine(modulePreviews);
+        previews.put(key, preview);
+        build.save();
+        return preview;
+    }
+
+    private void updateToHead(final SvnKitClient client, final List<Module> modules)
+    throws SVNException, IOException {
+        if (!updateToHead) {
+            return;
+        }
+        messenger.informRevertingAtHead();
+        for (final Module module : modules) {
+            client.updateToHead(module.getModuleRoot(build));
+        }
+    }
+
+    private void recordNetworkUsage(final SvnKitClient client) {
+        if (client == null) {
+            return;
+        }
+        final List<NetworkUsage> usage = client.getNetworkUsage();
+        if (usage == null || usage.isEmpty()) {
+            return;
+        }
+        synchronized (build) {
+            NetworkUsageAction action = build.getAction(NetworkUsageAction.class);
+            if (action == null) {
+                action = new NetworkUsageAction();
+                build.addAction(action);
+            }
+            action.add(usage);
+        }
+        NetworkMetrics.get().record(usage);
+    }
+
+    private RevertPreviewAction getPreviewAction() {
+        RevertPreviewAction previews = build.getAction(RevertPreviewAction.class);
+        if (previews == null) {
+            previews = new RevertPreviewAction();
+            build.addAction(previews);
+        }
+        return previews;
+    }
+
+    private RevertPreview getCachedPreview(final Revisions revisions, final List<Module> modules) {
+        final RevertPreviewAction previews = build.getAction(RevertPreviewAction.class);
+        if (previews == null) {
+            return null;
+        }
+        return previews.get(RevertPreviewAction.keyFor(revisions, modules));
+    }
+
     private SvnRevertStatus revertAndCommit(final AbstractProject<?, ?> rootProject,
             final SubversionSCM subversionScm)
     throws NoSvnAuthException, IOException, InterruptedException, SVNException {
         svnKitClient = svnFactory.create(rootProject, subversionScm);
+        svnKitClient.reportProgressTo(messenger);
 
         final List<Module> modules = locationFinder.getModules(subversionScm);
         final Revisions revisions = changedRevisions.getRevisions();
+        final RevertPreview preview = getCachedPreview(revisions, modules);
+        if (preview != null && preview.hasConflicts()) {
+            messenger.informPreviewHasConflicts(preview);
+            return SvnRevertStatus.NOTHING_REVERTED;
+        }
+
+        updateToHead(svnKitClient, modules);
+        final Map<String, List<Module>> modulesByRepository = groupByRepository(svnKitClient, modules);
+        if (modulesByRepository.size() > 1) {
+            return revertPerRepository(rootProject, subversionScm, revisions, modulesByRepository);
+        }
+        return revertInRepository(svnKitClient, rootProject, subversionScm, revisions, modules);
+    }
+
+    private SvnRevertStatus revertInRepository(final SvnKitClient client, final AbstractProject<?, ?> rootProject,
+            final SubversionSCM subversionScm, final Revisions revisions, final List<Module> modules)
+    throws IOException, SVNException {
+        if (modules.isEmpty()) {
+            return revertWithinLimits(client, null, revisions, modules);
+        }
+        final String repository = modules.get(0).getRepositoryRoot(rootProject);
+        if (!circuitBreaker.allows(repository)) {
+            messenger.informCircuitOpen(repository);
+            return SvnRevertStatus.NOTHING_REVERTED;
+        }
+        try {
+            final SvnRevertStatus status = revertWithinLimits(client, repository, revisions, modules);
+            circuitBreaker.succeeded(repository);
+            return status;
+        } catch (final SVNCancelException e) {
+            throw e;
+        } catch (final SVNException e) {
+            circuitBreaker.failed(repository, probeOf(rootProject, subversionScm, repository));
+            throw e;
+        }
+    }
+
+    private SvnCircuitBreaker.Probe probeOf(final AbstractProject<?, ?> rootProject,
+            final SubversionSCM subversionScm, final String repository) {
+        final SvnKitClientFactory factory = svnFactory;
+        return new SvnCircuitBreaker.Probe() {
+            @Override
+            public boolean isHealthy() {
+                try {
+                    return factory.create(rootProject, subversionScm).isReachable(repository);
+                } catch (final NoSvnAuthException e) {
+                    return false;
+                }
+            }
+        };
+    }
+
+    private SvnRevertStatus revertWithinLimits(final SvnKitClient client, final String repository,
+            final Revisions revisions, final List<Module> modules)
+    throws IOException, SVNException {
+        if (isTooLarge(client, revisions, modules)) {
+            return SvnRevertStatus.NOTHING_REVERTED;
+        }
+        if (lockSettings == null || repository == null) {
+            if (isOverBudget(repository)) {
+                return SvnRevertStatus.NOTHING_REVERTED;
+            }
+            return mergeAndCommit(client, revisions, modules, null);
+        }
+
+        final RepositoryRevertLock lock = client.createRevertLock(repository, lockSettings);
+        try {
+            if (!lock.sentinelExists()) {
+                messenger.informRevertLockSentinelMissing(lockSettings.getSentinelPath(), repository);
+                return SvnRevertStatus.NOTHING_REVERTED;
+            }
+            if (!lock.tryAcquire()) {
+                messenger.informRevertLockedElsewhere();
+                return SvnRevertStatus.NOTHING_REVERTED;
+            }
+            try {
+                if (lock.alreadyReverted(revisions)) {
+                    messenger.informAlreadyRevertedElsewhere();
+                    return SvnRevertStatus.NOTHING_REVERTED;
+                }
+                if (isOverBudget(repository)) {
+                    return SvnRevertStatus.NOTHING_REVERTED;
+                }
+                final SvnRevertStatus status = mergeAndCommit(client, revisions, modules, lock);
+                if (status == SvnRevertStatus.REVERT_SUCCESSFUL) {
+                    markReverted(lock, revisions);
+                }
+                return status;
+            } finally {
+                release(lock);
+            }
+        } finally {
+            lock.close();
+        }
+    }
+
+    private boolean isOverBudget(final String repository) {
+        if (!rateLimit.isLimited() || repository == null) {
+            return false;
+        }
+        if (rateLimit.tryAcquire(repository)) {
+            return false;
+        }
+        messenger.informRevertBudgetExhausted(repository, rateLimit.getRevertsPerHour(), rateLimit.getBurst());
+        return true;
+    }
+
+    private void release(final RepositoryRevertLock lock) {
+        try {
+            lock.release();
+        } catch (final SVNException e) {
+            messenger.informRevertLockNotReleased(e);
+        }
+    }
+
+    private void markReverted(final RepositoryRevertLock lock, final Revisions revisions) {
+        try {
+            lock.markReverted(revisions);
+        } catch (final SVNException e) {
+            messenger.informRevertNotMarked(e);
+        }
+    }
+
+    private boolean isTooLarge(final SvnKitClient client, final Revisions revisions, final List<Module> modules)
+    throws SVNException {
+        if (!sizeLimit.isLimited()) {
+            return false;
+        }
+        final DiffSummary summary = new DiffSummary(sizeLimit);
+        for (final Module module : modules) {
+            client.summarizeReverseDiff(revisions, module.getSvnUrl(), summary);
+            if (summary.isOverLimit()) {
+                messenger.informRevertTooLarge(summary.getPaths(), summary.getBytes());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SvnRevertStatus mergeAndCommit(final SvnKitClient client, final Revisions revisions,
+            final List<Module> modules, final RepositoryRevertLock lock)
+    throws IOException, SVNException {
         final List<File> moduleDirs = Lists.newArrayList();
         for (final Module module : modules) {
-            final File moduleDir = module.getModuleRoot(build);
+            moduleDirs.add(module.getModuleRoot(build));
+        }
+        final String revertMessage = getRevertMessageFor(revisions);
+        final String journalEntry = journal.planned(build.getExternalizableId(), revertMessage, moduleDirs);
+        journalEntries.put(client, journalEntry);
+
+        client.recordMergedPathsTo(new MergeEventCollector.Listener() {
+            @Override
+            public void touched(final File file, final boolean addedOrDeleted) {
+                journal.touched(journalEntry, file, addedOrDeleted);
+            }
+        });
+        try {
+            for (int i = 0; i < modules.size(); i++) {
+                client.reverseMerge(revisions, modules.get(i).getSvnUrl(), moduleDirs.get(i));
+            }
+        } finally {
+            client.recordMergedPathsTo(null);
+        }
+        journal.merged(journalEntry, client.getMergedSubtrees(), client.getMergedFiles());
+
+        if (lock != null && !lock.renew()) {
+            messenger.informRevertLockLost();
+            rollbackMergedChanges(client);
+            return SvnRevertStatus.NOTHING_REVERTED;
+        }
+        if (!client.commit(revertMessage, moduleDirs.toArray(new File[0]))) {
+            messenger.informFilesToRevertOutOfDate(build.getResult());
+            rollbackMergedChanges(client);
+            return SvnRevertStatus.NOTHING_REVERTED;
+        }
+        journal.committed(journalEntry);
+        journalEntries.remove(client);
+        informReverted(revisions, modules);
+        return SvnRevertStatus.REVERT_SUCCESSFUL;
+    }
+
+    void notified() {
+        journal.notified(build.getExternalizableId());
+    }
+
+    private Map<String, List<Module>> groupByRepository(final SvnKitClient client, final List<Module> modules)
+    throws IOException, SVNException {
+        final Map<String, List<Module>> modulesByRepository = Maps.newLinkedHashMap();
+        for (final Module module : modules) {
+            final String uuid = String.valueOf(client.getRepositoryUuid(module.getModuleRoot(build)));
+            if (!modulesByRepository.containsKey(uuid)) {
+                modulesByRepository.put(uuid, Lists.<Module>newArrayList());
+            }
+            modulesByRepository.get(uuid).add(module);
+        }
+        return modulesByRepository;
+    }
 
-            svnKitClient.reverseMerge(revisions, module.getSvnUrl(), moduleDir);
+    private SvnRevertStatus revertPerRepository(final AbstractProject<?, ?> rootProject,
+            final SubversionSCM subversionScm, final Revisions revisions,
+            final Map<String, List<Module>> modulesByRepository)
+    throws NoSvnAuthException, IOException, SVNException, InterruptedException {
+        final Map<String, Callable<SvnRevertStatus>> reverts = Maps.newLinkedHashMap();
+        for (final Map.Entry<String, List<Module>> repository : modulesByRepository.entrySet()) {
+            final SvnKitClient client = svnFactory.create(rootProject, subversionScm);
+            client.reportProgressTo(messenger);
+            final Revisions repositoryRevisions = getRevisionsTouching(client, revisions, repository.getValue());
+            if (repositoryRevisions != null) {
+                reverts.put(repository.getKey(), new RepositoryRevert(client, rootProject, subversionScm,
+                        repositoryRevisions, repository.getValue()));
+            } else {
+                recordNetworkUsage(client);
+            }
+        }
 
-            moduleDirs.add(moduleDir);
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, reverts.size()),
+                new NamingThreadFactory(new DaemonThreadFactory(), "SVN revert per repository"));
+        final Map<String, Future<SvnRevertStatus>> results = Maps.newLinkedHashMap();
+        try {
+            for (final Map.Entry<String, Callable<SvnRevertStatus>> revert : reverts.entrySet()) {
+                results.put(revert.getKey(), executor.submit(revert.getValue()));
+            }
+            final List<SvnRevertStatus> statuses = Lists.newArrayList();
+            for (final Map.Entry<String, Future<SvnRevertStatus>> result : results.entrySet()) {
+                final SvnRevertStatus status = getStatus(result.getValue());
+                messenger.informRepositoryRevertStatus(result.getKey(), status);
+                statuses.add(status);
+            }
+            return combine(statuses);
+        } finally {
+            executor.shutdownNow();
         }
+    }
 
-        if (svnKitClient.commit(getRevertMessageFor(revisions, rootProject), moduleDirs.toArray(new File[0]))) {
-            informReverted(revisions, modules);
-        } else {
-            messenger.informFilesToRevertOutOfDate();
+    private static SvnRevertStatus getStatus(final Future<SvnRevertStatus> result) throws InterruptedException {
+        try {
+            return result.get();
+        } catch (final ExecutionException e) {
+            return SvnRevertStatus.REVERT_FAILED;
+        }
+    }
+
+    static SvnRevertStatus combine(final List<SvnRevertStatus> statuses) {
+        if (statuses.isEmpty()) {
             return SvnRevertStatus.NOTHING_REVERTED;
         }
+        final int successful = Collections.frequency(statuses, SvnRevertStatus.REVERT_SUCCESSFUL);
+        if (successful == statuses.size()) {
+            return SvnRevertStatus.REVERT_SUCCESSFUL;
+        }
+        if (successful > 0) {
+            return SvnRevertStatus.REVERT_PARTIAL;
+        }
+        if (statuses.contains(SvnRevertStatus.REVERT_FAILED)) {
+            return SvnRevertStatus.REVERT_FAILED;
+        }
+        return SvnRevertStatus.NOTHING_REVERTED;
+    }
 
-        return SvnRevertStatus.REVERT_SUCCESSFUL;
+    private Revisions getRevisionsTouching(final SvnKitClient client, final Revisions revisions,
+            final List<Module> modules)
+    throws SVNException {
+        final Map<Integer, List<String>> messagesByRevision = changedFiles.getMessagesByRevision();
+        final List<Integer> touching = Lists.newArrayList();
+        for (final Module module : modules) {
+            for (final Map.Entry<Integer, String> commit : client.getLogMessages(revisions, module.getSvnUrl())
+                    .entrySet()) {
+                final List<String> messages = messagesByRevision.get(commit.getKey());
+                if (revisions.getAllInOrder().contains(commit.getKey()) && messages != null
+                        && messages.contains(ChangedFiles.normalize(commit.getValue()))) {
+                    touching.add(commit.getKey());
+                }
+            }
+        }
+        return touching.isEmpty() ? null : Revisions.create(touching);
+    }
+
+    private void rollbackMergedChanges() {
+        if (svnKitClient != null) {
+            rollbackMergedChanges(svnKitClient);
+        }
+    }
+
+    private void rollbackMergedChanges(final SvnKitClient client) {
+        final String journalEntry = journalEntries.remove(client);
+        if (!client.hasMergedChanges()) {
+            removeJournalEntry(journalEntry);
+            return;
+        }
+        final long start = System.currentTimeMillis();
+        try {
+            final int paths = client.rollbackMergedChanges();
+            messenger.informRolledBack(paths, System.currentTimeMillis() - start);
+            removeJournalEntry(journalEntry);
+        } catch (final SVNException e) {
+            messenger.informRollbackFailedBecauseOf(e);
+        }
+    }
+
+    private void removeJournalEntry(final String journalEntry) {
+        if (journalEntry != null) {
+            journal.remove(journalEntry);
+        }
     }
 
-    private String getRevertMessageFor(final Revisions revisions, final AbstractProject<?, ?> rootProject) {
-        final String revertMessage = StringHumanizer.pluralize(REVERT_MESSAGE, revisions.count());
-        return String.format(revertMessage, revisions.getAllInOrderAsString(), rootProject.getName());
+    private String getRevertMessageFor(final Revisions revisions) {
+        return templates.getCommitMessage().render(new TemplateContext(build, revisions, changedRevisions));
     }
 
     private void informReverted(final Revisions revisions, final List<Module> modules) {
         for (final Module module : modules) {
-            messenger.informReverted(revisions, module.getURL());
+            messenger.informReverted(revisions, module.getURL(), build.getResult());
         }
     }
 
+    private class RepositoryRevert implements Callable<SvnRevertStatus> {
+
+        private final SvnKitClient client;
+        private final AbstractProject<?, ?> rootProject;
+        private final SubversionSCM subversionScm;
+        private final Revisions revisions;
+        private final List<Module> modules;
+
+        RepositoryRevert(final SvnKitClient client, final AbstractProject<?, ?> rootProject,
+                final SubversionSCM subversionScm, final Revisions revisions, final List<Module> modules) {
+            this.client = client;
+            this.rootProject = rootProject;
+            this.subversionScm = subversionScm;
+            this.revisions = revisions;
+            this.modules = modules;
+        }
+
+        @Override
+        public SvnRevertStatus call() {
+            try {
+                return revertInRepository(client, rootProject, subversionScm, revisions, modules);
+            } catch (final RuntimeException e) {
+                rollbackMergedChanges(client);
+                throw e;
+            } catch (final SVNException e) {
+                messenger.informNothingRevertedBecauseOf(e);
+                rollbackMergedChanges(client);
+                return SvnRevertStatus.NOTHING_REVERTED;
+            } catch (final IOException e) {
+                messenger.printStackTraceFor(e);
+                rollbackMergedChanges(client);
+                return SvnRevertStatus.REVERT_FAILED;
+            } finally {
+                recordNetworkUsage(client);
+            }
+        }
+
+    }
+
 }
@@ -0,0 +1,119 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.model.AbstractBuild;
+import hudson.model.Result;
+import hudson.scm.ChangeLogSet.AffectedFile;
+import hudson.scm.ChangeLogSet.Entry;
+
+import java.util.List;
+import java.util.Set;
+
+import jenkins.model.JenkinsLocationConfiguration;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+class TemplateContext {
+
+    private static final String SEPARATOR = ", ";
+
+    private final AbstractBuild<?, ?> build;
+    private final Revisions revisions;
+    private final ChangedRevisions changedRevisions;
+    private final String jenkinsUrl;
+
+    TemplateContext(final AbstractBuild<?, ?> build, final Revisions revisions,
+            final ChangedRevisions changedRevisions, final String jenkinsUrl) {
+        this.build = build;
+        this.revisions = revisions;
+        this.changedRevisions = changedRevisions;
+        this.jenkinsUrl = jenkinsUrl;
+    }
+
+    TemplateContext(final AbstractBuild<?, ?> build, final Revisions revisions,
+            final ChangedRevisions changedRevisions) {
+        this(build, revisions, changedRevisions, null);
+    }
+
+    TemplateContext(final AbstractBuild<?, ?> build, final ChangedRevisions changedRevisions) {
+        this(build, changedRevisions.getRevisions(), changedRevisions, null);
+    }
+
+    int getRevisionCount() {
+        return revisions.count();
+    }
+
+    void appendRevisions(final StringBuilder out) {
+        boolean first = true;
+        for (final Integer revision : revisions.getAllInOrder()) {
+            if (!first) {
+                out.append(SEPARATOR);
+            }
+            out.append(revision.intValue());
+            first = false;
+        }
+    }
+
+    void appendJob(final StringBuilder out) {
+        out.append(build.getProject().getRootProject().getName());
+    }
+
+    void appendBuildUrl(final StringBuilder out) {
+        if (jenkinsUrl != null) {
+            out.append(jenkinsUrl);
+        } else {
+            final String url = JenkinsLocationConfiguration.get().getUrl();
+            if (url != null) {
+                out.append(url);
+            }
+        }
+        out.append(build.getUrl());
+    }
+
+    void appendAuthors(final StringBuilder out) {
+        final Set<String> authors = Sets.newLinkedHashSet();
+        for (final Entry entry : getEntries()) {
+            authors.add(entry.getAuthor().getFullName());
+        }
+        appendAll(out, authors);
+    }
+
+    void appendCulpritFiles(final StringBuilder out) {
+        final Set<String> files = Sets.newLinkedHashSet();
+        for (final Entry entry : getEntries()) {
+            for (final AffectedFile file : entry.getAffectedFiles()) {
+                files.add(file.getPath());
+            }
+        }
+        appendAll(out, files);
+    }
+
+    void appendResult(final StringBuilder out) {
+        final Result result = build.getResult();
+        if (result != null) {
+            out.append(result);
+        }
+    }
+
+    private List<Entry> getEntries() {
+        final List<Entry> entries = Lists.newArrayList();
+        for (final Entry entry : changedRevisions.getChangeEntries()) {
+            if (revisions.getAllInOrder().contains(Integer.parseInt(entry.getCommitId(), 10))) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private static void appendAll(final StringBuilder out, final Iterable<String> values) {
+        boolean first = true;
+        for (final String value : values) {
+            if (!first) {
+                out.append(SEPARATOR);
+            }
+            out.append(value);
+            first = false;
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.XmlFile;
+import hudson.model.AbstractProject;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jenkins.model.Jenkins;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+final class TestCorrelationIndex {
+
+    private static final int MAX_INDEXED_CLASSES = 10000;
+    private static final String BUILD_DIRECTORY = "/target/";
+    private static final String FILE_NAME = TestCorrelationIndex.class.getName() + ".xml";
+    private static final Logger LOGGER = Logger.getLogger(TestCorrelationIndex.class.getName());
+    private static final ConcurrentMap<String, TestCorrelationIndex> INDICES =
+            new ConcurrentHashMap<String, TestCorrelationIndex>();
+
+    private final Map<String, TestLocation> locations =
+            new LinkedHashMap<String, TestLocation>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, TestLocation> eldest) {
+            return size() > MAX_INDEXED_CLASSES;
+        }
+    };
+    private final XmlFile file;
+
+    private TestCorrelationIndex(final XmlFile file) {
+        this.file = file;
+    }
+
+    static TestCorrelationIndex forJob(final AbstractProject<?, ?> project) {
+        return forJob(project.getFullName(), new XmlFile(Jenkins.XSTREAM, new File(project.getRootDir(), FILE_NAME)));
+    }
+
+    /**
+     * @param file where the index of the job is kept, or null to keep it in memory only */
+    static TestCorrelationIndex forJob(final String jobName, final XmlFile file) {
+        final TestCorrelationIndex index = INDICES.get(jobName);
+        if (index != null) {
+            return index;
+        }
+        final TestCorrelationIndex newIndex = new TestCorrelationIndex(file);
+        newIndex.load();
+        final TestCorrelationIndex existing = INDICES.putIfAbsent(jobName, newIndex);
+        return existing == null ? newIndex : existing;
+    }
+
+    static void forget(final String jobName) {
+        INDICES.remove(jobName);
+    }
+
+    synchronized void update(final Map<String, String> reportFilesByClass,
+            final Map<String, String> moduleRoots) {
+        boolean changed = false;
+        for (final Map.Entry<String, String> test : reportFilesByClass.entrySet()) {
+            final TestLocation known = locations.get(test.getKey());
+            if (known == null || !known.isReportedIn(test.getValue())) {
+                locations.put(test.getKey(), TestLocation.of(test.getKey(), test.getValue(), moduleRoots));
+                changed = true;
+            }
+        }
+        if (changed) {
+            save();
+        }
+    }
+
+    synchronized Lookup lookup(final Collection<String> testClasses) {
+        final Set<String> packageDirectories = Sets.newHashSet();
+        final Set<String> projectDirectories = Sets.newHashSet();
+        for (final String testClass : testClasses) {
+            final TestLocation location = locations.get(testClass);
+            if (location == null) {
+                continue;
+            }
+            if (location.packageDirectory != null) {
+                packageDirectories.add(location.packageDirectory);
+            }
+            if (location.projectDirectory != null) {
+                projectDirectories.add(location.projectDirectory);
+            }
+        }
+        return new Lookup(packageDirectories, projectDirectories);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized void load() {
+        if (file == null || !file.exists()) {
+            return;
+        }
+        try {
+            locations.putAll((Map<String, TestLocation>) file.read());
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not load test correlation index " + file, e);
+        }
+    }
+
+    private void save() {
+        if (file == null) {
+            return;
+        }
+        try {
+            file.write(Maps.newLinkedHashMap(locations));
+        } catch (final IOException e) {
+            LOGGER.log(Level.WARNING, "Could not write test correlation index " + file, e);
+        }
+    }
+
+    static final class Lookup {
+
+        private final Set<String> packageDirectories;
+        private final Set<String> projectDirectories;
+
+        private Lookup(final Set<String> packageDirectories, final Set<String> projectDirectories) {
+            this.packageDirectories = packageDirectories;
+            this.projectDirectories = projectDirectories;
+        }
+
+        boolean anyRelated(final List<String> paths) {
+            for (final String path : paths) {
+                if (isRelated(path)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean isRelated(final String path) {
+            final int fileNameStart = path.lastIndexOf('/');
+            for (int slash = path.indexOf('/'); slash >= 0 && slash <= fileNameStart;
+                    slash = path.indexOf('/', slash + 1)) {
+                if (projectDirectories.contains(path.substring(0, slash))) {
+                    return true;
+                }
+                if (slash < fileNameStart
+                        && packageDirectories.contains(path.substring(slash + 1, fileNameStart))) {
+                    return true;
+                }
+            }
+            return projectDirectories.contains(path);
+        }
+
+    }
+
+    private static final class TestLocation {
+
+        private final String reportFile;
+        private final String packageDirectory;
+        private final String projectDirectory;
+
+        private TestLocation(final String reportFile, final String packageDirectory,
+                final String projectDirectory) {
+            this.reportFile = reportFile;
+            this.packageDirectory = packageDirectory;
+            this.projectDirectory = projectDirectory;
+        }
+
+        static TestLocation of(final String testClass, final String reportFile,
+                final Map<String, String> moduleRoots) {
+            final int lastDot = testClass.lastIndexOf('.');
+            final String packageDirectory =
+                    lastDot > 0 ? testClass.substring(0, lastDot).replace('.', '/') : null;
+            return new TestLocation(reportFile, packageDirectory, projectDirectoryOf(reportFile, moduleRoots));
+        }
+
+        boolean isReportedIn(final String otherReportFile) {
+            return reportFile == null ? otherReportFile == null : reportFile.equals(otherReportFile);
+        }
+
+        private static String projectDirectoryOf(final String reportFile, final Map<String, String> moduleRoots) {
+            if (reportFile == null) {
+                return null;
+            }
+            final String report = reportFile.replace('\\', '/');
+            for (final Map.Entry<String, String> moduleRoot : moduleRoots.entrySet()) {
+                final String root = moduleRoot.getKey().replace('\\', '/');
+                if (report.startsWith(root + "/")) {
+                    return moduleRoot.getValue() + projectDirectoryWithinModule(report.substring(root.length()));
+                }
+            }
+            return null;
+        }
+
+        private static String projectDirectoryWithinModule(final String report) {
+            final int buildDirectory = report.indexOf(BUILD_DIRECTORY);
+            if (buildDirectory >= 0) {
+                return report.substring(0, buildDirectory);
+            }
+            final int reportDirectory = report.lastIndexOf('/');
+            final int projectDirectory = reportDirectory > 0 ? report.lastIndexOf('/', reportDirectory - 1) : -1;
+            return projectDirectory > 0 ? report.substring(0, projectDirectory) : "";
+        }
+
+    }
+
+}
@@ -0,0 +1,25 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+
+@Extension
+public class TestModelListener extends ItemListener {
+
+    @Override
+    public void onDeleted(final Item item) {
+        forget(item.getFullName());
+    }
+
+    @Override
+    public void onLocationChanged(final Item item, final String oldFullName, final String newFullName) {
+        forget(oldFullName);
+    }
+
+    private static void forget(final String jobName) {
+        TestCorrelationIndex.forget(jobName);
+        FlakinessModel.forget(jobName);
+    }
+
+}
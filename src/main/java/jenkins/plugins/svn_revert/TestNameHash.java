@@ -0,0 +1,20 @@
+package jenkins.plugins.svn_revert;
+
+final class TestNameHash {
+
+    private static final long OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    private TestNameHash() {
+    }
+
+    static long of(final String testName) {
+        long hash = OFFSET_BASIS;
+        for (int i = 0; i < testName.length(); i++) {
+            hash ^= testName.charAt(i);
+            hash *= PRIME;
+        }
+        return hash;
+    }
+
+}
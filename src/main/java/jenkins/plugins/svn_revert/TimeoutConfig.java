@@ -0,0 +1,86 @@
+package jenkins.plugins.svn_revert;
+
+import hudson.Extension;
+import hudson.model.AbstractDescribableImpl;
+import hudson.model.Descriptor;
+import hudson.util.FormValidation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.stapler.DataBoundConstructor;
+import org.kohsuke.stapler.QueryParameter;
+
+public class TimeoutConfig extends AbstractDescribableImpl<TimeoutConfig> {
+
+    static final int DEFAULT_CONNECT_TIMEOUT_SECONDS = 30;
+    static final int DEFAULT_READ_TIMEOUT_SECONDS = 300;
+    static final int DEFAULT_REVERT_TIME_BUDGET_MINUTES = 30;
+    static final int DEFAULT_PROGRESS_INTERVAL_SECONDS = 10;
+    static final int DEFAULT_DEFERRED_DECISION_TIMEOUT_MINUTES = 120;
+    static final TimeoutConfig DEFAULTS = new TimeoutConfig(DEFAULT_CONNECT_TIMEOUT_SECONDS,
+            DEFAULT_READ_TIMEOUT_SECONDS, DEFAULT_REVERT_TIME_BUDGET_MINUTES, DEFAULT_PROGRESS_INTERVAL_SECONDS,
+            DEFAULT_DEFERRED_DECISION_TIMEOUT_MINUTES);
+
+    private final int connectTimeoutSeconds;
+    private final int readTimeoutSeconds;
+    private final int revertTimeBudgetMinutes;
+    private final int progressIntervalSeconds;
+    private final int deferredDecisionTimeoutMinutes;
+
+    @DataBoundConstructor
+    public TimeoutConfig(final int connectTimeoutSeconds, final int readTimeoutSeconds,
+            final int revertTimeBudgetMinutes, final int progressIntervalSeconds,
+            final int deferredDecisionTimeoutMinutes) {
+        this.connectTimeoutSeconds = connectTimeoutSeconds;
+        this.readTimeoutSeconds = readTimeoutSeconds;
+        this.revertTimeBudgetMinutes = revertTimeBudgetMinutes;
+        this.progressIntervalSeconds = progressIntervalSeconds;
+        this.deferredDecisionTimeoutMinutes = deferredDecisionTimeoutMinutes;
+    }
+
+    public int getConnectTimeoutSeconds() {
+        return connectTimeoutSeconds;
+    }
+
+    public int getReadTimeoutSeconds() {
+        return readTimeoutSeconds;
+    }
+
+    public int getRevertTimeBudgetMinutes() {
+        return revertTimeBudgetMinutes;
+    }
+
+    public int getProgressIntervalSeconds() {
+        return progressIntervalSeconds;
+    }
+
+    public int getDeferredDecisionTimeoutMinutes() {
+        return deferredDecisionTimeoutMinutes;
+    }
+
+    long getDeferredDecisionTimeoutMillis() {
+        return TimeUnit.MINUTES.toMillis(Math.max(1, deferredDecisionTimeoutMinutes));
+    }
+
+    SvnKitClientFactory createSvnKitClientFactory() {
+        return new SvnKitClientFactory((int) TimeUnit.SECONDS.toMillis(connectTimeoutSeconds),
+                (int) TimeUnit.SECONDS.toMillis(readTimeoutSeconds),
+                TimeUnit.MINUTES.toMillis(revertTimeBudgetMinutes),
+                TimeUnit.SECONDS.toMillis(progressIntervalSeconds));
+    }
+
+    @Extension
+    public static final class DescriptorImpl extends Descriptor<TimeoutConfig> {
+
+        @Override
+        public String getDisplayName() {
+            return "Timeouts";
+        }
+
+        public FormValidation doCheckDeferredDecisionTimeoutMinutes(@QueryParameter final String value) {
+            return FormValidation.validatePositiveInteger(value);
+        }
+
+    }
+
+}
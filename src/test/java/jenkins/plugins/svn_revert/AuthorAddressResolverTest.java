@@ -0,0 +1,90 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import hudson.scm.SubversionChangeLogSet.LogEntry;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.Lists;
+
+public class AuthorAddressResolverTest extends AbstractMockitoTestCase {
+
+    private static final String AUTHOR = "author";
+    private static final String UNKNOWN = "unknown";
+    private static final String ADDRESS = "author@example.com";
+
+    @Mock
+    private AuthorAddressResolver.AddressLookup lookup;
+    @Mock
+    private LogEntry change;
+    @Mock
+    private LogEntry otherChange;
+
+    private final FakeTicker ticker = new FakeTicker();
+    private AuthorAddressResolver resolver;
+
+    @Before
+    public void setUp() {
+        resolver = new AuthorAddressResolver(lookup, ticker);
+        when(lookup.getAddress(AUTHOR)).thenReturn(ADDRESS);
+        when(change.getUser()).thenReturn(AUTHOR);
+        when(otherChange.getUser()).thenReturn(AUTHOR);
+    }
+
+    @Test
+    public void looksUpEachAuthorOnceForManyChanges() throws Exception {
+        assertThat(resolver.resolve(Lists.newArrayList(change, otherChange)), contains(ADDRESS));
+
+        verify(lookup, times(1)).getAddress(AUTHOR);
+    }
+
+    @Test
+    public void cachesAddressesUntilTheyExpire() throws Exception {
+        resolver.resolve(AUTHOR);
+        ticker.advance(AuthorAddressResolver.ADDRESS_TTL_MINUTES - 1);
+        resolver.resolve(AUTHOR);
+        verify(lookup, times(1)).getAddress(AUTHOR);
+
+        ticker.advance(2);
+        assertThat(resolver.resolve(AUTHOR), is(ADDRESS));
+        verify(lookup, times(2)).getAddress(AUTHOR);
+    }
+
+    @Test
+    public void remembersAuthorsWithoutAddressForShorterTime() throws Exception {
+        assertThat(resolver.resolve(UNKNOWN), is(nullValue()));
+        assertThat(resolver.resolve(UNKNOWN), is(nullValue()));
+        verify(lookup, times(1)).getAddress(UNKNOWN);
+
+        ticker.advance(AuthorAddressResolver.NO_ADDRESS_TTL_MINUTES + 1);
+        resolver.resolve(UNKNOWN);
+        verify(lookup, times(2)).getAddress(UNKNOWN);
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(final long minutes) {
+            nanos += TimeUnit.MINUTES.toNanos(minutes);
+        }
+
+    }
+
+}
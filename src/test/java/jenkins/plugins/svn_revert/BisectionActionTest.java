@@ -0,0 +1,83 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class BisectionActionTest {
+
+    private BisectionAction bisection;
+
+    @Before
+    public void setUp() throws Exception {
+        bisection = new BisectionAction(Revisions.create(10, 11, 12, 13, 14), Lists.newArrayList("url"));
+    }
+
+    @Test
+    public void startsInTheMiddle() throws Exception {
+        assertThat(bisection.nextRevision(), is(11));
+    }
+
+    @Test
+    public void searchesUpperHalfWhenMiddlePasses() throws Exception {
+        bisection.record(11, false);
+
+        assertThat(bisection.nextRevision(), is(12));
+        assertThat(bisection.getRemainingRevisions(), is("12, 13, 14"));
+    }
+
+    @Test
+    public void searchesLowerHalfWhenMiddleFails() throws Exception {
+        bisection.record(11, true);
+
+        assertThat(bisection.nextRevision(), is(10));
+    }
+
+    @Test
+    public void findsCulpritWhenVerifiedRevisionFailsRightAfterAGoodOne() throws Exception {
+        bisection.record(11, false);
+        bisection.record(12, true);
+
+        assertThat(bisection.isCulprit(12), is(true));
+        assertThat(bisection.isFinished(), is(true));
+    }
+
+    @Test
+    public void confirmsCulpritWithABuildOfItsOwn() throws Exception {
+        bisection.record(11, false);
+        bisection.record(12, false);
+        bisection.record(13, false);
+
+        assertThat(bisection.nextRevision(), is(14));
+        assertThat(bisection.getCulprit(), is(nullValue()));
+
+        bisection.record(14, true);
+
+        assertThat(bisection.isCulprit(14), is(true));
+    }
+
+    @Test
+    public void abandonsWhenCulpritCanNotBeConfirmed() throws Exception {
+        bisection.record(11, false);
+        bisection.record(12, false);
+        bisection.record(13, false);
+        bisection.record(14, false);
+
+        assertThat(bisection.isAbandoned(), is(true));
+        assertThat(bisection.getCulprit(), is(nullValue()));
+    }
+
+    @Test
+    public void ignoresRevisionsOutsideRemainingRange() throws Exception {
+        bisection.record(12, true);
+        bisection.record(13, false);
+
+        assertThat(bisection.getRemainingRevisions(), is("10, 11, 12"));
+    }
+
+}
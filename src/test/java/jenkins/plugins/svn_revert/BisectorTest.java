@@ -0,0 +1,132 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.Action;
+import hudson.model.Result;
+import hudson.scm.SubversionSCM;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+
+@SuppressWarnings("rawtypes")
+public class BisectorTest extends AbstractMockitoTestCase {
+
+    private static final int ORIGINAL_BUILD = 7;
+
+    private Bisector bisector;
+
+    @Mock
+    private Messenger messenger;
+    @Mock
+    private ModuleFinder locationFinder;
+    @Mock
+    private ChangedRevisions changedRevisions;
+    @Mock
+    private AbstractBuild build;
+    @Mock
+    private AbstractBuild originalBuild;
+    @Mock
+    private AbstractBuild previousBuild;
+    @Mock
+    private AbstractProject project;
+    @Mock
+    private SubversionSCM subversionScm;
+    @Mock
+    private Module module;
+
+    private final List<Module> modules = Lists.newArrayList();
+
+    private BisectionAction bisection;
+
+    @Before
+    public void setUp() throws Exception {
+        modules.add(module);
+        when(module.getURL()).thenReturn("url");
+        when(locationFinder.getModules(subversionScm)).thenReturn(modules);
+        when(changedRevisions.getRevisions()).thenReturn(Revisions.create(10, 11, 12));
+        when(build.getProject()).thenReturn(project);
+        when(originalBuild.getProject()).thenReturn(project);
+        when(originalBuild.getNumber()).thenReturn(ORIGINAL_BUILD);
+        when(project.getBuildByNumber(ORIGINAL_BUILD)).thenReturn(originalBuild);
+        bisection = new BisectionAction(Revisions.create(10, 11, 12), Lists.newArrayList("url"));
+        when(originalBuild.getAction(BisectionAction.class)).thenReturn(bisection);
+        bisector = new Bisector(true, messenger, locationFinder, changedRevisions);
+    }
+
+    @Test
+    public void canBisectMultipleCommits() throws Exception {
+        assertThat(bisector.canBisect(build), is(true));
+    }
+
+    @Test
+    public void canNotBisectWhenDisabled() throws Exception {
+        bisector = new Bisector(false, messenger, locationFinder, changedRevisions);
+        assertThat(bisector.canBisect(build), is(false));
+    }
+
+    @Test
+    public void canNotBisectSingleCommit() throws Exception {
+        when(changedRevisions.getRevisions()).thenReturn(Revisions.create(10));
+        assertThat(bisector.canBisect(build), is(false));
+    }
+
+    @Test
+    public void schedulesMiddleRevisionWhenStarting() throws Exception {
+        bisector.start(originalBuild, subversionScm);
+
+        verify(project).scheduleBuild2(anyInt(), any(BisectionCause.class), any(Action.class));
+        verify(messenger).informBisecting("10, 11, 12", 11);
+    }
+
+    @Test
+    public void recordsConfirmedCulpritOnBisectedBuild() throws Exception {
+        givenVerificationOf(11, Result.UNSTABLE);
+        bisector.verify(build);
+        givenVerificationOf(10, Result.SUCCESS);
+        bisector.verify(build);
+        givenVerificationOf(11, Result.UNSTABLE);
+
+        assertThat(bisector.verify(build), is((Object) originalBuild));
+
+        assertThat(bisection.getCulprit(), is(11));
+        verify(changedRevisions, never()).narrowTo(any(Revisions.class));
+    }
+
+    @Test
+    public void schedulesNextVerificationWhenCulpritUnknown() throws Exception {
+        givenVerificationOf(11, Result.SUCCESS);
+
+        assertThat(bisector.verify(build), is(nullValue()));
+
+        verify(messenger).informBisecting("12", 12);
+    }
+
+    @Test
+    public void skipsVerificationBuildsWhenLookingForPreviousBuild() throws Exception {
+        when(originalBuild.getPreviousBuild()).thenReturn(build);
+        when(build.getCause(BisectionCause.class)).thenReturn(new BisectionCause(3, 10));
+        when(build.getPreviousBuild()).thenReturn(previousBuild);
+
+        assertThat(Bisector.previousBuildOf(originalBuild), is((Object) previousBuild));
+    }
+
+    private void givenVerificationOf(final int revision, final Result result) {
+        when(build.getCause(BisectionCause.class)).thenReturn(new BisectionCause(ORIGINAL_BUILD, revision));
+        when(build.getResult()).thenReturn(result);
+    }
+
+}
@@ -2,6 +2,8 @@ package jenkins.plugins.svn_revert;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
@@ -18,6 +20,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 
+import com.google.common.collect.Lists;
+
 @SuppressWarnings("rawtypes")
 public class BouncerTest extends AbstractMockitoTestCase {
 
@@ -33,6 +37,8 @@ public class BouncerTest extends AbstractMockitoTestCase {
     @Mock
     private FreeStyleBuild previousBuild;
     @Mock
+    private FreeStyleBuild bisectedBuild;
+    @Mock
     private SvnReverter reverter;
     @Mock
     private Messenger messenger;
@@ -51,9 +57,28 @@ public class BouncerTest extends AbstractMockitoTestCase {
     @Mock
     private ChangeLocator changeLocator;
     @Mock
+    private PathPolicy pathPolicy;
+    @Mock
     private CommitMessages commitMessages;
     @Mock
     private CommitCountRule commitCountRule;
+    @Mock
+    private ChangeSets changeSets;
+    @Mock
+    private DeferredDecisions deferredDecisions;
+    @Mock
+    private FailureBaseline failureBaseline;
+    @Mock
+    private FlakyTestFilter flakyTestFilter;
+    @Mock
+    private CulpritSelector culpritSelector;
+    @Mock
+    private ChangedRevisions changedRevisions;
+    @Mock
+    private Bisector bisector;
+
+    @Mock
+    private RevertPolicy policy;
 
     @Before
     public void setUp() throws Exception {
@@ -63,7 +88,10 @@ public class BouncerTest extends AbstractMockitoTestCase {
         when(build.getPreviousBuild()).thenReturn(previousBuild);
         when(previousBuild.isBuilding()).thenReturn(false);
         when(rootProject.getScm()).thenReturn(subversionScm);
-        when(changeLocator.changesOutsideWorkspace(subversionScm)).thenReturn(false);
+        when(changeLocator.locateChanges(subversionScm)).thenReturn(ChangeLocation.INSIDE_WORKSPACE);
+        when(policy.revertsOn(Result.UNSTABLE)).thenReturn(true);
+        when(policy.revertsOnlyOnUnstable()).thenReturn(true);
+        when(policy.getSkipMarkers()).thenReturn(Lists.newArrayList(REVERT));
         givenMayRevert();
     }
 
@@ -83,6 +111,17 @@ public class BouncerTest extends AbstractMockitoTestCase {
         verifyNotReverted();
     }
 
+    @Test
+    public void shouldRevertChangesSinceLastSuccessWhenPreviousBuildWasNotSuccess() throws Exception {
+        when(previousBuild.getResult()).thenReturn(NOT_SUCCESS);
+        when(changeSets.spansMultipleBuilds()).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(messenger).informIncludingChangesSinceLastSuccess();
+        verify(reverter).revert(subversionScm);
+    }
+
     @Test
     public void shouldNotRevertIfPreviousBuildIsBuilding() throws Exception {
         when(previousBuild.isBuilding()).thenReturn(true);
@@ -92,6 +131,18 @@ public class BouncerTest extends AbstractMockitoTestCase {
         verifyNotReverted();
     }
 
+    @Test
+    public void shouldDeferDecisionWhilePreviousBuildIsBuilding() throws Exception {
+        when(previousBuild.isBuilding()).thenReturn(true);
+        when(previousBuild.getNumber()).thenReturn(41);
+        when(policy.getDeferredDecisionTimeoutMillis()).thenReturn(60000L);
+
+        assertThat(throwOutIfUnstable(), is(true));
+
+        verify(deferredDecisions).defer(build, 60000L);
+        verify(messenger).informDeferredUntilPreviousBuildCompletes(41);
+    }
+
     @Test
     public void shouldNotRevertWhenBuildResultIsSuccess() throws Exception {
         when(build.getResult()).thenReturn(Result.SUCCESS);
@@ -121,11 +172,75 @@ public class BouncerTest extends AbstractMockitoTestCase {
 
     @Test
     public void shouldNotRevertIfChangesOutsideWorkspace() throws Exception {
-        when(changeLocator.changesOutsideWorkspace(subversionScm)).thenReturn(true);
+        when(changeLocator.locateChanges(subversionScm)).thenReturn(ChangeLocation.OUTSIDE_WORKSPACE);
+
+        throwOutIfUnstable();
+
+        verifyNotReverted();
+    }
+
+    @Test
+    public void shouldNotRevertButSayWhyIfChangeLocationUnknown() throws Exception {
+        when(changeLocator.locateChanges(subversionScm)).thenReturn(ChangeLocation.UNKNOWN);
+
+        throwOutIfUnstable();
+
+        verifyNotReverted();
+        verify(messenger).informChangeLocationUnknown();
+        verify(messenger, never()).informChangesOutsideWorkspace();
+    }
+
+    @Test
+    public void shouldRevertFailedBuildWhenConfiguredToRevertOnFailure() throws Exception {
+        when(build.getResult()).thenReturn(Result.FAILURE);
+        when(policy.revertsOn(Result.FAILURE)).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(reverter).revert(subversionScm);
+    }
+
+    @Test
+    public void shouldLogResultWhenNotConfiguredToRevertOnIt() throws Exception {
+        when(build.getResult()).thenReturn(Result.FAILURE);
+        when(policy.revertsOnlyOnUnstable()).thenReturn(false);
+
+        throwOutIfUnstable();
+
+        verifyNotReverted();
+        verify(messenger).informBuildStatusNotRevertedOn(Result.FAILURE);
+    }
+
+    @Test
+    public void shouldNotRevertWhenCommitsAffectTooManyFiles() throws Exception {
+        when(commitCountRule.tooManyAffectedFiles()).thenReturn(true);
+        when(policy.getMaxAffectedFiles()).thenReturn(50);
+
+        throwOutIfUnstable();
+
+        verifyNotReverted();
+        verify(messenger).informTooManyAffectedFiles(50);
+    }
+
+    @Test
+    public void shouldNotRevertWhenCommitMessageContainsConfiguredMarker() throws Exception {
+        when(policy.getSkipMarkers()).thenReturn(Lists.newArrayList(REVERT, "[no-revert]"));
+        when(commitMessages.anyMessageContains("[no-revert]")).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verifyNotReverted();
+        verify(messenger).informCommitMessageContains("[no-revert]");
+    }
+
+    @Test
+    public void shouldNotRevertWhenPathRulesBlockAChangedPath() throws Exception {
+        when(pathPolicy.firstBlockedPath()).thenReturn("/trunk/db/migrations/V1.sql");
 
         throwOutIfUnstable();
 
         verifyNotReverted();
+        verify(messenger).informPathNotRevertable("/trunk/db/migrations/V1.sql");
     }
 
     @Test
@@ -191,7 +306,7 @@ public class BouncerTest extends AbstractMockitoTestCase {
 
     @Test
     public void shouldLogWhenChangesOutsideWorkspace() throws Exception {
-        when(changeLocator.changesOutsideWorkspace(subversionScm)).thenReturn(true);
+        when(changeLocator.locateChanges(subversionScm)).thenReturn(ChangeLocation.OUTSIDE_WORKSPACE);
 
         throwOutIfUnstable();
 
@@ -272,6 +387,16 @@ public class BouncerTest extends AbstractMockitoTestCase {
         verify(claimer).claim(build);
     }
 
+    @Test
+    public void shouldClaimAndSendMailWhenRevertPartiallySucceeds() throws Exception {
+        when(reverter.revert(subversionScm)).thenReturn(SvnRevertStatus.REVERT_PARTIAL);
+
+        assertThat(throwOutIfUnstable(), is(true));
+
+        verify(claimer).claim(build);
+        verify(mailer).sendRevertMail(build);
+    }
+
     @Test
     public void shouldSendMailWhenRevertSucceeds() throws Exception {
         when(reverter.revert(subversionScm)).thenReturn(SvnRevertStatus.REVERT_SUCCESSFUL);
@@ -281,6 +406,25 @@ public class BouncerTest extends AbstractMockitoTestCase {
         verify(mailer).sendRevertMail(build);
     }
 
+    @Test
+    public void shouldLeaveJournalEntryToMailDigestWhenMailIsQueued() throws Exception {
+        when(reverter.revert(subversionScm)).thenReturn(SvnRevertStatus.REVERT_SUCCESSFUL);
+        when(mailer.sendRevertMail(build)).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(reverter, never()).notified();
+    }
+
+    @Test
+    public void shouldForgetJournalEntryWhenThereIsNobodyToMail() throws Exception {
+        when(reverter.revert(subversionScm)).thenReturn(SvnRevertStatus.REVERT_SUCCESSFUL);
+
+        throwOutIfUnstable();
+
+        verify(reverter).notified();
+    }
+
     @Test
     public void shouldNotClaimOrMailWhenRevertFails() throws Exception {
         when(reverter.revert(subversionScm)).thenReturn(SvnRevertStatus.REVERT_FAILED);
@@ -301,9 +445,147 @@ public class BouncerTest extends AbstractMockitoTestCase {
         verifyZeroInteractions(mailer);
     }
 
+    @Test
+    public void shouldOnlyPreviewWhenDryRun() throws Exception {
+        when(policy.isDryRun()).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(reverter).preview(subversionScm);
+        verifyNotReverted();
+        verifyZeroInteractions(claimer);
+        verifyZeroInteractions(mailer);
+    }
+
+    @Test
+    public void shouldFailBuildWhenDryRunFails() throws Exception {
+        when(policy.isDryRun()).thenReturn(true);
+        when(reverter.preview(subversionScm)).thenReturn(SvnRevertStatus.REVERT_FAILED);
+
+        assertThat(throwOutIfUnstable(), is(false));
+    }
+
+    @Test
+    public void shouldNotRevertWithoutNewFailures() throws Exception {
+        when(failureBaseline.noNewFailures()).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(messenger).informNoNewFailures();
+        verifyNotReverted();
+    }
+
+    @Test
+    public void shouldLookForNewFailuresEvenIfPreviousBuildWasNotSuccess() throws Exception {
+        when(previousBuild.getResult()).thenReturn(NOT_SUCCESS);
+        when(failureBaseline.noNewFailures()).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(messenger).informNoNewFailures();
+        verify(messenger, never()).informPreviousBuildStatusNotSuccess();
+    }
+
+    @Test
+    public void shouldNotRevertWhenOnlyFlakyTestsFail() throws Exception {
+        when(flakyTestFilter.onlyFlakyTestsFailing()).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(messenger).informOnlyFlakyTestsFailing();
+        verifyNotReverted();
+    }
+
+    @Test
+    public void shouldNotRevertWhenNoCommitIsRelatedToFailingTests() throws Exception {
+        when(culpritSelector.selectCulprits(subversionScm)).thenReturn(Revisions.create());
+
+        throwOutIfUnstable();
+
+        verify(messenger).informNoPlausibleCulprit();
+        verifyNotReverted();
+    }
+
+    @Test
+    public void shouldNarrowRevisionsToCulpritsBeforeReverting() throws Exception {
+        when(culpritSelector.selectCulprits(subversionScm)).thenReturn(Revisions.create(3));
+
+        throwOutIfUnstable();
+
+        verify(changedRevisions).narrowTo(Revisions.create(3));
+        verify(reverter).revert(subversionScm);
+    }
+
+    @Test
+    public void shouldBisectInsteadOfRevertingWhenPossible() throws Exception {
+        when(bisector.canBisect(build)).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(bisector).start(build, subversionScm);
+        verifyNotReverted();
+    }
+
+    @Test
+    public void shouldBisectEvenWhenTooManyChanges() throws Exception {
+        when(commitCountRule.tooManyChangesInBuild()).thenReturn(true);
+        when(bisector.canBisect(build)).thenReturn(true);
+
+        throwOutIfUnstable();
+
+        verify(messenger, never()).informTooManyChanges();
+        verify(bisector).start(build, subversionScm);
+    }
+
+    @Test
+    public void shouldDeferDecisionOnBisectedBuildWhenVerificationBuildConfirmsCulprit() throws Exception {
+        givenVerificationBuild();
+        when(bisector.verify(build)).thenReturn(bisectedBuild);
+        when(bisectedBuild.getNumber()).thenReturn(40);
+        when(policy.getDeferredDecisionTimeoutMillis()).thenReturn(60000L);
+
+        assertThat(throwOutIfUnstable(), is(true));
+
+        verify(deferredDecisions).defer(bisectedBuild, build, 60000L);
+        verify(messenger).informCulpritRevertDeferred(40);
+        verifyNotReverted();
+    }
+
+    @Test
+    public void shouldSkipVerificationBuildsWhenCheckingPreviousBuild() throws Exception {
+        givenMayRevert();
+        when(previousBuild.getCause(BisectionCause.class)).thenReturn(new BisectionCause(40, 11));
+        when(previousBuild.isBuilding()).thenReturn(true);
+        when(previousBuild.getPreviousBuild()).thenReturn(bisectedBuild);
+        when(bisectedBuild.getResult()).thenReturn(Result.SUCCESS);
+        when(reverter.revert(subversionScm)).thenReturn(SvnRevertStatus.REVERT_SUCCESSFUL);
+
+        throwOutIfUnstable();
+
+        verify(deferredDecisions, never()).defer(any(AbstractBuild.class), anyLong());
+        verify(reverter).revert(subversionScm);
+    }
+
+    @Test
+    public void shouldNotRevertVerificationBuildWithoutCulprit() throws Exception {
+        givenVerificationBuild();
+
+        assertThat(throwOutIfUnstable(), is(true));
+
+        verifyNotReverted();
+    }
+
+    private void givenVerificationBuild() throws Exception {
+        when(bisector.isVerificationBuild(build)).thenReturn(true);
+        when(build.getResult()).thenReturn(Result.SUCCESS);
+        when(previousBuild.getResult()).thenReturn(Result.UNSTABLE);
+    }
+
     private boolean throwOutIfUnstable() throws Exception {
-        return Bouncer.throwOutIfUnstable(build, launcher, messenger, reverter, claimer,
-                changeLocator, commitMessages, mailer, commitCountRule);
+        final RevertGates gates = new RevertGates(changeSets, failureBaseline, commitCountRule, flakyTestFilter,
+                commitMessages, changeLocator, pathPolicy);
+        return Bouncer.throwOutIfUnstable(build, launcher, messenger, reverter, claimer, mailer, gates,
+                culpritSelector, changedRevisions, deferredDecisions, bisector, policy);
     }
 
     private void givenNotSubversionScm() {
@@ -44,23 +44,23 @@ public class ChangeLocatorTest extends AbstractMockitoTestCase {
     }
 
     @Test
-    public void returnsFalseIfAllChangesInWorkspace() throws Exception {
+    public void locatesChangesInsideWorkspace() throws Exception {
         when(module.getRepositoryPath(build)).thenReturn("path/to/module");
         changedFilePaths.add("path/to/module/with_file.txt");
-        assertThat(changeLocator.changesOutsideWorkspace(subversionScm), is(false));
+        assertThat(changeLocator.locateChanges(subversionScm), is(ChangeLocation.INSIDE_WORKSPACE));
     }
 
     @Test
-    public void shouldReturnTrueWhenModuleThrowsException() throws Exception {
+    public void shouldReportUnknownLocationWhenModuleThrowsException() throws Exception {
         when(module.getRepositoryPath(build)).thenThrow(SVNException.class);
-        assertThat(changeLocator.changesOutsideWorkspace(subversionScm), is(true));
+        assertThat(changeLocator.locateChanges(subversionScm), is(ChangeLocation.UNKNOWN));
     }
 
     @Test
-    public void shouldReturnTrueWhenChangesNotInWorkspace() throws Exception {
+    public void locatesChangesOutsideWorkspace() throws Exception {
         when(module.getRepositoryPath(build)).thenReturn("path/to/module");
         changedFilePaths.add("otherModule");
-        assertThat(changeLocator.changesOutsideWorkspace(subversionScm), is(true));
+        assertThat(changeLocator.locateChanges(subversionScm), is(ChangeLocation.OUTSIDE_WORKSPACE));
     }
 
 }
@@ -0,0 +1,128 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import hudson.model.Result;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.scm.ChangeLogSet.Entry;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.jvnet.hudson.test.FakeChangeLogSCM.EntryImpl;
+import org.jvnet.hudson.test.FakeChangeLogSCM.FakeChangeLogSet;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class ChangeSetsTest extends AbstractMockitoTestCase {
+
+    @Mock
+    private AbstractProject project;
+
+    private AbstractBuild successfulBuild;
+    private AbstractBuild abortedBuild;
+    private AbstractBuild build;
+
+    @Before
+    public void setUp() throws Exception {
+        successfulBuild = givenBuild(1, null, Result.SUCCESS, 1);
+        abortedBuild = givenBuild(2, successfulBuild, Result.ABORTED, 2, 3);
+        build = givenBuild(3, abortedBuild, Result.UNSTABLE, 3, 4);
+    }
+
+    @Test
+    public void includesOnlyOwnCommitsByDefault() throws Exception {
+        final ChangeSets changeSets = ChangeSets.of(build);
+
+        assertThat(changeSets.spansMultipleBuilds(), is(false));
+        assertThat(commitIds(changeSets), contains("3", "4"));
+    }
+
+    @Test
+    public void includesCommitsOfAllBuildsSinceLastSuccess() throws Exception {
+        final ChangeSets changeSets = new ChangeSets(build, 5);
+
+        assertThat(changeSets.spansMultipleBuilds(), is(true));
+        assertThat(commitIds(changeSets), contains("2", "3", "4"));
+    }
+
+    @Test
+    public void includesOnlyOwnCommitsWhenLastSuccessBeyondLimit() throws Exception {
+        final ChangeSets changeSets = new ChangeSets(build, 1);
+
+        assertThat(changeSets.spansMultipleBuilds(), is(false));
+        assertThat(commitIds(changeSets), contains("3", "4"));
+    }
+
+    @Test
+    public void usesLastStableBuildToStopEarly() throws Exception {
+        final AbstractBuild olderSuccessfulBuild = givenBuild(-5, null, Result.SUCCESS);
+        when(project.getLastStableBuild()).thenReturn(olderSuccessfulBuild);
+
+        assertThat(new ChangeSets(build, 5).spansMultipleBuilds(), is(false));
+    }
+
+    @Test
+    public void includesOnlyOwnCommitsWithoutSuccessfulBuild() throws Exception {
+        when(successfulBuild.getResult()).thenReturn(Result.FAILURE);
+
+        assertThat(new ChangeSets(build, 5).spansMultipleBuilds(), is(false));
+    }
+
+    @Test
+    public void startsAtFirstBuildAfterLastSuccess() throws Exception {
+        assertThat(new ChangeSets(build, 5).getEarliestBuild(), is((Object) abortedBuild));
+        assertThat(ChangeSets.of(build).getEarliestBuild(), is((Object) build));
+    }
+
+    @Test
+    public void narrowsToSingleCommit() throws Exception {
+        final ChangeSets changeSets = new ChangeSets(build, 5).narrowTo("3");
+
+        assertThat(changeSets.size(), is(1));
+        assertThat(commitIds(changeSets), contains("3"));
+    }
+
+    @Test
+    public void leavesOutCommitsOfBisectedBuildAfterVerificationBuilds() throws Exception {
+        final AbstractBuild verificationBuild = givenBuild(4, build, Result.SUCCESS);
+        when(verificationBuild.getCause(BisectionCause.class)).thenReturn(new BisectionCause(3, 3));
+        when(project.getBuildByNumber(3)).thenReturn(build);
+        final AbstractBuild nextBuild = givenBuild(5, verificationBuild, Result.UNSTABLE, 3, 4, 5);
+
+        assertThat(commitIds(ChangeSets.of(nextBuild)), contains("5"));
+    }
+
+    private AbstractBuild givenBuild(final int number, final AbstractBuild previous, final Result result,
+            final int... revisions) {
+        final AbstractBuild newBuild = mock(AbstractBuild.class);
+        final List<EntryImpl> entries = Lists.newLinkedList();
+        for (final int revision : revisions) {
+            final EntryImpl entry = mock(EntryImpl.class);
+            when(entry.getCommitId()).thenReturn(String.valueOf(revision));
+            entries.add(entry);
+        }
+        when(newBuild.getNumber()).thenReturn(number);
+        when(newBuild.getProject()).thenReturn(project);
+        when(newBuild.getPreviousBuild()).thenReturn(previous);
+        when(newBuild.getResult()).thenReturn(result);
+        when(newBuild.getChangeSet()).thenReturn(new FakeChangeLogSet(newBuild, entries));
+        return newBuild;
+    }
+
+    private static List<String> commitIds(final ChangeSets changeSets) {
+        final List<String> commitIds = Lists.newArrayList();
+        for (final Entry entry : changeSets.getEntries()) {
+            commitIds.add(entry.getCommitId());
+        }
+        return commitIds;
+    }
+
+}
@@ -32,6 +32,8 @@ public class ChangedFilesTest extends AbstractMockitoTestCase {
     @Mock
     private EntryImpl entry;
     @Mock
+    private EntryImpl entryInOtherRepository;
+    @Mock
     private AffectedFile affectedFile1;
     @Mock
     private AffectedFile affectedFile2;
@@ -50,7 +52,7 @@ public class ChangedFilesTest extends AbstractMockitoTestCase {
         affectedFiles.add(affectedFile1);
         when(affectedFile2.getPath()).thenReturn(FILE_2);
         when(build.getChangeSet()).thenReturn(changeLogSet);
-        changedFiles = new ChangedFiles(build);
+        changedFiles = new ChangedFiles(ChangeSets.of(build));
     }
 
     @Test
@@ -63,4 +65,18 @@ public class ChangedFilesTest extends AbstractMockitoTestCase {
             assertThat(actualFilenames, equalTo(expectedFilenames));
         }
 
+    @Test
+    public void keepsChangesOfRepositoriesSharingRevisionNumber() throws Exception {
+        entries.add(entryInOtherRepository);
+        when(entryInOtherRepository.getAffectedFiles()).thenReturn(Lists.newArrayList(affectedFile2));
+        when(entry.getCommitId()).thenReturn("7");
+        when(entryInOtherRepository.getCommitId()).thenReturn("7");
+        when(entry.getMsg()).thenReturn("change in first repository");
+        when(entryInOtherRepository.getMsg()).thenReturn("change in second repository\n");
+
+        assertThat(changedFiles.getMessagesByRevision().get(7), equalTo((List<String>) Lists.newArrayList(
+                "change in first repository", "change in second repository")));
+        assertThat(changedFiles.getRepositoryPathsByRevision().get(7).size(), equalTo(3));
+    }
+
 }
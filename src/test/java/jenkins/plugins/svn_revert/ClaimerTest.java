@@ -26,7 +26,7 @@ public class ClaimerTest extends AbstractMockitoTestCase {
     @Before
     public void setup() throws Exception {
         when(build.getAction(ClaimBuildAction.class)).thenReturn(claimBuildAction);
-        claimer = new Claimer(changedRevisions, true);
+        claimer = new Claimer(changedRevisions, true, NotificationTemplates.DEFAULTS);
     }
 
     @Test
@@ -62,7 +62,7 @@ public class ClaimerTest extends AbstractMockitoTestCase {
     }
 
     private void givenClaimPluginNotPresent() {
-        claimer = new Claimer(changedRevisions, false);
+        claimer = new Claimer(changedRevisions, false, NotificationTemplates.DEFAULTS);
         when(build.getAction(ClaimBuildAction.class)).thenThrow(NoClassDefFoundError.class);
     }
 
@@ -2,11 +2,14 @@ package jenkins.plugins.svn_revert;
 
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import hudson.model.AbstractBuild;
 import hudson.scm.ChangeLogSet;
 
 import java.util.LinkedList;
+import java.util.List;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -71,12 +74,40 @@ public class CommitCountRuleTest extends AbstractMockitoTestCase {
         assertThat(commitCountRule.tooManyChangesInBuild(), is(true));
     }
 
+    @Test
+    public void changesTooManyWhenMoreThanMaxCommits() throws Exception {
+        commitCountRule = new CommitCountRule(ChangeSets.of(build), true, 1);
+        givenMultipleCommitsInChanges();
+
+        assertThat(commitCountRule.tooManyChangesInBuild(), is(true));
+    }
+
+    @Test
+    public void affectsTooManyFilesWhenMoreThanMaxAffectedFiles() throws Exception {
+        final ChangeSets changeSets = mock(ChangeSets.class);
+        when(changeSets.getEntries()).thenReturn(Lists.<ChangeLogSet.Entry>newArrayList(
+                entryAffecting(2), entryAffecting(2)));
+
+        assertThat(new CommitCountRule(changeSets, true, 10, 4).tooManyAffectedFiles(), is(false));
+        assertThat(new CommitCountRule(changeSets, true, 10, 3).tooManyAffectedFiles(), is(true));
+    }
+
+    private static ChangeLogSet.Entry entryAffecting(final int files) {
+        final ChangeLogSet.Entry entry = mock(ChangeLogSet.Entry.class);
+        final List<ChangeLogSet.AffectedFile> affectedFiles = Lists.newArrayList();
+        for (int i = 0; i < files; i++) {
+            affectedFiles.add(mock(ChangeLogSet.AffectedFile.class));
+        }
+        doReturn(affectedFiles).when(entry).getAffectedFiles();
+        return entry;
+    }
+
     private void givenWillNotRevertMultipleCommits() {
-        commitCountRule = new CommitCountRule(build, false);
+        commitCountRule = new CommitCountRule(ChangeSets.of(build), false);
     }
 
     private void givenWillRevertMultipleCommits() {
-        commitCountRule = new CommitCountRule(build, true);
+        commitCountRule = new CommitCountRule(ChangeSets.of(build), true);
     }
 
     private void givenMultipleCommitsInChanges() {
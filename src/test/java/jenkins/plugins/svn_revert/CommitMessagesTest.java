@@ -33,7 +33,7 @@ public class CommitMessagesTest extends AbstractMockitoTestCase {
     @Before
     public void setUp() throws Exception {
         when(build.getChangeSet()).thenReturn(changeLogSet);
-        commitMessages = new CommitMessages(build);
+        commitMessages = new CommitMessages(ChangeSets.of(build));
     }
 
     @Test
@@ -0,0 +1,99 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.scm.SubversionSCM;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+@SuppressWarnings("rawtypes")
+public class CulpritSelectorTest extends AbstractMockitoTestCase {
+
+    private CulpritSelector culpritSelector;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private AbstractBuild build;
+    @Mock
+    private AbstractProject project;
+    @Mock
+    private FailingTests failingTests;
+    @Mock
+    private ChangedFiles changedFiles;
+    @Mock
+    private ModuleFinder locationFinder;
+    @Mock
+    private SubversionSCM subversionScm;
+    @Mock
+    private Module module;
+
+    private final Map<String, String> failing = Maps.newHashMap();
+    private final Map<Integer, List<String>> pathsByRevision = Maps.newLinkedHashMap();
+    private final List<Module> modules = Lists.newArrayList();
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        when(build.getProject()).thenReturn(project);
+        when(project.getRootProject()).thenReturn(project);
+        when(project.getFullName()).thenReturn("job-" + System.nanoTime());
+        when(project.getRootDir()).thenReturn(folder.getRoot());
+        when(failingTests.getReportFilesByClass()).thenReturn(failing);
+        when(changedFiles.getRepositoryPathsByRevision()).thenReturn(pathsByRevision);
+        modules.add(module);
+        when(module.getModuleRoot(build)).thenReturn(new File("/workspace/module1"));
+        when(module.getRepositoryPath(build)).thenReturn("/trunk/module1");
+        when(locationFinder.getModules(subversionScm)).thenReturn(modules);
+        culpritSelector = new CulpritSelector(build, true, failingTests, changedFiles, locationFinder);
+    }
+
+    @Test
+    public void narrowsToCommitsRelatedToFailingTests() throws Exception {
+        failing.put("com.example.FooTest", null);
+        pathsByRevision.put(3, Lists.newArrayList("/trunk/module1/src/main/java/com/example/Foo.java"));
+        pathsByRevision.put(4, Lists.newArrayList("/trunk/module1/src/main/java/org/example/Bar.java"));
+
+        assertThat(culpritSelector.selectCulprits(subversionScm), is(Revisions.create(3)));
+    }
+
+    @Test
+    public void findsNoCulpritWhenNoCommitIsRelated() throws Exception {
+        failing.put("com.example.FooTest", null);
+        pathsByRevision.put(4, Lists.newArrayList("/trunk/module1/src/main/java/org/example/Bar.java"));
+
+        assertThat(culpritSelector.selectCulprits(subversionScm).count(), is(0));
+    }
+
+    @Test
+    public void keepsAllCommitsWhenNoTestsFail() throws Exception {
+        pathsByRevision.put(4, Lists.newArrayList("/trunk/module1/src/main/java/org/example/Bar.java"));
+
+        assertThat(culpritSelector.selectCulprits(subversionScm), is(nullValue()));
+    }
+
+    @Test
+    public void keepsAllCommitsWhenDisabled() throws Exception {
+        culpritSelector = new CulpritSelector(build, false, failingTests, changedFiles, locationFinder);
+        failing.put("com.example.FooTest", null);
+
+        assertThat(culpritSelector.selectCulprits(subversionScm), is(nullValue()));
+    }
+
+}
@@ -0,0 +1,46 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class DeferredDecisionsTest {
+
+    private final DeferredDecisions decisions = new DeferredDecisions();
+
+    @Test
+    public void findsDecisionsByDeferringOrAwaitedBuild() throws Exception {
+        decisions.defer("job#2", "job#1", 0L, 1000L);
+
+        assertThat(decisions.involving("job#1"), hasSize(1));
+        assertThat(decisions.involving("job#2"), hasSize(1));
+        assertThat(decisions.involving("job#3"), is(empty()));
+    }
+
+    @Test
+    public void letsOnlyOneCallerTakeDecision() throws Exception {
+        decisions.defer("job#2", "job#1", 0L, 1000L);
+
+        assertThat(decisions.remove("job#2"), is(true));
+        assertThat(decisions.remove("job#2"), is(false));
+    }
+
+    @Test
+    public void removesExpiredDecisions() throws Exception {
+        decisions.defer("job#2", "job#1", 0L, 1000L);
+        decisions.defer("job#4", "job#3", 0L, 3000L);
+
+        final List<DeferredDecisions.Pending> expired = decisions.removeExpired(2000L);
+        assertThat(expired, hasSize(1));
+        assertThat(expired.get(0).getBuildId(), is("job#2"));
+        assertThat(expired.get(0).getTimeoutMillis(), is(1000L));
+        assertThat(decisions.involving("job#1"), is(empty()));
+        assertThat(decisions.involving("job#3"), hasSize(1));
+    }
+
+}
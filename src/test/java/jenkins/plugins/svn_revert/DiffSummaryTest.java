@@ -0,0 +1,175 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.SVNDirEntry;
+import org.tmatesoft.svn.core.SVNNodeKind;
+import org.tmatesoft.svn.core.SVNProperties;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.wc.ISVNDiffStatusHandler;
+import org.tmatesoft.svn.core.wc.SVNDiffStatus;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+
+@SuppressWarnings("unchecked")
+public class DiffSummaryTest extends AbstractMockitoTestCase {
+
+    private static final long OLDER = 10;
+    private static final long NEWER = 12;
+
+    @Mock
+    private SVNRepository repository;
+    @Mock
+    private SVNDiffStatus modifiedFile;
+    @Mock
+    private SVNDiffStatus deletedFile;
+    @Mock
+    private SVNDiffStatus directory;
+    @Mock
+    private SVNDiffStatus modifiedFileInOtherModule;
+    @Mock
+    private SVNRepository otherModule;
+    @Mock
+    private SVNDirEntry modifiedEntry;
+    @Mock
+    private SVNDirEntry deletedEntry;
+
+    @Test
+    public void sumsPathsAndSizesAtRevisionWhereFileExists() throws Exception {
+        givenStatuses();
+        final DiffSummary summary = new DiffSummary(RevertSizeLimit.NONE);
+        final ISVNDiffStatusHandler handler = summary.forRange(repository, OLDER, NEWER);
+
+        handler.handleDiffStatus(modifiedFile);
+        handler.handleDiffStatus(deletedFile);
+        handler.handleDiffStatus(directory);
+        summary.sumSizes();
+
+        assertThat(summary.getPaths(), is(3));
+        assertThat(summary.getBytes(), is(300L));
+        assertThat(summary.isOverLimit(), is(false));
+    }
+
+    @Test
+    public void stopsWithoutLookingUpSizesOncePathLimitIsExceeded() throws Exception {
+        givenStatuses();
+        final DiffSummary summary = new DiffSummary(new RevertSizeLimit(1, Long.MAX_VALUE));
+        final ISVNDiffStatusHandler handler = summary.forRange(repository, OLDER, NEWER);
+        handler.handleDiffStatus(modifiedFile);
+
+        try {
+            handler.handleDiffStatus(deletedFile);
+            fail("Expected the diff to be cancelled");
+        } catch (final SVNCancelException e) {
+            assertThat(summary.isOverLimit(), is(true));
+        }
+        verify(repository, never()).info(anyString(), anyLong());
+    }
+
+    @Test
+    public void stopsLookingUpSizesOnceSizeLimitIsExceeded() throws Exception {
+        givenStatuses();
+        final DiffSummary summary = new DiffSummary(new RevertSizeLimit(10, 50));
+        final ISVNDiffStatusHandler handler = summary.forRange(repository, OLDER, NEWER);
+        handler.handleDiffStatus(modifiedFile);
+        handler.handleDiffStatus(deletedFile);
+
+        summary.sumSizes();
+
+        assertThat(summary.isOverLimit(), is(true));
+        verify(repository, never()).info("deleted.txt", OLDER);
+    }
+
+    @Test
+    public void listsDirectoryOnceForSeveralFilesInIt() throws Exception {
+        givenStatuses();
+        final SVNDiffStatus otherFile = givenFileStatus("lib/other.txt");
+        final SVNDiffStatus libFile = givenFileStatus("lib/modified.txt");
+        final SVNDirEntry otherEntry = mock(SVNDirEntry.class);
+        when(otherEntry.getName()).thenReturn("other.txt");
+        when(otherEntry.getSize()).thenReturn(5L);
+        when(modifiedEntry.getName()).thenReturn("modified.txt");
+        doAnswer(new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) throws Throwable {
+                final Collection<Object> entries = (Collection<Object>) invocation.getArguments()[4];
+                entries.add(modifiedEntry);
+                entries.add(otherEntry);
+                return entries;
+            }
+        }).when(repository).getDir(eq("lib"), eq(NEWER), any(SVNProperties.class), anyInt(), any(Collection.class));
+        final DiffSummary summary = new DiffSummary(RevertSizeLimit.NONE);
+        final ISVNDiffStatusHandler handler = summary.forRange(repository, OLDER, NEWER);
+        handler.handleDiffStatus(libFile);
+        handler.handleDiffStatus(otherFile);
+
+        summary.sumSizes();
+
+        assertThat(summary.getBytes(), is(105L));
+        verify(repository, never()).info(anyString(), anyLong());
+    }
+
+    @Test
+    public void countsPathChangedInSeveralRangesOrModulesOnce() throws Exception {
+        givenStatuses();
+        final DiffSummary summary = new DiffSummary(RevertSizeLimit.NONE);
+
+        summary.forRange(repository, OLDER, NEWER).handleDiffStatus(modifiedFile);
+        summary.forRange(repository, OLDER - 2, OLDER - 1).handleDiffStatus(modifiedFile);
+        summary.forRange(otherModule, OLDER, NEWER).handleDiffStatus(modifiedFileInOtherModule);
+        summary.sumSizes();
+
+        assertThat(summary.getPaths(), is(1));
+        assertThat(summary.getBytes(), is(100L));
+    }
+
+    private static SVNDiffStatus givenFileStatus(final String path) throws Exception {
+        final SVNDiffStatus status = mock(SVNDiffStatus.class);
+        when(status.getURL()).thenReturn(SVNURL.parseURIEncoded("file:///repo/" + path));
+        when(status.getKind()).thenReturn(SVNNodeKind.FILE);
+        when(status.getModificationType()).thenReturn(SVNStatusType.STATUS_MODIFIED);
+        when(status.getPath()).thenReturn(path);
+        return status;
+    }
+
+    private void givenStatuses() throws Exception {
+        when(modifiedFileInOtherModule.getKind()).thenReturn(SVNNodeKind.FILE);
+        when(modifiedFileInOtherModule.getPath()).thenReturn("lib/modified.txt");
+        when(modifiedFileInOtherModule.getURL()).thenReturn(SVNURL.parseURIEncoded("file:///repo/lib/modified.txt"));
+        when(modifiedFile.getURL()).thenReturn(SVNURL.parseURIEncoded("file:///repo/lib/modified.txt"));
+        when(deletedFile.getURL()).thenReturn(SVNURL.parseURIEncoded("file:///repo/deleted.txt"));
+        when(directory.getURL()).thenReturn(SVNURL.parseURIEncoded("file:///repo/dir"));
+        when(modifiedFile.getKind()).thenReturn(SVNNodeKind.FILE);
+        when(modifiedFile.getModificationType()).thenReturn(SVNStatusType.STATUS_MODIFIED);
+        when(modifiedFile.getPath()).thenReturn("modified.txt");
+        when(deletedFile.getKind()).thenReturn(SVNNodeKind.FILE);
+        when(deletedFile.getModificationType()).thenReturn(SVNStatusType.STATUS_DELETED);
+        when(deletedFile.getPath()).thenReturn("deleted.txt");
+        when(directory.getKind()).thenReturn(SVNNodeKind.DIR);
+        when(directory.getPath()).thenReturn("dir");
+        when(modifiedEntry.getSize()).thenReturn(100L);
+        when(deletedEntry.getSize()).thenReturn(200L);
+        when(repository.info("modified.txt", NEWER)).thenReturn(modifiedEntry);
+        when(repository.info("deleted.txt", OLDER)).thenReturn(deletedEntry);
+    }
+
+}
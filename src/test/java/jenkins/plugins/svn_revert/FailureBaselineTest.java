@@ -0,0 +1,127 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import hudson.model.AbstractBuild;
+import hudson.tasks.test.AbstractTestResultAction;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.collect.Sets;
+
+@SuppressWarnings("rawtypes")
+public class FailureBaselineTest extends AbstractMockitoTestCase {
+
+    private static final String OLD_FAILURE = "com.example.FooTest.old";
+    private static final String NEW_FAILURE = "com.example.FooTest.new";
+
+    private FailureBaseline failureBaseline;
+
+    @Mock
+    private AbstractBuild build;
+    @Mock
+    private AbstractBuild previousBuild;
+    @Mock
+    private ChangeSets changeSets;
+    @Mock
+    private AbstractTestResultAction testResults;
+
+    @SuppressWarnings("unchecked")
+    @Before
+    public void setUp() throws Exception {
+        when(changeSets.getEarliestBuild()).thenReturn(build);
+        when(build.getAction(AbstractTestResultAction.class)).thenReturn(testResults);
+        when(build.getPreviousBuild()).thenReturn(previousBuild);
+        when(previousBuild.getAction(AbstractTestResultAction.class)).thenReturn(testResults);
+        givenFailures(previousBuild, OLD_FAILURE);
+        failureBaseline = new FailureBaseline(build, changeSets);
+    }
+
+    @Test
+    public void findsNoNewFailuresWhenAllFailedBefore() throws Exception {
+        givenFailures(build, OLD_FAILURE);
+
+        assertThat(failureBaseline.noNewFailures(), is(true));
+    }
+
+    @Test
+    public void findsNewFailure() throws Exception {
+        givenFailures(build, OLD_FAILURE, NEW_FAILURE);
+
+        assertThat(failureBaseline.noNewFailures(), is(false));
+    }
+
+    @Test
+    public void doesNotBlockBuildWithoutFailingTests() throws Exception {
+        givenFailures(build);
+
+        assertThat(failureBaseline.noNewFailures(), is(false));
+    }
+
+    @Test
+    public void doesNotBlockBuildWithoutTestResults() throws Exception {
+        givenFailures(build, OLD_FAILURE);
+        when(build.getAction(AbstractTestResultAction.class)).thenReturn(null);
+
+        assertThat(failureBaseline.noNewFailures(), is(false));
+    }
+
+    @Test
+    public void doesNotBlockWithoutEarlierBuild() throws Exception {
+        givenFailures(build, OLD_FAILURE);
+        when(build.getPreviousBuild()).thenReturn(null);
+
+        assertThat(failureBaseline.noNewFailures(), is(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void skipsEarlierBuildsWithoutTestResults() throws Exception {
+        final AbstractBuild brokenBuild = mock(AbstractBuild.class);
+        when(build.getPreviousBuild()).thenReturn(brokenBuild);
+        when(brokenBuild.getPreviousBuild()).thenReturn(previousBuild);
+        givenFailures(build, OLD_FAILURE);
+
+        assertThat(failureBaseline.noNewFailures(), is(true));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void comparesWithBuildBeforeEarliestIncludedBuild() throws Exception {
+        final AbstractBuild includedBuild = mock(AbstractBuild.class);
+        when(changeSets.getEarliestBuild()).thenReturn(includedBuild);
+        when(includedBuild.getPreviousBuild()).thenReturn(previousBuild);
+        givenFailures(build, OLD_FAILURE);
+
+        assertThat(failureBaseline.noNewFailures(), is(true));
+        verify(includedBuild, never()).getAction(FailedTestHashesAction.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void looksBackAtMostMaxLookbackBuilds() throws Exception {
+        AbstractBuild newer = build;
+        for (int i = 0; i < FailureBaseline.MAX_LOOKBACK; i++) {
+            final AbstractBuild brokenBuild = mock(AbstractBuild.class);
+            when(newer.getPreviousBuild()).thenReturn(brokenBuild);
+            newer = brokenBuild;
+        }
+        when(newer.getPreviousBuild()).thenReturn(previousBuild);
+        givenFailures(build, OLD_FAILURE);
+
+        assertThat(failureBaseline.noNewFailures(), is(false));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenFailures(final AbstractBuild failingBuild, final String... tests) {
+        when(failingBuild.getAction(FailedTestHashesAction.class))
+                .thenReturn(FailedTestHashesAction.of(Sets.newHashSet(tests)));
+    }
+
+}
@@ -0,0 +1,110 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import hudson.XmlFile;
+
+import java.io.File;
+import java.util.Set;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Sets;
+
+public class FlakinessModelTest {
+
+    private static final String FLAKY = "com.example.FooTest.flaky";
+    private static final String STABLE = "com.example.FooTest.stable";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final FlakinessModel model = FlakinessModel.forJob("job-" + System.nanoTime(), null);
+
+    @Test
+    public void sharesModelPerJob() throws Exception {
+        assertThat(FlakinessModel.forJob("shared", null), is(sameInstance(FlakinessModel.forJob("shared", null))));
+    }
+
+    @Test
+    public void keepsModelInFileOfJob() throws Exception {
+        final XmlFile file = new XmlFile(new File(folder.getRoot(), "model.xml"));
+        final FlakinessModel saved = FlakinessModel.forJob("saved-" + System.nanoTime(), file);
+        for (int build = 1; build <= 10; build++) {
+            saved.observe(build, build % 2 == 0 ? failing(FLAKY) : failing());
+        }
+        saved.save();
+
+        final FlakinessModel loaded = FlakinessModel.forJob("loaded-" + System.nanoTime(), file);
+
+        assertThat(loaded.getLastObservedBuild(), is(10));
+        assertThat(loaded.getScore(FLAKY), is(closeTo(0.9, 0.001)));
+    }
+
+    @Test
+    public void forgetsModelOfDeletedJob() throws Exception {
+        final FlakinessModel deleted = FlakinessModel.forJob("deleted", null);
+
+        FlakinessModel.forget("deleted");
+
+        assertThat(FlakinessModel.forJob("deleted", null), is(not(sameInstance(deleted))));
+    }
+
+    @Test
+    public void scoresFlipsPerObservedBuild() throws Exception {
+        for (int build = 1; build <= 10; build++) {
+            model.observe(build, build % 2 == 0 ? failing(FLAKY) : failing());
+        }
+
+        assertThat(model.getScore(FLAKY), is(closeTo(0.9, 0.001)));
+        assertThat(model.getScore(STABLE), is(closeTo(0.0, 0.001)));
+    }
+
+    @Test
+    public void forgetsFlipsOlderThanWindow() throws Exception {
+        for (int build = 1; build <= 10; build++) {
+            model.observe(build, build % 2 == 0 ? failing(FLAKY) : failing());
+        }
+        for (int build = 11; build <= 10 + FlakinessModel.WINDOW; build++) {
+            model.observe(build, failing());
+        }
+
+        assertThat(model.getScore(FLAKY), is(closeTo(0.0, 0.001)));
+    }
+
+    @Test
+    public void scoresZeroUntilEnoughBuildsObserved() throws Exception {
+        model.observe(1, failing(FLAKY));
+
+        assertThat(model.getScore(FLAKY), is(0.0));
+    }
+
+    @Test
+    public void ignoresBuildsAlreadyObserved() throws Exception {
+        for (int build = 1; build <= FlakinessModel.MIN_OBSERVED_BUILDS; build++) {
+            model.observe(build, failing());
+        }
+        model.observe(3, failing(FLAKY));
+
+        assertThat(model.getScore(FLAKY), is(0.0));
+        assertThat(model.getLastObservedBuild(), is(FlakinessModel.MIN_OBSERVED_BUILDS));
+    }
+
+    @Test
+    public void remembersPreviousFailures() throws Exception {
+        model.observe(1, failing(FLAKY));
+
+        assertThat(model.getPreviousFailures(), is(failing(FLAKY)));
+    }
+
+    private static Set<String> failing(final String... tests) {
+        return Sets.newHashSet(tests);
+    }
+
+}
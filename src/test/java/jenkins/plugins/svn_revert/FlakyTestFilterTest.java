@@ -0,0 +1,120 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import hudson.model.Result;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mock;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class FlakyTestFilterTest extends AbstractMockitoTestCase {
+
+    private static final String FLAKY = "com.example.FooTest.flaky";
+    private static final String BROKEN = "com.example.FooTest.broken";
+    private static final double THRESHOLD = 0.3;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Mock
+    private AbstractProject project;
+
+    private final Map<AbstractBuild, Set<String>> failures = Maps.newHashMap();
+    private AbstractBuild build;
+    private AbstractBuild firstBuild;
+
+    @Before
+    public void setUp() throws Exception {
+        when(project.getRootProject()).thenReturn(project);
+        when(project.getFullName()).thenReturn("job-" + System.nanoTime());
+        when(project.getRootDir()).thenReturn(folder.getRoot());
+        AbstractBuild previous = null;
+        for (int number = 1; number <= 10; number++) {
+            previous = givenBuild(number, previous, number % 2 == 1 ? failing(FLAKY) : failing());
+            if (number == 1) {
+                firstBuild = previous;
+            }
+        }
+        build = givenBuild(11, previous, failing());
+    }
+
+    @Test
+    public void detectsBuildFailingOnlyInFlakyTests() throws Exception {
+        failures.put(build, failing(FLAKY));
+
+        assertThat(filter(true).onlyFlakyTestsFailing(), is(true));
+    }
+
+    @Test
+    public void doesNotSkipNewFailureInStableTest() throws Exception {
+        failures.put(build, failing(FLAKY, BROKEN));
+
+        assertThat(filter(true).onlyFlakyTestsFailing(), is(false));
+    }
+
+    @Test
+    public void doesNotSkipWithoutNewFailures() throws Exception {
+        assertThat(filter(true).onlyFlakyTestsFailing(), is(false));
+    }
+
+    @Test
+    public void doesNotSkipWhenDisabled() throws Exception {
+        failures.put(build, failing(FLAKY));
+
+        assertThat(filter(false).onlyFlakyTestsFailing(), is(false));
+    }
+
+    @Test
+    public void looksBackAtMostMaxHistoryBuilds() throws Exception {
+        AbstractBuild previous = build;
+        for (int number = 12; number <= 11 + FlakyTestFilter.MAX_HISTORY; number++) {
+            previous = givenBuild(number, previous, failing());
+            when(previous.getResult()).thenReturn(Result.FAILURE);
+        }
+        build = givenBuild(12 + FlakyTestFilter.MAX_HISTORY, previous, failing(FLAKY));
+
+        filter(true).onlyFlakyTestsFailing();
+
+        verify(firstBuild, never()).getResult();
+    }
+
+    private FlakyTestFilter filter(final boolean enabled) {
+        return new FlakyTestFilter(build, enabled, THRESHOLD) {
+            @Override
+            Set<String> failuresIn(final AbstractBuild<?, ?> completed) {
+                return failures.get(completed);
+            }
+        };
+    }
+
+    private AbstractBuild givenBuild(final int number, final AbstractBuild previous, final Set<String> failing) {
+        final AbstractBuild newBuild = mock(AbstractBuild.class);
+        when(newBuild.getNumber()).thenReturn(number);
+        when(newBuild.getProject()).thenReturn(project);
+        when(newBuild.getPreviousBuild()).thenReturn(previous);
+        when(newBuild.getResult()).thenReturn(failing.isEmpty() ? Result.SUCCESS : Result.UNSTABLE);
+        failures.put(newBuild, failing);
+        return newBuild;
+    }
+
+    private static Set<String> failing(final String... tests) {
+        return Sets.newHashSet(tests);
+    }
+
+}
@@ -0,0 +1,61 @@
+package jenkins.plugins.svn_revert;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import hudson.Launcher;
+import hudson.matrix.MatrixBuild;
+import hudson.matrix.MatrixRun;
+import hudson.model.BuildListener;
+import hudson.model.Result;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+
+public class MatrixRevertAggregatorTest extends AbstractMockitoTestCase {
+
+    private MatrixRevertAggregator aggregator;
+
+    @Mock
+    private JenkinsGlue glue;
+    @Mock
+    private MatrixBuild build;
+    @Mock
+    private Launcher launcher;
+    @Mock
+    private BuildListener listener;
+    @Mock
+    private MatrixRun stableRun;
+    @Mock
+    private MatrixRun unstableRun;
+
+    @Before
+    public void setUp() throws Exception {
+        when(stableRun.getResult()).thenReturn(Result.SUCCESS);
+        when(unstableRun.getResult()).thenReturn(Result.UNSTABLE);
+        when(build.getExactRuns()).thenReturn(Lists.newArrayList(stableRun, unstableRun));
+        aggregator = new MatrixRevertAggregator(glue, build, launcher, listener);
+    }
+
+    @Test
+    public void decidesOnceOnParentBuild() throws Exception {
+        when(build.getResult()).thenReturn(Result.UNSTABLE);
+
+        aggregator.endBuild();
+
+        verify(glue).perform(build, launcher, listener);
+        verify(build, never()).setResult(Result.UNSTABLE);
+    }
+
+    @Test
+    public void usesWorstConfigurationResultWhenParentHasNone() throws Exception {
+        aggregator.endBuild();
+
+        verify(build).setResult(Result.UNSTABLE);
+        verify(glue).perform(build, launcher, listener);
+    }
+
+}
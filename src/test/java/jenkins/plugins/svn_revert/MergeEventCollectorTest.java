@@ -0,0 +1,103 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.tmatesoft.svn.core.ISVNCanceller;
+import org.tmatesoft.svn.core.SVNCancelException;
+import org.tmatesoft.svn.core.wc.SVNEvent;
+import org.tmatesoft.svn.core.wc.SVNEventAction;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+
+public class MergeEventCollectorTest extends AbstractMockitoTestCase {
+
+    private final File file = new File("module1/file.txt");
+
+    private MergeEventCollector collector;
+
+    @Mock
+    private SVNEvent event;
+
+    @Before
+    public void setUp() throws Exception {
+        when(event.getFile()).thenReturn(file);
+        collector = new MergeEventCollector();
+    }
+
+    @Test
+    public void recordsUpdatedFiles() throws Exception {
+        when(event.getAction()).thenReturn(SVNEventAction.UPDATE_UPDATE);
+
+        collector.handleEvent(event, 0);
+
+        assertThat(collector.getTouchedFiles(), contains(file));
+        assertThat(collector.getConflictedFiles(), empty());
+    }
+
+    @Test
+    public void recordsConflictedFiles() throws Exception {
+        when(event.getAction()).thenReturn(SVNEventAction.UPDATE_UPDATE);
+        when(event.getContentsStatus()).thenReturn(SVNStatusType.CONFLICTED);
+
+        collector.handleEvent(event, 0);
+
+        assertThat(collector.getConflictedFiles(), contains(file));
+    }
+
+    @Test
+    public void ignoresEventsThatDoNotChangeFiles() throws Exception {
+        when(event.getAction()).thenReturn(SVNEventAction.SKIP);
+
+        collector.handleEvent(event, 0);
+
+        assertThat(collector.getTouchedFiles(), empty());
+    }
+
+    @Test
+    public void rollsBackFilesBelowAddedDirectoriesTogetherWithTheDirectory() throws Exception {
+        final File addedDir = new File("module1/added");
+        final File addedFile = new File(addedDir, "file.txt");
+        givenEvent(SVNEventAction.UPDATE_ADD, addedDir);
+        givenEvent(SVNEventAction.UPDATE_ADD, addedFile);
+        givenEvent(SVNEventAction.UPDATE_UPDATE, file);
+
+        assertThat(collector.getAddedOrDeletedFiles(), contains(addedDir));
+        assertThat(collector.getModifiedFiles(), contains(file));
+    }
+
+    private void givenEvent(final SVNEventAction action, final File eventFile) {
+        when(event.getAction()).thenReturn(action);
+        when(event.getFile()).thenReturn(eventFile);
+        collector.handleEvent(event, 0);
+    }
+
+    @Test
+    public void tellsListenerAboutEachTouchedFileOnce() throws Exception {
+        final MergeEventCollector.Listener listener = mock(MergeEventCollector.Listener.class);
+        collector.setListener(listener);
+        givenEvent(SVNEventAction.UPDATE_UPDATE, file);
+        givenEvent(SVNEventAction.UPDATE_UPDATE, file);
+
+        verify(listener, times(1)).touched(file, false);
+    }
+
+    @Test(expected = SVNCancelException.class)
+    public void cancelsWhenCancellerDoes() throws Exception {
+        final ISVNCanceller canceller = mock(ISVNCanceller.class);
+        doThrow(new SVNCancelException()).when(canceller).checkCancelled();
+
+        new MergeEventCollector(canceller).checkCancelled();
+    }
+
+}
@@ -0,0 +1,112 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import hudson.model.AbstractBuild;
+import hudson.model.AbstractProject;
+import hudson.model.Result;
+import hudson.model.User;
+import hudson.scm.ChangeLogSet.AffectedFile;
+import hudson.scm.ChangeLogSet.Entry;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class MessageTemplateTest extends AbstractMockitoTestCase {
+
+    @Mock
+    private AbstractBuild build;
+    @Mock
+    private AbstractProject project;
+    @Mock
+    private ChangedRevisions changedRevisions;
+
+    private final List<Entry> entries = Lists.newArrayList();
+
+    @Before
+    public void setUp() throws Exception {
+        when(build.getProject()).thenReturn(project);
+        when(project.getRootProject()).thenReturn(project);
+        when(project.getName()).thenReturn("job-name");
+        when(build.getUrl()).thenReturn("job/job-name/7/");
+        when(build.getResult()).thenReturn(Result.UNSTABLE);
+        when(changedRevisions.getRevisions()).thenReturn(Revisions.create(123, 124));
+        when(changedRevisions.getChangeEntries()).thenReturn(entries);
+    }
+
+    @Test
+    public void rendersDefaultCommitMessage() throws Exception {
+        assertThat(render(NotificationTemplates.COMMIT_MESSAGE),
+                is("Automatically reverted revisions 123, 124 since Jenkins build job-name became UNSTABLE."));
+    }
+
+    @Test
+    public void rendersResultOfBuild() throws Exception {
+        when(build.getResult()).thenReturn(Result.FAILURE);
+
+        assertThat(render(NotificationTemplates.COMMIT_MESSAGE),
+                is("Automatically reverted revisions 123, 124 since Jenkins build job-name became FAILURE."));
+    }
+
+    @Test
+    public void rendersSingularForOneRevision() throws Exception {
+        when(changedRevisions.getRevisions()).thenReturn(Revisions.create(123));
+
+        assertThat(render(NotificationTemplates.CLAIM_MESSAGE), is("Reverted revision 123"));
+    }
+
+    @Test
+    public void rendersBuildUrlWithJenkinsUrl() throws Exception {
+        final MessageTemplate template = MessageTemplate.compile("See: ${buildUrl}");
+
+        assertThat(template.render(new TemplateContext(build, changedRevisions.getRevisions(), changedRevisions,
+                "http://localhost:8080/")), is("See: http://localhost:8080/job/job-name/7/"));
+    }
+
+    @Test
+    public void rendersAuthorsAndCulpritFilesOfRevertedRevisions() throws Exception {
+        givenEntry("123", "Alice", "/trunk/a.txt");
+        givenEntry("124", "Bob", "/trunk/b.txt");
+        givenEntry("125", "Carol", "/trunk/c.txt");
+
+        assertThat(render("${authors} changed ${culpritFiles}"), is("Alice, Bob changed /trunk/a.txt, /trunk/b.txt"));
+    }
+
+    @Test
+    public void keepsUnknownTokensAndUnclosedBraces() throws Exception {
+        assertThat(render("${unknown} ${job"), is("${unknown} ${job"));
+    }
+
+    @Test
+    public void compilesEachTemplateOnce() throws Exception {
+        assertThat(MessageTemplate.compile("${job}"), is(sameInstance(MessageTemplate.compile("${job}"))));
+    }
+
+    private String render(final String template) {
+        return MessageTemplate.compile(template).render(new TemplateContext(build, changedRevisions));
+    }
+
+    private void givenEntry(final String revision, final String author, final String path) {
+        final Entry entry = mock(Entry.class);
+        final User user = mock(User.class);
+        final AffectedFile file = mock(AffectedFile.class);
+        when(entry.getCommitId()).thenReturn(revision);
+        when(entry.getAuthor()).thenReturn(user);
+        when(user.getFullName()).thenReturn(author);
+        when(file.getPath()).thenReturn(path);
+        final Collection files = Lists.newArrayList(file);
+        when(entry.getAffectedFiles()).thenReturn(files);
+        entries.add(entry);
+    }
+
+}
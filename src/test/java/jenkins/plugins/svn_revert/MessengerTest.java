@@ -2,6 +2,7 @@ package jenkins.plugins.svn_revert;
 
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import hudson.model.Result;
 
 import java.io.PrintStream;
 
@@ -12,6 +13,8 @@ import org.tmatesoft.svn.core.SVNErrorCode;
 import org.tmatesoft.svn.core.SVNErrorMessage;
 import org.tmatesoft.svn.core.SVNException;
 
+import com.google.common.collect.Lists;
+
 public class MessengerTest extends AbstractMockitoTestCase {
 
     private Messenger messenger;
@@ -58,20 +61,20 @@ public class MessengerTest extends AbstractMockitoTestCase {
 
     @Test
     public void logsWhenReverted() throws Exception {
-        messenger.informReverted(Revisions.create(2, 2), "repo");
-        verify(logger).format(Messenger.REVERTED_CHANGES, 1, 2, "repo");
+        messenger.informReverted(Revisions.create(2, 2), "repo", Result.FAILURE);
+        verify(logger).format(Messenger.REVERTED_CHANGES, "2", "repo", Result.FAILURE);
     }
 
     @Test
     public void logsWhenRevertedOnMultipleRevisions() throws Exception {
-        messenger.informReverted(Revisions.create(2, 4), "repo");
-        verify(logger).format(Messenger.REVERTED_CHANGES, 1, 4, "repo");
+        messenger.informReverted(Revisions.create(2, 4), "repo", Result.UNSTABLE);
+        verify(logger).format(Messenger.REVERTED_CHANGES, "2, 4", "repo", Result.UNSTABLE);
     }
 
     @Test
     public void logsWhenFilesOutOfDate() throws Exception {
-        messenger.informFilesToRevertOutOfDate();
-        verify(logger).println(Messenger.FILES_TO_REVERT_OUT_OF_DATE);
+        messenger.informFilesToRevertOutOfDate(Result.UNSTABLE);
+        verify(logger).format(Messenger.FILES_TO_REVERT_OUT_OF_DATE, Result.UNSTABLE);
     }
 
     @Test
@@ -113,4 +116,12 @@ public class MessengerTest extends AbstractMockitoTestCase {
         messenger.informCommitMessageContains("substring");
         verify(logger).format(Messenger.COMMIT_MESSAGE_CONTAINS, "substring");
     }
+
+    @Test
+    public void logsPreviewWithConflicts() throws Exception {
+        final RevertPreview preview = new RevertPreview(Lists.newArrayList("a", "b"), Lists.newArrayList("b"));
+        messenger.informPreview(preview);
+        verify(logger).format(Messenger.DRY_RUN_PREVIEW.replace("(s)", "s"), 2, 1);
+        verify(logger).println(Messenger.DRY_RUN_CONFLICT + "b");
+    }
 }
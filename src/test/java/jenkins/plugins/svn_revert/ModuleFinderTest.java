@@ -1,17 +1,31 @@
 package jenkins.plugins.svn_revert;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import hudson.EnvVars;
+import hudson.FilePath;
 import hudson.model.BuildListener;
 import hudson.model.AbstractBuild;
 import hudson.scm.SubversionSCM;
 import hudson.scm.SubversionSCM.ModuleLocation;
 
+import java.io.File;
+
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.mockito.Mock;
+import org.tmatesoft.svn.core.SVNDepth;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.wc.SVNClientManager;
+import org.tmatesoft.svn.core.wc.SVNRevision;
 
 public class ModuleFinderTest extends AbstractMockitoTestCase {
 
@@ -26,6 +40,9 @@ public class ModuleFinderTest extends AbstractMockitoTestCase {
     @Mock
     private EnvVars environmentVariables;
 
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
     private final ModuleLocation moduleLocation = new ModuleLocation("remote", "local");
     private final ModuleLocation[] moduleLocations = new ModuleLocation[] { moduleLocation };
 
@@ -41,6 +58,29 @@ public class ModuleFinderTest extends AbstractMockitoTestCase {
         assertThat(locationFinder.getModules(subversionScm).size(), is(moduleLocations.length));
     }
 
+    @Test
+    public void shouldFindModulesOnlyOnce() throws Exception {
+        assertThat(locationFinder.getModules(subversionScm), is(sameInstance(locationFinder.getModules(subversionScm))));
+
+        verify(subversionScm, times(1)).getLocations(environmentVariables, build);
+    }
+
+    @Test
+    public void shouldReadRepositoryRootFromWorkingCopyOfBuild() throws Exception {
+        FSRepositoryFactory.setup();
+        final SVNURL repositoryRoot = SVNRepositoryFactory.createLocalRepository(folder.newFolder("repository"),
+                true, false);
+        final File workspace = folder.newFolder("workspace");
+        checkOut(repositoryRoot, new File(workspace, "local"));
+        when(subversionScm.getLocations(environmentVariables, build)).thenReturn(
+                new ModuleLocation[] { new ModuleLocation(repositoryRoot.toString(), "local") });
+        when(build.getWorkspace()).thenReturn(new FilePath(workspace));
+
+        final Module module = locationFinder.getModules(subversionScm).get(0);
+
+        assertThat(module.getRepositoryRoot(null), is(repositoryRoot.toString()));
+    }
+
     @Test
     public void shouldReturnWrappedModuleLocation() throws Exception {
         ModuleLocation actualModuleLocation = locationFinder.getModules(subversionScm).get(0).getModuleLocation();
@@ -48,4 +88,14 @@ public class ModuleFinderTest extends AbstractMockitoTestCase {
 
     }
 
+    private static void checkOut(final SVNURL url, final File directory) throws Exception {
+        final SVNClientManager clientManager = SVNClientManager.newInstance();
+        try {
+            clientManager.getUpdateClient().doCheckout(url, directory, SVNRevision.HEAD, SVNRevision.HEAD,
+                    SVNDepth.INFINITY, false);
+        } finally {
+            clientManager.dispose();
+        }
+    }
+
 }
@@ -0,0 +1,136 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.tmatesoft.svn.util.ISVNDebugLog;
+import org.tmatesoft.svn.util.SVNLogType;
+
+import com.google.common.base.Ticker;
+
+public class NetworkAccountingTest extends AbstractMockitoTestCase {
+
+    @Mock
+    private ISVNDebugLog log;
+
+    private final FakeTicker ticker = new FakeTicker();
+    private NetworkAccounting accounting;
+
+    @Before
+    public void setUp() {
+        final Answer<Object> sameStream = new Answer<Object>() {
+            @Override
+            public Object answer(final InvocationOnMock invocation) {
+                return invocation.getArguments()[1];
+            }
+        };
+        when(log.createLogStream(any(SVNLogType.class), any(InputStream.class))).thenAnswer(sameStream);
+        when(log.createLogStream(any(SVNLogType.class), any(OutputStream.class))).thenAnswer(sameStream);
+        accounting = new NetworkAccounting(log, ticker);
+    }
+
+    @Test
+    public void reportsNothingBeforeAnyOperation() {
+        assertThat(accounting.getUsages(), is(empty()));
+    }
+
+    @Test
+    public void countsBytesAndRoundTripsOfOperation() throws Exception {
+        final OutputStream out = accounting.createLogStream(SVNLogType.NETWORK, new ByteArrayOutputStream());
+        final InputStream in = accounting.createLogStream(SVNLogType.NETWORK,
+                new ByteArrayInputStream(new byte[100]));
+
+        final long began = accounting.begin("merge");
+        out.write(new byte[10]);
+        in.read(new byte[40]);
+        in.read(new byte[40]);
+        out.write(new byte[5]);
+        in.read(new byte[40]);
+        ticker.advance(7);
+        accounting.end(began);
+
+        final List<NetworkUsage> usages = accounting.getUsages();
+        assertThat(usages.size(), is(1));
+        assertThat(usages.get(0).getOperation(), is("merge"));
+        assertThat(usages.get(0).getBytesWritten(), is(15L));
+        assertThat(usages.get(0).getBytesRead(), is(100L));
+        assertThat(usages.get(0).getRoundTrips(), is(2L));
+        assertThat(usages.get(0).getTotalMillis(), is(7L));
+    }
+
+    @Test
+    public void attributesTrafficAfterOperationToOther() throws Exception {
+        final OutputStream out = accounting.createLogStream(SVNLogType.NETWORK, new ByteArrayOutputStream());
+
+        accounting.end(accounting.begin("commit"));
+        out.write(new byte[3]);
+
+        final List<NetworkUsage> usages = accounting.getUsages();
+        assertThat(usages.size(), is(1));
+        assertThat(usages.get(0).getOperation(), is(NetworkAccounting.OTHER));
+        assertThat(usages.get(0).getBytesWritten(), is(3L));
+    }
+
+    @Test
+    public void attributesTrafficToOperationOfEachThread() throws Exception {
+        final OutputStream out = accounting.createLogStream(SVNLogType.NETWORK, new ByteArrayOutputStream());
+
+        final long began = accounting.begin("merge");
+        final Thread other = new Thread() {
+            @Override
+            public void run() {
+                final long otherBegan = accounting.begin("commit");
+                try {
+                    out.write(new byte[3]);
+                } catch (final IOException e) {
+                    throw new AssertionError(e);
+                } finally {
+                    accounting.end(otherBegan);
+                }
+            }
+        };
+        other.start();
+        other.join();
+        out.write(new byte[10]);
+        accounting.end(began);
+
+        final List<NetworkUsage> usages = accounting.getUsages();
+        assertThat(usages.size(), is(2));
+        assertThat(usages.get(0).getOperation(), is("merge"));
+        assertThat(usages.get(0).getBytesWritten(), is(10L));
+        assertThat(usages.get(1).getOperation(), is("commit"));
+        assertThat(usages.get(1).getBytesWritten(), is(3L));
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(final long millis) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+    }
+
+}
@@ -0,0 +1,68 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class PathRulesTest {
+
+    @Test
+    public void allowsEverythingWithoutRules() throws Exception {
+        final PathRules rules = PathRules.compile(null, "  \n");
+
+        assertThat(rules.isEmpty(), is(true));
+        assertThat(rules.allows("/trunk/db/migrations/V1.sql"), is(true));
+    }
+
+    @Test
+    public void blocksPathsBelowExcludedDirectory() throws Exception {
+        final PathRules rules = PathRules.compile(null, "/trunk/db/migrations/**");
+
+        assertThat(rules.allows("/trunk/db/migrations/V1.sql"), is(false));
+        assertThat(rules.allows("/trunk/db/migrations/old/V0.sql"), is(false));
+        assertThat(rules.allows("/trunk/db/schema.sql"), is(true));
+    }
+
+    @Test
+    public void allowsOnlyIncludedPathsWhenIncludesGiven() throws Exception {
+        final PathRules rules = PathRules.compile("/trunk/src/**", null);
+
+        assertThat(rules.allows("/trunk/src/main/Foo.java"), is(true));
+        assertThat(rules.allows("/trunk/pom.xml"), is(false));
+        assertThat(rules.allows("/branches/b/src/Foo.java"), is(false));
+    }
+
+    @Test
+    public void letsExcludesWinOverIncludes() throws Exception {
+        final PathRules rules = PathRules.compile("/trunk/**", "/trunk/**/generated/**");
+
+        assertThat(rules.allows("/trunk/src/Foo.java"), is(true));
+        assertThat(rules.allows("/trunk/src/generated/Bar.java"), is(false));
+        assertThat(rules.allows("/trunk/generated/Bar.java"), is(false));
+    }
+
+    @Test
+    public void matchesWildcardsWithinOneSegment() throws Exception {
+        final PathRules rules = PathRules.compile("/trunk/*/src/*.java\n/trunk/V?.txt", null);
+
+        assertThat(rules.allows("/trunk/module/src/Foo.java"), is(true));
+        assertThat(rules.allows("/trunk/module/src/sub/Foo.java"), is(false));
+        assertThat(rules.allows("/trunk/module/src/Foo.xml"), is(false));
+        assertThat(rules.allows("/trunk/V1.txt"), is(true));
+        assertThat(rules.allows("/trunk/V10.txt"), is(false));
+    }
+
+    @Test
+    public void returnsFirstBlockedPath() throws Exception {
+        final PathRules rules = PathRules.compile(null, "/trunk/db/**");
+
+        assertThat(rules.firstBlocked(Lists.newArrayList("/trunk/src/A.java", "/trunk/db/B.sql", "/trunk/db/C.sql")),
+                is("/trunk/db/B.sql"));
+        assertThat(rules.firstBlocked(Lists.newArrayList("/trunk/src/A.java")), is(nullValue()));
+    }
+
+}
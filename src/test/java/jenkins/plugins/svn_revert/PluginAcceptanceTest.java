@@ -34,7 +34,7 @@ import com.google.common.collect.Lists;
 @SuppressWarnings({ "rawtypes", "deprecation" })
 public class PluginAcceptanceTest extends HudsonTestCase {
 
-    private static final String EMAIL_SENT = "An attempt to send an e-mail to empty list of recipients, ignored.";
+    private static final String EMAIL_SENT = Messenger.NO_REVERT_MAIL_RECIPIENTS;
     private static final long NO_COMMITS = 1;
     private static final long ONE_COMMIT = 2;
     private static final long TWO_COMMITS = 3;
@@ -0,0 +1,133 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.tmatesoft.svn.core.SVNURL;
+import org.tmatesoft.svn.core.internal.io.fs.FSRepositoryFactory;
+import org.tmatesoft.svn.core.io.ISVNEditor;
+import org.tmatesoft.svn.core.io.SVNRepository;
+import org.tmatesoft.svn.core.io.SVNRepositoryFactory;
+import org.tmatesoft.svn.core.io.diff.SVNDeltaGenerator;
+
+public class RepositoryRevertLockTest {
+
+    private static final String SENTINEL = "/.svn-revert-lock";
+    private static final long LEASE = 60000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private SVNURL url;
+    private RepositoryRevertLock first;
+    private RepositoryRevertLock second;
+
+    @Before
+    public void setUp() throws Exception {
+        FSRepositoryFactory.setup();
+        final File root = folder.newFolder("repository");
+        url = SVNRepositoryFactory.createLocalRepository(root, true, true);
+        commitSentinel();
+        first = lockFor("first", LEASE);
+        second = lockFor("second", LEASE);
+    }
+
+    @After
+    public void tearDown() {
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void shouldKeepOthersOutWhileLeaseHolds() throws Exception {
+        assertThat(first.tryAcquire(), is(true));
+        assertThat(second.tryAcquire(), is(false));
+    }
+
+    @Test
+    public void shouldLetOthersInAfterRelease() throws Exception {
+        first.tryAcquire();
+        first.release();
+        assertThat(second.tryAcquire(), is(true));
+    }
+
+    @Test
+    public void shouldTellWhetherSentinelExists() throws Exception {
+        assertThat(first.sentinelExists(), is(true));
+        final RepositoryRevertLock elsewhere = new RepositoryRevertLock(SVNRepositoryFactory.create(url),
+                "/missing", "first", LEASE);
+        try {
+            assertThat(elsewhere.sentinelExists(), is(false));
+        } finally {
+            elsewhere.close();
+        }
+    }
+
+    @Test
+    public void shouldStealExpiredLease() throws Exception {
+        final RepositoryRevertLock crashed = lockFor("crashed", 0);
+        try {
+            crashed.tryAcquire();
+            assertThat(second.tryAcquire(), is(true));
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    public void shouldRenewLeaseWhileHoldingLock() throws Exception {
+        first.tryAcquire();
+        assertThat(first.renew(), is(true));
+        assertThat(second.tryAcquire(), is(false));
+    }
+
+    @Test
+    public void shouldNotRenewLockTakenOverAfterLeaseRanOut() throws Exception {
+        final RepositoryRevertLock slow = lockFor("slow", 0);
+        try {
+            slow.tryAcquire();
+            second.tryAcquire();
+            assertThat(slow.renew(), is(false));
+        } finally {
+            slow.close();
+        }
+    }
+
+    @Test
+    public void shouldSeeRevisionsMarkedByOtherController() throws Exception {
+        final Revisions revisions = Revisions.create(1);
+        assertThat(second.alreadyReverted(revisions), is(false));
+        first.markReverted(revisions);
+        assertThat(second.alreadyReverted(revisions), is(true));
+    }
+
+    private RepositoryRevertLock lockFor(final String owner, final long leaseMillis) throws Exception {
+        return new RepositoryRevertLock(SVNRepositoryFactory.create(url), SENTINEL, owner, leaseMillis);
+    }
+
+    private void commitSentinel() throws Exception {
+        final SVNRepository repository = SVNRepositoryFactory.create(url);
+        try {
+            final ISVNEditor editor = repository.getCommitEditor("Add sentinel", null);
+            editor.openRoot(-1);
+            editor.addFile(SENTINEL, null, -1);
+            editor.applyTextDelta(SENTINEL, null);
+            final String checksum = new SVNDeltaGenerator().sendDelta(SENTINEL,
+                    new ByteArrayInputStream(new byte[0]), editor, true);
+            editor.closeFile(SENTINEL, checksum);
+            editor.closeDir();
+            editor.closeEdit();
+        } finally {
+            repository.closeSession();
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+package jenkins.plugins.svn_revert;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+import org.tmatesoft.svn.core.SVNCancelException;
+
+import com.google.common.base.Ticker;
+
+public class RevertCancellerTest {
+
+    private final FakeTicker ticker = new FakeTicker();
+
+    @After
+    public void clearInterrupt() {
+        Thread.interrupted();
+    }
+
+    @Test
+    public void shouldNotCancelWithinBudget() throws Exception {
+        final RevertCanceller canceller = new RevertCanceller(ticker, 1000);
+        ticker.advance(999);
+
+        canceller.checkCancelled();
+    }
+
+    @Test(expected = SVNCancelException.class)
+    public void shouldCancelPastDeadline() throws Exception {
+        final RevertCanceller canceller = new RevertCanceller(ticker, 1000);
+        ticker.advance(1000);
+
+        canceller.checkCancelled();
+    }
+
+    @Test
+    public void shouldNeverExpireWithoutBudget() throws Exception {
+        final RevertCanceller canceller = new RevertCanceller(ticker, 0);
+        ticker.advance(Long.MAX_VALUE / 2);
+
+        canceller.checkCancelled();
+    }
+
+    @Test(expected = SVNCancelException.class)
+    public void shouldCancelWhenBuildIsAborted() throws Exception {
+        Thread.currentThread().interrupt();
+
+        RevertCanceller.NONE.checkCancelled();
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(final long millis) {
+            nanos += TimeUnit.MILLISECONDS.toNanos(millis);
+        }
+
+    }
+
+}
@@ -0,0 +1,29 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import hudson.util.FormValidation;
+
+import org.junit.Test;
+
+public class RevertLockConfigTest {
+
+    private final RevertLockConfig.DescriptorImpl descriptor = new RevertLockConfig.DescriptorImpl();
+
+    @Test
+    public void fallsBackToDefaultSentinelAndMinimalLease() throws Exception {
+        final RevertLockSettings settings = new RevertLockConfig(" ", 0).toSettings("owner");
+
+        assertThat(settings.getSentinelPath(), is(RevertLockConfig.DEFAULT_SENTINEL_PATH));
+        assertThat(settings.getLeaseMillis(), is(60000L));
+    }
+
+    @Test
+    public void acceptsOnlyAbsoluteFilePathsAsSentinel() throws Exception {
+        assertThat(descriptor.doCheckSentinelPath("/.lock").kind, is(FormValidation.Kind.OK));
+        assertThat(descriptor.doCheckSentinelPath("").kind, is(FormValidation.Kind.ERROR));
+        assertThat(descriptor.doCheckSentinelPath(".lock").kind, is(FormValidation.Kind.ERROR));
+        assertThat(descriptor.doCheckSentinelPath("/trunk/").kind, is(FormValidation.Kind.ERROR));
+    }
+
+}
@@ -0,0 +1,125 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.InternetAddress;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+
+public class RevertMailDigestTest extends AbstractMockitoTestCase {
+
+    private static final long WINDOW = 60000L;
+
+    private SmtpStub smtp;
+    private RevertMailDigest digest;
+
+    @Mock
+    private RevertMailDigest.MailSessionFactory sessionFactory;
+    @Mock
+    private ScheduledExecutorService executor;
+    @Mock
+    private RevertJournal journal;
+
+    @Before
+    public void setUp() throws Exception {
+        smtp = new SmtpStub();
+        when(sessionFactory.createSession()).thenReturn(smtp.createSession());
+        when(sessionFactory.getFrom()).thenReturn(new InternetAddress("jenkins@example.com"));
+        digest = new RevertMailDigest(sessionFactory, executor, journal);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        smtp.close();
+    }
+
+    @Test
+    public void schedulesOneFlushPerWindow() throws Exception {
+        digest.add("job#1", Lists.newArrayList("alice@example.com"), "Reverted revision: 1", "body 1", WINDOW);
+        digest.add("job#1", Lists.newArrayList("alice@example.com"), "Reverted revision: 2", "body 2", WINDOW);
+
+        verify(executor, times(1)).schedule(any(Runnable.class), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void sendsOneDigestPerRecipientOverOneConnection() throws Exception {
+        digest.add("job#1", Lists.newArrayList("alice@example.com", "bob@example.com"), "Reverted revision: 1", "body 1", WINDOW);
+        digest.add("job#1", Lists.newArrayList("alice@example.com"), "Reverted revision: 2", "body 2", WINDOW);
+
+        assertThat(digest.flush(), is(2));
+
+        assertThat(smtp.getConnections(), is(1));
+        assertThat(smtp.getMessages(), hasSize(2));
+        assertThat(smtp.getMessages().get(0), containsString(String.format(RevertMailDigest.DIGEST_SUBJECT, 2)));
+        assertThat(smtp.getMessages().get(0), containsString("body 1"));
+        assertThat(smtp.getMessages().get(0), containsString("body 2"));
+        assertThat(smtp.getMessages().get(1), containsString("Reverted revision: 1"));
+        assertThat(digest.getPendingRecipients(), is(0));
+    }
+
+    @Test
+    public void keepsDigestsWhenSendingFails() throws Exception {
+        digest.add("job#1", Lists.newArrayList("alice@example.com", "bob@example.com"), "Reverted revision: 1", "body 1", WINDOW);
+        smtp.close();
+
+        try {
+            digest.flush();
+            fail("Expected sending to fail");
+        } catch (final MessagingException e) {
+            assertThat(digest.getPendingRecipients(), is(2));
+        }
+        verify(journal, never()).notified(anyString());
+    }
+
+    @Test
+    public void tellsJournalOnceAllMailsOfBuildAreSent() throws Exception {
+        digest.add("job#1", Lists.newArrayList("alice@example.com"), "Reverted revision: 1", "body 1", WINDOW);
+        digest.add("job#2", Lists.newArrayList("bob@example.com"), "Reverted revision: 2", "body 2", WINDOW);
+
+        digest.flush();
+
+        verify(journal).notified("job#1");
+        verify(journal).notified("job#2");
+    }
+
+    @Test
+    public void retriesFailedFlushAWindowLater() throws Exception {
+        digest.add("job#1", Lists.newArrayList("alice@example.com"), "Reverted revision: 1", "body 1", WINDOW);
+        final ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).schedule(flush.capture(), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+        smtp.close();
+
+        flush.getValue().run();
+
+        verify(executor, times(2)).schedule(any(Runnable.class), eq(WINDOW), eq(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void sendsNothingWhenNothingPending() throws Exception {
+        assertThat(digest.flush(), is(0));
+
+        assertThat(smtp.getConnections(), is(0));
+    }
+
+}
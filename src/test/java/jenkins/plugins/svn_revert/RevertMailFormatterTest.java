@@ -1,11 +1,11 @@
 package jenkins.plugins.svn_revert;
 
-import static org.mockito.Mockito.verify;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
-
-import javax.mail.internet.MimeMessage;
+import hudson.model.Result;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -30,8 +30,6 @@ public class RevertMailFormatterTest extends AbstractMockitoTestCase {
     private AbstractProject project;
     @Mock
     private AbstractProject rootProject;
-    @Mock
-    private MimeMessage mail;
 
     @Before
     public void setup() throws Exception {
@@ -40,22 +38,21 @@ public class RevertMailFormatterTest extends AbstractMockitoTestCase {
         when(project.getRootProject()).thenReturn(rootProject);
         when(rootProject.getName()).thenReturn("job-name");
         when(build.getUrl()).thenReturn(BUILD_URL);
-        mailer = new RevertMailFormatter(changedRevisions);
+        when(build.getResult()).thenReturn(Result.UNSTABLE);
+        mailer = new RevertMailFormatter(changedRevisions, NotificationTemplates.DEFAULTS);
     }
 
     @Test
-    public void shouldSetDescriptiveSubject() throws Exception {
-        mail = mailer.format(mail, build, JENKINS_URL);
-        verify(mail).setSubject("Reverted revisions: 123, 124");
+    public void shouldFormatDescriptiveSubject() throws Exception {
+        assertThat(mailer.formatSubject(build), is("Reverted revisions: 123, 124"));
     }
 
     @Test
-    public void shouldSetDescriptiveText() throws Exception {
-        mail = mailer.format(mail, build, JENKINS_URL);
-        verify(mail).setText(
+    public void shouldFormatDescriptiveText() throws Exception {
+        assertThat(mailer.formatBody(build, JENKINS_URL), is(
                 "Revisions 123, 124 was reverted since they made job-name UNSTABLE." + LINE_BREAK
                 + LINE_BREAK
-                + "See: " + JENKINS_URL + BUILD_URL);
+                + "See: " + JENKINS_URL + BUILD_URL));
     }
 
 }
@@ -0,0 +1,33 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import hudson.model.Result;
+
+import org.junit.Test;
+
+public class RevertPolicyTest {
+
+    @Test
+    public void fallsBackForMissingOrInvalidLimits() throws Exception {
+        assertThat(RevertPolicy.parseLimit(null, 20), is(20));
+        assertThat(RevertPolicy.parseLimit(" ", 20), is(20));
+        assertThat(RevertPolicy.parseLimit("many", 20), is(20));
+        assertThat(RevertPolicy.parseLimit("0", 20), is(20));
+        assertThat(RevertPolicy.parseLimit(" 5 ", 20), is(5));
+    }
+
+    @Test
+    public void parsesResultsIgnoringUnknownNames() throws Exception {
+        assertThat(RevertPolicy.parseResults("UNSTABLE, failure BROKEN"),
+                containsInAnyOrder(Result.UNSTABLE, Result.FAILURE));
+    }
+
+    @Test
+    public void parsesOneMarkerPerLine() throws Exception {
+        assertThat(RevertPolicy.parseMarkers("revert\n\n  [no-revert]  \r\n"), contains("revert", "[no-revert]"));
+    }
+
+}
@@ -0,0 +1,129 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.SVNEvent;
+import org.tmatesoft.svn.core.wc.SVNEventAction;
+
+@SuppressWarnings("rawtypes")
+public class RevertProgressTest extends AbstractMockitoTestCase {
+
+    private static final long INTERVAL = 1000;
+
+    private final File file = new File("module/file.txt");
+
+    @Mock
+    private Messenger messenger;
+    @Mock
+    private ScheduledExecutorService scheduler;
+    @Mock
+    private ScheduledFuture reporter;
+    @Mock
+    private ISVNEventHandler delegate;
+    @Mock
+    private SVNEvent merged;
+    @Mock
+    private SVNEvent committed;
+
+    private RevertProgress progress;
+
+    @Before
+    public void setUp() {
+        progress = new RevertProgress(messenger, scheduler, INTERVAL);
+        doReturn(reporter).when(scheduler).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(),
+                any(TimeUnit.class));
+        when(merged.getAction()).thenReturn(SVNEventAction.UPDATE_UPDATE);
+        when(merged.getFile()).thenReturn(file);
+        when(committed.getAction()).thenReturn(SVNEventAction.COMMIT_MODIFIED);
+        when(committed.getFile()).thenReturn(file);
+    }
+
+    @Test
+    public void shouldOnlyCountEvents() throws Exception {
+        progress.start();
+        progress.around(delegate).handleEvent(merged, 0);
+
+        verify(delegate).handleEvent(merged, 0);
+        verify(messenger, never()).informProgress(anyInt(), anyInt(), anyLong(), anyString());
+    }
+
+    @Test
+    public void shouldReportTotalsEveryIntervalWhileRunning() throws Exception {
+        progress.start();
+        final ISVNEventHandler handler = progress.around(delegate);
+        handler.handleEvent(merged, 0);
+        handler.handleEvent(merged, 0);
+        handler.handleEvent(committed, 0);
+
+        scheduledReport().run();
+
+        verify(messenger).informProgress(2, 1, 0, file.getPath());
+    }
+
+    @Test
+    public void shouldReportWithoutEvents() throws Exception {
+        progress.start();
+
+        scheduledReport().run();
+
+        verify(messenger).informProgress(0, 0, 0, "");
+    }
+
+    @Test
+    public void shouldStopReportingWhenOperationEnds() throws Exception {
+        progress.start();
+        final Runnable report = scheduledReport();
+
+        progress.stop();
+        report.run();
+
+        verify(reporter).cancel(false);
+        verify(messenger, never()).informProgress(anyInt(), anyInt(), anyLong(), anyString());
+    }
+
+    @Test
+    public void shouldPassCancellationThrough() throws Exception {
+        progress.around(delegate).checkCancelled();
+
+        verify(delegate).checkCancelled();
+    }
+
+    @Test
+    public void shouldNotWrapOrScheduleWhenDisabled() {
+        final RevertProgress disabled = new RevertProgress(messenger, scheduler, 0);
+        disabled.start();
+
+        assertThat(RevertProgress.NONE.around(delegate), sameInstance(delegate));
+        assertThat(disabled.around(delegate), sameInstance(delegate));
+        verify(scheduler, never()).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(),
+                any(TimeUnit.class));
+    }
+
+    private Runnable scheduledReport() {
+        final ArgumentCaptor<Runnable> report = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).scheduleAtFixedRate(report.capture(), eq(INTERVAL), eq(INTERVAL),
+                eq(TimeUnit.MILLISECONDS));
+        return report.getValue();
+    }
+
+}
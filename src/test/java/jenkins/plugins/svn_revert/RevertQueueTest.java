@@ -0,0 +1,74 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class RevertQueueTest {
+
+    private final List<Runnable> workers = Lists.newArrayList();
+    private final List<String> reverted = Lists.newArrayList();
+    private final RevertQueue queue = new RevertQueue(new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            workers.add(command);
+        }
+    }, new RevertQueue.Runner() {
+        @Override
+        public void run(final String buildId) {
+            reverted.add(buildId);
+        }
+    }, null);
+
+    @Test
+    public void runsRevertOnlyOnceBuildIsFinalized() throws Exception {
+        queue.enqueue("job#1", "repo", 0L);
+
+        assertThat(workers.size(), is(0));
+        queue.ready("job#1");
+        assertThat(workers.size(), is(1));
+    }
+
+    @Test
+    public void serializesRevertsPerRepositoryInQueueOrder() throws Exception {
+        queue.enqueue("a#1", "repo", 0L);
+        queue.enqueue("b#1", "repo", 0L);
+        queue.enqueue("c#1", "other", 0L);
+        queue.ready("b#1");
+        queue.ready("c#1");
+        assertThat(workers.size(), is(1));
+
+        queue.ready("a#1");
+        assertThat(workers.size(), is(2));
+        runNext();
+        runNext();
+        assertThat(workers.size(), is(1));
+        runNext();
+
+        assertThat(reverted, contains("c#1", "a#1", "b#1"));
+        assertThat(queue.getLength(), is(0));
+    }
+
+    @Test
+    public void countsCompletedRevertsAndWaitTime() throws Exception {
+        queue.enqueue("job#1", "repo", System.currentTimeMillis());
+        queue.ready("job#1");
+        runNext();
+
+        assertThat(queue.getCompleted(), is(1L));
+        assertThat(queue.getThroughputPerHour(System.currentTimeMillis()), is(1));
+        assertThat(queue.getMaxWaitMillis() >= queue.getAverageWaitMillis(), is(true));
+    }
+
+    private void runNext() {
+        workers.remove(0).run();
+    }
+
+}
@@ -0,0 +1,97 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.google.common.base.Ticker;
+
+public class RevertRateLimiterTest {
+
+    private static final String REPOSITORY = "svn://repo";
+    private static final String OTHER_REPOSITORY = "svn://other";
+    private static final int PER_HOUR = 6;
+    private static final int BURST = 2;
+
+    private final FakeTicker ticker = new FakeTicker();
+    private final RevertRateLimiter limiter = new RevertRateLimiter(ticker);
+
+    @Test
+    public void shouldGrantBurstAndThenRefuse() {
+        assertThat(limiter.tryAcquire(REPOSITORY, PER_HOUR, BURST), is(true));
+        assertThat(limiter.tryAcquire(REPOSITORY, PER_HOUR, BURST), is(true));
+        assertThat(limiter.tryAcquire(REPOSITORY, PER_HOUR, BURST), is(false));
+    }
+
+    @Test
+    public void shouldRefillAtConfiguredRate() {
+        exhaust(REPOSITORY);
+
+        ticker.advance(9);
+        assertThat(limiter.tryAcquire(REPOSITORY, PER_HOUR, BURST), is(false));
+        ticker.advance(1);
+        assertThat(limiter.tryAcquire(REPOSITORY, PER_HOUR, BURST), is(true));
+    }
+
+    @Test
+    public void shouldNotRefillBeyondBurst() {
+        ticker.advance(600);
+
+        exhaust(REPOSITORY);
+
+        assertThat(limiter.tryAcquire(REPOSITORY, PER_HOUR, BURST), is(false));
+    }
+
+    @Test
+    public void shouldKeepBudgetsPerRepository() {
+        exhaust(REPOSITORY);
+
+        assertThat(limiter.tryAcquire(OTHER_REPOSITORY, PER_HOUR, BURST), is(true));
+    }
+
+    @Test
+    public void shouldCountGrantedAndRefusedReverts() {
+        exhaust(REPOSITORY);
+        limiter.tryAcquire(REPOSITORY, PER_HOUR, BURST);
+
+        final List<RevertRateLimiter.Budget> budgets = limiter.getBudgets();
+        assertThat(budgets.size(), is(1));
+        assertThat(budgets.get(0).getRepository(), is(REPOSITORY));
+        assertThat(budgets.get(0).getGranted(), is(2L));
+        assertThat(budgets.get(0).getExhausted(), is(2L));
+        assertThat(budgets.get(0).getTokens(), is(0));
+    }
+
+    @Test
+    public void shouldNeverRefuseWithoutLimit() {
+        for (int i = 0; i < 100; i++) {
+            assertThat(RevertRateLimit.NONE.tryAcquire(REPOSITORY), is(true));
+        }
+    }
+
+    private void exhaust(final String repository) {
+        while (limiter.tryAcquire(repository, PER_HOUR, BURST)) {
+            continue;
+        }
+    }
+
+    private static final class FakeTicker extends Ticker {
+
+        private long nanos;
+
+        @Override
+        public long read() {
+            return nanos;
+        }
+
+        void advance(final long minutes) {
+            nanos += TimeUnit.MINUTES.toNanos(minutes);
+        }
+
+    }
+
+}
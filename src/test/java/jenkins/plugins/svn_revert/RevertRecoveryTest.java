@@ -0,0 +1,90 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.collect.Lists;
+
+public class RevertRecoveryTest extends AbstractMockitoTestCase {
+
+    private static final File MODULE_DIR = new File("module");
+    private static final List<File> SUBTREES = Lists.newArrayList(new File("module/added"));
+    private static final List<File> FILES = Lists.newArrayList(new File("module/changed"));
+
+    @Mock
+    private SvnKitClient client;
+    @Mock
+    private Messenger messenger;
+
+    private final RevertJournal journal = new RevertJournal(null);
+
+    @Test
+    public void commitsMergedRevert() throws Exception {
+        final String id = givenMergedRevert();
+        when(client.commit(anyString(), any(File[].class))).thenReturn(true);
+
+        assertThat(RevertRecovery.finish(journal, journal.getEntries().get(0), client, messenger), is(true));
+
+        verify(client).commit("message", MODULE_DIR);
+        assertThat(journal.getEntries().get(0).getPhase(), is(RevertJournal.Phase.COMMITTED));
+        assertThat(journal.getEntries().get(0).getId(), is(id));
+    }
+
+    @Test
+    public void rollsBackMergedRevertThatCannotBeCommitted() throws Exception {
+        givenMergedRevert();
+        when(client.commit(anyString(), any(File[].class))).thenReturn(false);
+
+        assertThat(RevertRecovery.finish(journal, journal.getEntries().get(0), client, messenger), is(false));
+
+        verify(client).rollback(SUBTREES, FILES);
+        assertThat(journal.getEntries(), is(empty()));
+    }
+
+    @Test
+    public void rollsBackPlannedPathsOfRevertInterruptedWhileMerging() throws Exception {
+        final String id = journal.planned("job#1", "message", Lists.newArrayList(MODULE_DIR));
+        journal.touched(id, new File("module/added"), true);
+        journal.touched(id, new File("module/added/file"), true);
+        journal.touched(id, new File("module/changed"), false);
+
+        RevertRecovery.finish(journal, journal.getEntries().get(0), client, messenger);
+
+        verify(client).rollback(SUBTREES, Lists.newArrayList(MODULE_DIR, new File("module/changed")));
+        assertThat(journal.getEntries(), is(empty()));
+    }
+
+    @Test
+    public void keepsRevertTheRepositoryAlreadyHolds() throws Exception {
+        final String id = givenMergedRevert();
+        when(client.hasCommitted("message", Lists.newArrayList(MODULE_DIR))).thenReturn(true);
+
+        assertThat(RevertRecovery.finish(journal, journal.getEntries().get(0), client, messenger), is(true));
+
+        verify(client, never()).commit(anyString(), any(File[].class));
+        verify(client, never()).rollback(anyListOf(File.class), anyListOf(File.class));
+        verify(messenger).informRecoveredCommitFound();
+        assertThat(journal.getEntries().get(0).getPhase(), is(RevertJournal.Phase.COMMITTED));
+        assertThat(journal.getEntries().get(0).getId(), is(id));
+    }
+
+    private String givenMergedRevert() {
+        final String id = journal.planned("job#1", "message", Lists.newArrayList(MODULE_DIR));
+        journal.merged(id, SUBTREES, FILES);
+        return id;
+    }
+
+}
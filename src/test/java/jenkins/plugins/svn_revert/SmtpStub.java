@@ -0,0 +1,108 @@
+package jenkins.plugins.svn_revert;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.mail.Session;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Minimal in-process SMTP server accepting every mail, counting connections and messages. */
+public class SmtpStub implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> messages = Lists.newCopyOnWriteArrayList();
+
+    public SmtpStub() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                serve();
+            }
+        }, "smtp-stub");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public Session createSession() {
+        final Properties properties = new Properties();
+        properties.put("mail.transport.protocol", "smtp");
+        properties.put("mail.smtp.host", serverSocket.getInetAddress().getHostAddress());
+        properties.put("mail.smtp.port", String.valueOf(serverSocket.getLocalPort()));
+        return Session.getInstance(properties);
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    public List<String> getMessages() {
+        return messages;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    private void serve() {
+        while (!serverSocket.isClosed()) {
+            try {
+                final Socket socket = serverSocket.accept();
+                try {
+                    connections.incrementAndGet();
+                    converse(socket);
+                } finally {
+                    socket.close();
+                }
+            } catch (final IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void converse(final Socket socket) throws IOException {
+        final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+        final Writer writer = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.US_ASCII);
+        reply(writer, "220 smtp-stub");
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final String command = line.toUpperCase();
+            if (command.startsWith("DATA")) {
+                reply(writer, "354 go ahead");
+                final StringBuilder message = new StringBuilder();
+                while ((line = reader.readLine()) != null && !line.equals(".")) {
+                    message.append(line).append('\n');
+                }
+                messages.add(message.toString());
+                reply(writer, "250 queued");
+            } else if (command.startsWith("QUIT")) {
+                reply(writer, "221 bye");
+                return;
+            } else {
+                reply(writer, "250 ok");
+            }
+        }
+    }
+
+    private static void reply(final Writer writer, final String reply) throws IOException {
+        writer.write(reply + "\r\n");
+        writer.flush();
+    }
+
+}
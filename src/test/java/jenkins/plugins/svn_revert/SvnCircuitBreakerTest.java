@@ -0,0 +1,97 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+public class SvnCircuitBreakerTest extends AbstractMockitoTestCase {
+
+    private static final String REPOSITORY = "svn://repo";
+    private static final int THRESHOLD = 2;
+    private static final long COOL_DOWN = 1000;
+
+    @Mock
+    private ScheduledExecutorService scheduler;
+    @Mock
+    private SvnCircuitBreaker.Probe probe;
+
+    private SvnCircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        breaker = new SvnCircuitBreaker(scheduler);
+    }
+
+    @Test
+    public void shouldStayClosedBelowThreshold() {
+        breaker.failed(REPOSITORY, THRESHOLD, COOL_DOWN, probe);
+
+        assertThat(breaker.allows(REPOSITORY), is(true));
+    }
+
+    @Test
+    public void shouldResetFailuresOnSuccess() {
+        breaker.failed(REPOSITORY, THRESHOLD, COOL_DOWN, probe);
+        breaker.succeeded(REPOSITORY);
+        breaker.failed(REPOSITORY, THRESHOLD, COOL_DOWN, probe);
+
+        assertThat(breaker.allows(REPOSITORY), is(true));
+    }
+
+    @Test
+    public void shouldOpenAtThresholdAndScheduleProbe() {
+        openCircuit();
+
+        assertThat(breaker.allows(REPOSITORY), is(false));
+        assertThat(breaker.allows("svn://other"), is(true));
+        verify(scheduler).schedule(any(Runnable.class), eq(COOL_DOWN), eq(TimeUnit.MILLISECONDS));
+        assertThat(breaker.getCircuits().get(0).getSkipped(), is(1L));
+    }
+
+    @Test
+    public void shouldCloseWhenProbeSucceeds() {
+        openCircuit();
+        when(probe.isHealthy()).thenReturn(true);
+
+        scheduledProbe().run();
+
+        assertThat(breaker.allows(REPOSITORY), is(true));
+    }
+
+    @Test
+    public void shouldProbeAgainWhileRepositoryIsDown() {
+        openCircuit();
+        when(probe.isHealthy()).thenReturn(false);
+
+        scheduledProbe().run();
+
+        assertThat(breaker.allows(REPOSITORY), is(false));
+        verify(scheduler, times(2)).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    }
+
+    private void openCircuit() {
+        for (int i = 0; i < THRESHOLD; i++) {
+            breaker.failed(REPOSITORY, THRESHOLD, COOL_DOWN, probe);
+        }
+    }
+
+    private Runnable scheduledProbe() {
+        final ArgumentCaptor<Runnable> captor = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(captor.capture(), anyLong(), any(TimeUnit.class));
+        return captor.getValue();
+    }
+
+}
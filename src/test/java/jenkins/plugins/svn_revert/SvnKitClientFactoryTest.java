@@ -1,5 +1,7 @@
 package jenkins.plugins.svn_revert;
 
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Mockito.when;
 import hudson.model.AbstractProject;
 import hudson.scm.SubversionSCM;
@@ -7,6 +9,8 @@ import hudson.scm.SubversionSCM.DescriptorImpl;
 
 import org.junit.Test;
 import org.mockito.Mock;
+import org.tmatesoft.svn.core.auth.ISVNAuthenticationManager;
+import org.tmatesoft.svn.core.io.SVNRepository;
 
 
 public class SvnKitClientFactoryTest extends AbstractMockitoTestCase {
@@ -17,6 +21,8 @@ public class SvnKitClientFactoryTest extends AbstractMockitoTestCase {
     private DescriptorImpl descriptor;
     @Mock
     private AbstractProject<?, ?> project;
+    @Mock
+    private SVNRepository repository;
 
     @Test(expected=NoSvnAuthException.class)
     public void shouldThrowExceptionWhenAuthProviderIsNull() throws Exception {
@@ -26,4 +32,12 @@ public class SvnKitClientFactoryTest extends AbstractMockitoTestCase {
         final SvnKitClientFactory clientManagerFactory = new SvnKitClientFactory();
         clientManagerFactory.create(project, scm);
     }
+
+    @Test
+    public void shouldUseConfiguredTimeouts() throws Exception {
+        final ISVNAuthenticationManager manager = new SvnKitClientFactory(2000, 60000, 0, 0).createAuthenticationManager();
+
+        assertThat(manager.getConnectTimeout(repository), is(2000));
+        assertThat(manager.getReadTimeout(repository), is(60000));
+    }
 }
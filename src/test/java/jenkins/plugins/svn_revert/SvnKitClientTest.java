@@ -1,24 +1,51 @@
 package jenkins.plugins.svn_revert;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.aryEq;
+import static org.mockito.Matchers.anyCollection;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.util.Collection;
+import java.util.List;
 
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.tmatesoft.svn.core.SVNCommitInfo;
+import org.tmatesoft.svn.core.SVNDepth;
 import org.tmatesoft.svn.core.SVNErrorCode;
 import org.tmatesoft.svn.core.SVNErrorMessage;
 import org.tmatesoft.svn.core.SVNException;
+import org.tmatesoft.svn.core.SVNURL;
 import org.tmatesoft.svn.core.wc.SVNClientManager;
 import org.tmatesoft.svn.core.wc.SVNCommitClient;
 import org.tmatesoft.svn.core.wc.SVNCommitPacket;
+import org.tmatesoft.svn.core.wc.ISVNEventHandler;
+import org.tmatesoft.svn.core.wc.SVNDiffClient;
+import org.tmatesoft.svn.core.wc.SVNEvent;
+import org.tmatesoft.svn.core.wc.SVNEventAction;
+import org.tmatesoft.svn.core.wc.SVNRevision;
+import org.tmatesoft.svn.core.wc.SVNRevisionRange;
+import org.tmatesoft.svn.core.wc.SVNStatus;
+import org.tmatesoft.svn.core.wc.SVNStatusClient;
+import org.tmatesoft.svn.core.wc.SVNStatusType;
+import org.tmatesoft.svn.core.wc.SVNUpdateClient;
+import org.tmatesoft.svn.core.wc.SVNWCClient;
+
+import com.google.common.collect.Lists;
 
 
 public class SvnKitClientTest extends AbstractMockitoTestCase{
@@ -35,6 +62,22 @@ public class SvnKitClientTest extends AbstractMockitoTestCase{
     private SVNErrorMessage errorMessage;
     @Mock
     private SVNCommitInfo commitInfo;
+    @Mock
+    private SVNDiffClient diffClient;
+    @Mock
+    private SVNURL svnUrl;
+    @Mock
+    private SVNWCClient wcClient;
+    @Mock
+    private SVNEvent event;
+    @Mock
+    private SVNStatusClient statusClient;
+    @Mock
+    private SVNStatus status;
+    @Mock
+    private SVNUpdateClient updateClient;
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
 
     private SVNCommitInfo[] commitInfos;
 
@@ -43,6 +86,10 @@ public class SvnKitClientTest extends AbstractMockitoTestCase{
     public void setup() throws Exception {
         svnKitClient = new SvnKitClient(clientManager);
         when(clientManager.getCommitClient()).thenReturn(commitClient);
+        when(clientManager.getDiffClient()).thenReturn(diffClient);
+        when(clientManager.getWCClient()).thenReturn(wcClient);
+        when(clientManager.getStatusClient()).thenReturn(statusClient);
+        when(clientManager.getUpdateClient()).thenReturn(updateClient);
         commitInfos = new SVNCommitInfo[]{ commitInfo };
         when(commitClient.doCommit(any(SVNCommitPacket[].class), anyBoolean(), anyString()))
             .thenReturn(commitInfos);
@@ -61,10 +108,144 @@ public class SvnKitClientTest extends AbstractMockitoTestCase{
         assertThat(svnKitClient.commit(null, file), is(false));
     }
 
+    @Test
+    public void shouldMergeWithoutDryRunWhenReverting() throws Exception {
+        svnKitClient.reverseMerge(Revisions.create(3), svnUrl, file);
+
+        verifyMerged(false);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void shouldMergeNonConsecutiveRevisionsAsSeparateRanges() throws Exception {
+        svnKitClient.reverseMerge(Revisions.create(3, 4, 7), svnUrl, file);
+
+        final ArgumentCaptor<Collection> ranges = ArgumentCaptor.forClass(Collection.class);
+        verify(diffClient).doMerge(eq(svnUrl), any(SVNRevision.class), ranges.capture(), any(File.class),
+                eq(SVNDepth.INFINITY), eq(true), eq(false), eq(false), eq(false));
+        final List<String> actualRanges = Lists.newArrayList();
+        for (final Object range : ranges.getValue()) {
+            final SVNRevisionRange revisionRange = (SVNRevisionRange) range;
+            actualRanges.add(revisionRange.getStartRevision().getNumber() + ":"
+                    + revisionRange.getEndRevision().getNumber());
+        }
+        assertThat(actualRanges, contains("7:6", "4:2"));
+    }
+
+    @Test
+    public void shouldMergeWithDryRunWhenPreviewing() throws Exception {
+        svnKitClient.previewReverseMerge(Revisions.create(3), svnUrl, file);
+
+        verifyMerged(true);
+    }
+
+    @Test
+    public void shouldTellListenerAboutPathsAsTheMergeTouchesThem() throws Exception {
+        final File moduleDir = new File("module").getCanonicalFile();
+        final File addedDir = new File(moduleDir, "added");
+        final MergeEventCollector.Listener listener = mock(MergeEventCollector.Listener.class);
+        svnKitClient.recordMergedPathsTo(listener);
+        svnKitClient.reverseMerge(Revisions.create(3), svnUrl, moduleDir);
+        givenMergeEvent(SVNEventAction.UPDATE_ADD, addedDir);
+
+        verify(listener).touched(addedDir, true);
+    }
+
+    @Test
+    public void shouldReturnEmptyPreviewWhenMergeReportsNothing() throws Exception {
+        assertThat(svnKitClient.previewReverseMerge(Revisions.create(3), svnUrl, file).isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldRollbackOnlyPathsTouchedByMerge() throws Exception {
+        final File moduleDir = new File("module").getCanonicalFile();
+        final File touchedFile = new File(moduleDir, "touched.txt");
+        svnKitClient.reverseMerge(Revisions.create(3), svnUrl, moduleDir);
+        givenMergeEvent(SVNEventAction.UPDATE_UPDATE, touchedFile);
+
+        assertThat(svnKitClient.rollbackMergedChanges(), is(2));
+
+        verify(wcClient).doRevert(aryEq(new File[] { touchedFile, moduleDir }), eq(SVNDepth.EMPTY),
+                any(Collection.class));
+    }
+
+    @Test
+    public void shouldRollbackAddedDirectoriesRecursively() throws Exception {
+        final File moduleDir = new File("module").getCanonicalFile();
+        final File addedDir = new File(moduleDir, "added");
+        svnKitClient.reverseMerge(Revisions.create(3), svnUrl, moduleDir);
+        givenMergeEvent(SVNEventAction.UPDATE_ADD, addedDir);
+        givenMergeEvent(SVNEventAction.UPDATE_ADD, new File(addedDir, "file.txt"));
+
+        svnKitClient.rollbackMergedChanges();
+
+        verify(wcClient).doRevert(aryEq(new File[] { addedDir }), eq(SVNDepth.INFINITY),
+                any(Collection.class));
+        verify(wcClient).doRevert(aryEq(new File[] { moduleDir }), eq(SVNDepth.EMPTY),
+                any(Collection.class));
+    }
+
+    @Test
+    public void shouldDeleteAddedPathsLeftUnversionedByRollback() throws Exception {
+        final File moduleDir = folder.newFolder("module").getCanonicalFile();
+        final File addedDir = new File(moduleDir, "added");
+        assertThat(new File(addedDir, "nested").mkdirs(), is(true));
+        svnKitClient.reverseMerge(Revisions.create(3), svnUrl, moduleDir);
+        givenMergeEvent(SVNEventAction.UPDATE_ADD, addedDir);
+        when(statusClient.doStatus(addedDir, false)).thenReturn(status);
+        when(status.getContentsStatus()).thenReturn(SVNStatusType.STATUS_UNVERSIONED);
+
+        svnKitClient.rollbackMergedChanges();
+
+        assertThat(addedDir.exists(), is(false));
+        assertThat(moduleDir.exists(), is(true));
+    }
+
+    @Test
+    public void shouldRevertLocalChangesBeforeUpdatingToHead() throws Exception {
+        final File moduleDir = folder.newFolder("module").getCanonicalFile();
+
+        svnKitClient.updateToHead(moduleDir);
+
+        verify(wcClient).doCleanup(moduleDir);
+        verify(wcClient).doRevert(aryEq(new File[] { moduleDir }), eq(SVNDepth.INFINITY), any(Collection.class));
+        verify(updateClient).doUpdate(moduleDir, SVNRevision.HEAD, SVNDepth.INFINITY, false, false);
+    }
+
+    @Test
+    public void shouldHaveNothingToRollbackBeforeMerging() throws Exception {
+        assertThat(svnKitClient.hasMergedChanges(), is(false));
+    }
+
     @Test(expected=SVNException.class)
     public void shouldThrowSvnExceptionIfErrorsOnCommit() throws Exception {
         when(commitInfo.getErrorMessage()).thenReturn(errorMessage);
         svnKitClient.commit(null, file);
     }
 
+    @Test
+    public void shouldLetCancellerStopCommit() throws Exception {
+        final RevertCanceller canceller = RevertCanceller.startingNow(60000);
+        svnKitClient = new SvnKitClient(clientManager, canceller);
+
+        svnKitClient.commit(null, file);
+
+        verify(commitClient).setEventHandler(canceller);
+        verify(commitClient).setEventHandler(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void verifyMerged(final boolean dryRun) throws Exception {
+        verify(diffClient).doMerge(eq(svnUrl), any(SVNRevision.class), anyCollection(), any(File.class),
+                eq(SVNDepth.INFINITY), eq(true), eq(false), eq(dryRun), eq(false));
+    }
+
+    private void givenMergeEvent(final SVNEventAction action, final File file) throws Exception {
+        final ArgumentCaptor<ISVNEventHandler> handler = ArgumentCaptor.forClass(ISVNEventHandler.class);
+        verify(diffClient, atLeastOnce()).setEventHandler(handler.capture());
+        when(event.getAction()).thenReturn(action);
+        when(event.getFile()).thenReturn(file);
+        handler.getAllValues().get(0).handleEvent(event, 0);
+    }
+
 }
@@ -3,30 +3,42 @@ package jenkins.plugins.svn_revert;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 import hudson.EnvVars;
 import hudson.model.BuildListener;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
+import hudson.model.Result;
 import hudson.scm.SubversionSCM;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 import org.tmatesoft.svn.core.SVNException;
 import org.tmatesoft.svn.core.SVNURL;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 @SuppressWarnings("rawtypes")
 public class SvnReverterTest extends AbstractMockitoTestCase {
@@ -38,6 +50,7 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
     private static final String REMOTE_REPO_2 = "remote2";
     private static final int FIRST_CHANGE = 911;
     private static final int SECOND_CHANGE = FIRST_CHANGE + 1;
+    private static final List<String> NO_CONFLICTS = Lists.newArrayList();
 
     private SvnReverter reverter;
 
@@ -75,21 +88,32 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
     private ChangedRevisions changedRevisions;
     @Mock
     private ModuleFinder locationFinder;
+    @Mock
+    private ChangedFiles changedFiles;
+    @Mock
+    private SvnKitClient svnKitClient2;
+    @Mock
+    private SvnKitClient svnKitClient3;
 
     private final IOException ioException = new IOException();
 
     private final List<Module> modules = Lists.newLinkedList();
 
+    private final RevertLockSettings lockSettings = new RevertLockSettings("/.lock", "owner", 1000);
+
+    private final RevertPreviewAction previewAction = new RevertPreviewAction();
     @Before
     public void setup() throws Exception {
         when(build.getRootBuild()).thenReturn(rootBuild);
         when(build.getProject()).thenReturn(project);
         when(project.getRootProject()).thenReturn(rootProject);
         when(rootProject.getName()).thenReturn(JOB_NAME);
+        when(build.getResult()).thenReturn(Result.UNSTABLE);
         when(svnKitClient.commit(anyString(), any(File.class))).thenReturn(true);
         when(svnKitClient.commit(anyString(), any(File.class), any(File.class))).thenReturn(true);
         when(locationFinder.getModules(subversionScm)).thenReturn(modules);
-        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions);
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS));
     }
 
     @Test
@@ -126,7 +150,7 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
 
         reverter.revert(subversionScm);
 
-        verify(messenger).informReverted(Revisions.create(FIRST_CHANGE), REMOTE_REPO);
+        verify(messenger).informReverted(Revisions.create(FIRST_CHANGE), REMOTE_REPO, Result.UNSTABLE);
         verifyNoMoreInteractions(messenger);
     }
 
@@ -169,14 +193,66 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
 
         reverter.revert(subversionScm);
 
-        verify(messenger).informReverted(Revisions.create(FIRST_CHANGE), REMOTE_REPO);
-        verify(messenger).informReverted(Revisions.create(FIRST_CHANGE), REMOTE_REPO_2);
+        verify(messenger).informReverted(Revisions.create(FIRST_CHANGE), REMOTE_REPO, Result.UNSTABLE);
+        verify(messenger).informReverted(Revisions.create(FIRST_CHANGE), REMOTE_REPO_2, Result.UNSTABLE);
         verify(svnKitClient).reverseMerge(Revisions.create(FIRST_CHANGE), svnUrl, moduleDir);
         verify(svnKitClient).reverseMerge(Revisions.create(FIRST_CHANGE), svnUrl2, moduleDir2);
         verify(svnKitClient).commit(buildCommitMessage(), moduleDir, moduleDir2);
+        verify(svnKitClient).getRepositoryUuid(moduleDir);
+        verify(svnKitClient).getRepositoryUuid(moduleDir2);
+        verify(svnKitClient).getMergedSubtrees();
+        verify(svnKitClient).getMergedFiles();
+        verify(svnKitClient).reportProgressTo(messenger);
+        verify(svnKitClient).getNetworkUsage();
         verifyNoMoreInteractions(svnKitClient);
     }
 
+    @Test
+    public void shouldRevertAndCommitSeparatelyPerRepository() throws Exception {
+        givenAllRevertConditionsMetForModulesInTwoRepos();
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.REVERT_SUCCESSFUL));
+
+        verify(svnKitClient2).reverseMerge(Revisions.create(FIRST_CHANGE), svnUrl, moduleDir);
+        verify(svnKitClient2).commit(anyString(), eq(moduleDir));
+        verify(svnKitClient3).reverseMerge(Revisions.create(SECOND_CHANGE), svnUrl2, moduleDir2);
+        verify(svnKitClient3).commit(anyString(), eq(moduleDir2));
+        verify(messenger).informRepositoryRevertStatus("uuid-1", SvnRevertStatus.REVERT_SUCCESSFUL);
+        verify(messenger).informRepositoryRevertStatus("uuid-2", SvnRevertStatus.REVERT_SUCCESSFUL);
+    }
+
+    @Test
+    public void shouldNotRevertSameRevisionNumberOfOtherRepository() throws Exception {
+        givenAllRevertConditionsMetForModulesInTwoRepos();
+        givenLogOf(svnKitClient3, svnUrl2, FIRST_CHANGE, "unrelated change in second repository");
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.REVERT_SUCCESSFUL));
+
+        verify(svnKitClient2).reverseMerge(Revisions.create(FIRST_CHANGE), svnUrl, moduleDir);
+        verify(svnKitClient3, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+    }
+
+    @Test
+    public void shouldReportPartialRevertWhenOneRepositoryFails() throws Exception {
+        givenAllRevertConditionsMetForModulesInTwoRepos();
+        when(svnKitClient3.commit(anyString(), any(File.class))).thenReturn(false);
+        givenMergedChangesToRollback(svnKitClient3);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.REVERT_PARTIAL));
+
+        verify(svnKitClient3).rollbackMergedChanges();
+        verify(svnKitClient2, never()).rollbackMergedChanges();
+        verify(messenger).informRepositoryRevertStatus("uuid-2", SvnRevertStatus.NOTHING_REVERTED);
+    }
+
+    @Test
+    public void shouldCombineRepositoryStatuses() throws Exception {
+        assertThat(SvnReverter.combine(Lists.newArrayList(SvnRevertStatus.NOTHING_REVERTED,
+                SvnRevertStatus.REVERT_FAILED)), is(SvnRevertStatus.REVERT_FAILED));
+        assertThat(SvnReverter.combine(Lists.newArrayList(SvnRevertStatus.NOTHING_REVERTED)),
+                is(SvnRevertStatus.NOTHING_REVERTED));
+    }
+
     @Test
     public void shouldLogRevertFailedWhenCommitFails() throws Exception {
         givenAllRevertConditionsMet();
@@ -206,6 +282,36 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
         verify(svnKitClient).reverseMerge(Revisions.create(FIRST_CHANGE, SECOND_CHANGE), svnUrl, moduleDir);
     }
 
+    @Test
+    public void shouldJournalRevertUntilCommittersAreNotified() throws Exception {
+        givenAllRevertConditionsMet();
+        final RevertJournal journal = new RevertJournal(null);
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS).withJournal(journal));
+        when(build.getExternalizableId()).thenReturn("job#1");
+
+        reverter.revert(subversionScm);
+
+        assertThat(journal.getEntries().get(0).getPhase(), is(RevertJournal.Phase.COMMITTED));
+        assertThat(journal.getEntries().get(0).getCommitMessage(), is(buildCommitMessage()));
+        reverter.notified();
+        assertThat(journal.getEntries().isEmpty(), is(true));
+    }
+
+    @Test
+    public void shouldForgetJournalEntryWhenRolledBack() throws Exception {
+        givenAllRevertConditionsMet();
+        final RevertJournal journal = new RevertJournal(null);
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS).withJournal(journal));
+        when(svnKitClient.commit(anyString(), any(File[].class))).thenReturn(false);
+        givenMergedChangesToRollback(2);
+
+        reverter.revert(subversionScm);
+
+        assertThat(journal.getEntries().isEmpty(), is(true));
+    }
+
     @Test
     public void shouldLogNotRevertedWhenFileIsOutOfDate() throws Exception {
         givenAllRevertConditionsMet();
@@ -213,10 +319,386 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
 
         reverter.revert(subversionScm);
 
-        verify(messenger).informFilesToRevertOutOfDate();
+        verify(messenger).informFilesToRevertOutOfDate(Result.UNSTABLE);
         verifyNoMoreInteractions(messenger);
     }
 
+    @Test
+    public void shouldRollbackMergedChangesWhenFilesOutOfDate() throws Exception {
+        givenAllRevertConditionsMet();
+        givenMergedChangesToRollback(3);
+        when(svnKitClient.commit(anyString(), any(File[].class))).thenReturn(false);
+
+        reverter.revert(subversionScm);
+
+        verify(svnKitClient).rollbackMergedChanges();
+        verify(messenger).informRolledBack(eq(3), anyLong());
+    }
+
+    @Test
+    public void shouldRollbackMergedChangesWhenCommitFails() throws Exception {
+        givenAllRevertConditionsMet();
+        givenMergedChangesToRollback(1);
+        doThrow(svnException).when(svnKitClient).commit(anyString(), any(File.class));
+
+        reverter.revert(subversionScm);
+
+        verify(svnKitClient).rollbackMergedChanges();
+    }
+
+    @Test
+    public void shouldRollbackMergedChangesOnRuntimeException() throws Exception {
+        givenAllRevertConditionsMet();
+        givenMergedChangesToRollback(1);
+        doThrow(new IllegalStateException()).when(svnKitClient).commit(anyString(), any(File.class));
+
+        try {
+            reverter.revert(subversionScm);
+        } catch (final IllegalStateException expected) {
+            // rethrown after rolling back
+        }
+
+        verify(svnKitClient).rollbackMergedChanges();
+    }
+
+    @Test
+    public void shouldLogWhenRollbackFails() throws Exception {
+        givenAllRevertConditionsMet();
+        givenMergedChangesToRollback(1);
+        when(svnKitClient.commit(anyString(), any(File[].class))).thenReturn(false);
+        when(svnKitClient.rollbackMergedChanges()).thenThrow(svnException);
+
+        reverter.revert(subversionScm);
+
+        verify(messenger).informRollbackFailedBecauseOf(svnException);
+    }
+
+    @Test
+    public void shouldNotRollbackWhenRevertSucceeds() throws Exception {
+        givenAllRevertConditionsMet();
+        givenMergedChangesToRollback(1);
+
+        reverter.revert(subversionScm);
+
+        verify(svnKitClient, never()).rollbackMergedChanges();
+    }
+
+    @Test
+    public void shouldNeitherMergeNorCommitWhenPreviewing() throws Exception {
+        givenAllRevertConditionsMet();
+        givenPreviewOf(Lists.newArrayList("file"), NO_CONFLICTS);
+
+        assertThat(reverter.preview(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(svnKitClient).previewReverseMerge(Revisions.create(FIRST_CHANGE), svnUrl, moduleDir);
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+        verify(svnKitClient, never()).commit(anyString(), any(File[].class));
+    }
+
+    @Test
+    public void shouldCachePreviewOnBuild() throws Exception {
+        givenAllRevertConditionsMet();
+        final RevertPreview preview = givenPreviewOf(Lists.newArrayList("file"), NO_CONFLICTS);
+
+        reverter.preview(subversionScm);
+
+        final String key = RevertPreviewAction.keyFor(Revisions.create(FIRST_CHANGE), modules);
+        assertThat(previewAction.get(key), is(preview));
+    }
+
+    @Test
+    public void shouldReuseCachedPreview() throws Exception {
+        givenAllRevertConditionsMet();
+        givenCachedPreviewOf(Lists.newArrayList("file"), NO_CONFLICTS);
+
+        reverter.preview(subversionScm);
+
+        verifyZeroInteractions(svnFactory);
+    }
+
+    @Test
+    public void shouldNotMergeWhenDiffSummaryExceedsSizeLimit() throws Exception {
+        givenAllRevertConditionsMet();
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS).withSizeLimit(new RevertSizeLimit(100, 1024)));
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(final InvocationOnMock invocation) {
+                ((DiffSummary) invocation.getArguments()[2]).add(3, 4096);
+                return null;
+            }
+        }).when(svnKitClient).summarizeReverseDiff(eq(Revisions.create(FIRST_CHANGE)), eq(svnUrl),
+                any(DiffSummary.class));
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(messenger).informRevertTooLarge(3, 4096);
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+    }
+
+    @Test
+    public void shouldNotLockOrMergeWhenLockSentinelIsMissing() throws Exception {
+        givenAllRevertConditionsMet();
+        final RepositoryRevertLock lock = givenRevertLock();
+        when(lock.sentinelExists()).thenReturn(false);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(messenger).informRevertLockSentinelMissing("/.lock", "file:///repo");
+        verify(lock, never()).tryAcquire();
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+        verify(lock).close();
+    }
+
+    @Test
+    public void shouldNotMergeWhenAnotherControllerHoldsRepositoryLock() throws Exception {
+        givenAllRevertConditionsMet();
+        final RepositoryRevertLock lock = givenRevertLock();
+        when(lock.tryAcquire()).thenReturn(false);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(messenger).informRevertLockedElsewhere();
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+        verify(lock).close();
+    }
+
+    @Test
+    public void shouldMarkRevertedRevisionsAndReleaseRepositoryLock() throws Exception {
+        givenAllRevertConditionsMet();
+        final RepositoryRevertLock lock = givenRevertLock();
+        when(lock.tryAcquire()).thenReturn(true);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.REVERT_SUCCESSFUL));
+
+        verify(lock).markReverted(Revisions.create(FIRST_CHANGE));
+        verify(lock).release();
+        verify(lock).close();
+    }
+
+    @Test
+    public void shouldReportRevertWhenReleasingRepositoryLockFails() throws Exception {
+        givenAllRevertConditionsMet();
+        final RepositoryRevertLock lock = givenRevertLock();
+        when(lock.tryAcquire()).thenReturn(true);
+        doThrow(svnException).when(lock).release();
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.REVERT_SUCCESSFUL));
+
+        verify(messenger).informRevertLockNotReleased(svnException);
+        verify(svnKitClient, never()).rollbackMergedChanges();
+    }
+
+    @Test
+    public void shouldNotCommitWhenRepositoryLockWasTakenOver() throws Exception {
+        givenAllRevertConditionsMet();
+        givenMergedChangesToRollback(1);
+        final RepositoryRevertLock lock = givenRevertLock();
+        when(lock.tryAcquire()).thenReturn(true);
+        when(lock.renew()).thenReturn(false);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(messenger).informRevertLockLost();
+        verify(svnKitClient, never()).commit(anyString(), any(File[].class));
+        verify(svnKitClient).rollbackMergedChanges();
+        verify(lock, never()).markReverted(any(Revisions.class));
+    }
+
+    @Test
+    public void shouldNotRevertRevisionsAlreadyRevertedElsewhere() throws Exception {
+        givenAllRevertConditionsMet();
+        final RepositoryRevertLock lock = givenRevertLock();
+        when(lock.tryAcquire()).thenReturn(true);
+        when(lock.alreadyReverted(Revisions.create(FIRST_CHANGE))).thenReturn(true);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(messenger).informAlreadyRevertedElsewhere();
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+        verify(lock).release();
+    }
+
+    @Test
+    public void shouldNotMergeWhenRevertBudgetIsExhausted() throws Exception {
+        givenAllRevertConditionsMet();
+        when(modules.get(0).getRepositoryRoot(rootProject)).thenReturn("file:///repo");
+        final RevertRateLimiter limiter = mock(RevertRateLimiter.class);
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS).withRateLimit(new RevertRateLimit(limiter, 6, 2)));
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(limiter).tryAcquire("file:///repo", 6, 2);
+        verify(messenger).informRevertBudgetExhausted("file:///repo", 6, 2);
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+    }
+
+    @Test
+    public void shouldNotSpendRevertBudgetWhenLockedElsewhere() throws Exception {
+        givenAllRevertConditionsMet();
+        final RepositoryRevertLock lock = givenRevertLock();
+        when(lock.tryAcquire()).thenReturn(false);
+        final RevertRateLimiter limiter = mock(RevertRateLimiter.class);
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS)
+                        .withLockSettings(lockSettings)
+                        .withRateLimit(new RevertRateLimit(limiter, 6, 2)));
+
+        reverter.revert(subversionScm);
+
+        verify(limiter, never()).tryAcquire(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldNotRevertWhileCircuitIsOpen() throws Exception {
+        givenAllRevertConditionsMet();
+        final SvnCircuitBreaker breaker = givenCircuitBreaker();
+        when(breaker.allows("file:///repo")).thenReturn(false);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(messenger).informCircuitOpen("file:///repo");
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+    }
+
+    @Test
+    public void shouldCountFailedRevertTowardsCircuit() throws Exception {
+        givenAllRevertConditionsMet();
+        final SvnCircuitBreaker breaker = givenCircuitBreaker();
+        when(breaker.allows("file:///repo")).thenReturn(true);
+        doThrow(svnException).when(svnKitClient).commit(anyString(), any(File.class));
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(breaker).failed(eq("file:///repo"), eq(3), eq(1000L), any(SvnCircuitBreaker.Probe.class));
+        verify(breaker, never()).succeeded(anyString());
+    }
+
+    @Test
+    public void shouldProbeOpenCircuitWithFreshClient() throws Exception {
+        givenAllRevertConditionsMet();
+        final SvnCircuitBreaker breaker = givenCircuitBreaker();
+        when(breaker.allows("file:///repo")).thenReturn(true);
+        doThrow(svnException).when(svnKitClient).commit(anyString(), any(File.class));
+        when(svnFactory.create(rootProject, subversionScm)).thenReturn(svnKitClient, svnKitClient2);
+        when(svnKitClient2.isReachable("file:///repo")).thenReturn(true);
+        reverter.revert(subversionScm);
+        final ArgumentCaptor<SvnCircuitBreaker.Probe> probe = ArgumentCaptor.forClass(SvnCircuitBreaker.Probe.class);
+        verify(breaker).failed(eq("file:///repo"), eq(3), eq(1000L), probe.capture());
+
+        assertThat(probe.getValue().isHealthy(), is(true));
+
+        verify(svnKitClient, never()).isReachable(anyString());
+    }
+
+    @Test
+    public void shouldKeepRevertingInRepositoriesWhoseCircuitIsClosed() throws Exception {
+        givenAllRevertConditionsMetForModulesInTwoRepos();
+        final SvnCircuitBreaker breaker = givenCircuitBreaker();
+        when(modules.get(1).getRepositoryRoot(rootProject)).thenReturn("file:///repo2");
+        when(breaker.allows("file:///repo")).thenReturn(false);
+        when(breaker.allows("file:///repo2")).thenReturn(true);
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.REVERT_PARTIAL));
+
+        verify(messenger).informCircuitOpen("file:///repo");
+        verify(svnKitClient2, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+        verify(svnKitClient3).reverseMerge(Revisions.create(SECOND_CHANGE), svnUrl2, moduleDir2);
+    }
+
+    private SvnCircuitBreaker givenCircuitBreaker() throws Exception {
+        final SvnCircuitBreaker breaker = mock(SvnCircuitBreaker.class);
+        when(modules.get(0).getRepositoryRoot(rootProject)).thenReturn("file:///repo");
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS)
+                        .withCircuitBreaker(new SvnCircuitBreakerSettings(breaker, 3, 1000)));
+        return breaker;
+    }
+
+    @Test
+    public void shouldRecordNetworkUsageOnBuild() throws Exception {
+        givenAllRevertConditionsMet();
+        final NetworkUsage usage = new NetworkUsage("merge");
+        usage.written(10, 0);
+        when(svnKitClient.getNetworkUsage()).thenReturn(Lists.newArrayList(usage));
+
+        reverter.revert(subversionScm);
+
+        final ArgumentCaptor<NetworkUsageAction> action = ArgumentCaptor.forClass(NetworkUsageAction.class);
+        verify(build).addAction(action.capture());
+        assertThat(action.getValue().getTotal().getBytesWritten(), is(10L));
+    }
+
+    private RepositoryRevertLock givenRevertLock() throws Exception {
+        final RepositoryRevertLock lock = mock(RepositoryRevertLock.class);
+        when(modules.get(0).getRepositoryRoot(rootProject)).thenReturn("file:///repo");
+        when(svnKitClient.createRevertLock("file:///repo", lockSettings)).thenReturn(lock);
+        when(lock.sentinelExists()).thenReturn(true);
+        when(lock.renew()).thenReturn(true);
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS).withLockSettings(lockSettings));
+        return lock;
+    }
+
+    @Test
+    public void shouldNotRevertWhenCachedPreviewHasConflicts() throws Exception {
+        givenAllRevertConditionsMet();
+        givenCachedPreviewOf(Lists.newArrayList("file"), Lists.newArrayList("file"));
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.NOTHING_REVERTED));
+
+        verify(svnKitClient, never()).reverseMerge(any(Revisions.class), any(SVNURL.class), any(File.class));
+    }
+
+    private void givenMergedChangesToRollback(final SvnKitClient client) throws Exception {
+        when(client.hasMergedChanges()).thenReturn(true);
+        when(client.rollbackMergedChanges()).thenReturn(1);
+    }
+
+    private void givenAllRevertConditionsMetForModulesInTwoRepos() throws Exception {
+        givenAllRevertConditionsMetForTwoModulesInSameRepo();
+        when(changedRevisions.getRevisions()).thenReturn(Revisions.create(FIRST_CHANGE, SECOND_CHANGE));
+        when(svnKitClient.getRepositoryUuid(moduleDir)).thenReturn("uuid-1");
+        when(svnKitClient.getRepositoryUuid(moduleDir2)).thenReturn("uuid-2");
+        final Map<Integer, List<String>> messagesByRevision = Maps.newHashMap();
+        messagesByRevision.put(FIRST_CHANGE, Lists.newArrayList("change in first repository"));
+        messagesByRevision.put(SECOND_CHANGE, Lists.newArrayList("change in second repository"));
+        when(changedFiles.getMessagesByRevision()).thenReturn(messagesByRevision);
+        givenLogOf(svnKitClient2, svnUrl, FIRST_CHANGE, "change in first repository");
+        givenLogOf(svnKitClient3, svnUrl2, SECOND_CHANGE, "change in second repository");
+        when(svnFactory.create(rootProject, subversionScm)).thenReturn(svnKitClient, svnKitClient2, svnKitClient3);
+        when(svnKitClient2.commit(anyString(), any(File.class))).thenReturn(true);
+        when(svnKitClient3.commit(anyString(), any(File.class))).thenReturn(true);
+    }
+
+    private void givenLogOf(final SvnKitClient client, final SVNURL url, final Integer revision,
+            final String message) throws Exception {
+        final Map<Integer, String> log = Maps.newHashMap();
+        log.put(revision, message);
+        when(client.getLogMessages(any(Revisions.class), eq(url))).thenReturn(log);
+    }
+
+    private void givenMergedChangesToRollback(final int paths) throws Exception {
+        when(svnKitClient.hasMergedChanges()).thenReturn(true);
+        when(svnKitClient.rollbackMergedChanges()).thenReturn(paths);
+    }
+
+    private RevertPreview givenPreviewOf(final List<String> files, final List<String> conflicts)
+            throws Exception {
+        final RevertPreview preview = new RevertPreview(files, conflicts);
+        when(svnKitClient.previewReverseMerge(Revisions.create(FIRST_CHANGE), svnUrl, moduleDir))
+            .thenReturn(preview);
+        when(build.getAction(RevertPreviewAction.class)).thenReturn(previewAction);
+        return preview;
+    }
+
+    private void givenCachedPreviewOf(final List<String> files, final List<String> conflicts) {
+        final String key = RevertPreviewAction.keyFor(Revisions.create(FIRST_CHANGE), modules);
+        previewAction.put(key, new RevertPreview(files, conflicts));
+        when(build.getAction(RevertPreviewAction.class)).thenReturn(previewAction);
+    }
+
     private void givenAllRevertConditionsMetForTwoModulesInSameRepo() throws Exception,
             IOException, InterruptedException {
         givenAllRevertConditionsMet();
@@ -224,6 +706,28 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
         when(changedRevisions.getRevisions()).thenReturn(Revisions.create(FIRST_CHANGE));
     }
 
+    @Test
+    public void shouldUpdateWorkspaceToHeadBeforeRevertingAfterBuild() throws Exception {
+        givenAllRevertConditionsMet();
+        reverter = new SvnReverter(build, messenger, svnFactory, locationFinder, changedRevisions, changedFiles,
+                RevertSettings.of(NotificationTemplates.DEFAULTS).withUpdateToHead(true));
+
+        assertThat(reverter.revert(subversionScm), is(SvnRevertStatus.REVERT_SUCCESSFUL));
+
+        verify(messenger).informRevertingAtHead();
+        verify(svnKitClient).updateToHead(moduleDir);
+        verify(svnKitClient).reverseMerge(Revisions.create(FIRST_CHANGE), svnUrl, moduleDir);
+    }
+
+    @Test
+    public void shouldNotUpdateWorkspaceWhileBuilding() throws Exception {
+        givenAllRevertConditionsMet();
+
+        reverter.revert(subversionScm);
+
+        verify(svnKitClient, never()).updateToHead(any(File.class));
+    }
+
     private void givenRepositoryWithoutChanges() throws Exception {
         givenScmWithAuth();
         givenEnvironmentVariables();
@@ -262,9 +766,8 @@ public class SvnReverterTest extends AbstractMockitoTestCase {
     }
 
     private String buildCommitMessage() {
-        return String.format(SvnReverter.REVERT_MESSAGE.replace("(s)", ""),
-                Revisions.create(FIRST_CHANGE).getAllInOrderAsString(),
-                JOB_NAME);
+        return "Automatically reverted revision " + FIRST_CHANGE + " since Jenkins build " + JOB_NAME
+                + " became UNSTABLE.";
     }
 
 }
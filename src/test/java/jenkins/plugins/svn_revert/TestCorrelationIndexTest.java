@@ -0,0 +1,93 @@
+package jenkins.plugins.svn_revert;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import hudson.XmlFile;
+
+import java.io.File;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class TestCorrelationIndexTest {
+
+    private static final String MODULE_ROOT = "/workspace/module1";
+    private static final String MODULE_PATH = "/trunk/module1";
+    private static final String TEST_CLASS = "com.example.FooTest";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private TestCorrelationIndex index;
+
+    private final Map<String, String> moduleRoots = Maps.newHashMap();
+    private final Map<String, String> failingTests = Maps.newHashMap();
+
+    @Before
+    public void setUp() throws Exception {
+        moduleRoots.put(MODULE_ROOT, MODULE_PATH);
+        index = TestCorrelationIndex.forJob("job-" + System.nanoTime(), null);
+    }
+
+    @Test
+    public void relatesPathsInPackageOfFailingTest() throws Exception {
+        givenFailingTest(TEST_CLASS, null);
+
+        assertThat(isRelated("/trunk/other/src/main/java/com/example/Foo.java"), is(true));
+    }
+
+    @Test
+    public void relatesPathsInProjectOfFailingTest() throws Exception {
+        givenFailingTest(TEST_CLASS, MODULE_ROOT + "/sub/target/surefire-reports/TEST-com.example.FooTest.xml");
+
+        assertThat(isRelated("/trunk/module1/sub/src/main/resources/config.xml"), is(true));
+    }
+
+    @Test
+    public void doesNotRelatePathsElsewhere() throws Exception {
+        givenFailingTest(TEST_CLASS, MODULE_ROOT + "/sub/target/surefire-reports/TEST-com.example.FooTest.xml");
+
+        assertThat(isRelated("/trunk/module1/other/src/main/java/org/example/Bar.java"), is(false));
+    }
+
+    @Test
+    public void doesNotRelatePathsToTestsNotFailing() throws Exception {
+        givenFailingTest(TEST_CLASS, null);
+
+        assertThat(index.lookup(Lists.newArrayList("org.example.BarTest"))
+                .isRelated("/trunk/module1/src/main/java/com/example/Foo.java"), is(false));
+    }
+
+    @Test
+    public void isKeptPerJob() throws Exception {
+        assertThat(TestCorrelationIndex.forJob("job", null), is(TestCorrelationIndex.forJob("job", null)));
+    }
+
+    @Test
+    public void keepsIndexInFileOfJob() throws Exception {
+        final XmlFile file = new XmlFile(new File(folder.getRoot(), "index.xml"));
+        index = TestCorrelationIndex.forJob("saved-" + System.nanoTime(), file);
+        givenFailingTest(TEST_CLASS, null);
+
+        index = TestCorrelationIndex.forJob("loaded-" + System.nanoTime(), file);
+
+        assertThat(isRelated("/trunk/other/src/main/java/com/example/Foo.java"), is(true));
+    }
+
+    private void givenFailingTest(final String testClass, final String reportFile) {
+        failingTests.put(testClass, reportFile);
+        index.update(failingTests, moduleRoots);
+    }
+
+    private boolean isRelated(final String path) {
+        return index.lookup(failingTests.keySet()).anyRelated(Lists.newArrayList(path));
+    }
+
+}